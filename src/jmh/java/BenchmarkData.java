@@ -0,0 +1,109 @@
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Locale;
+import java.util.SplittableRandom;
+
+/**
+ * The BenchmarkData class gives the csv files the benchmarks read: AAPL.csv and
+ * AAPL-Dividends.csv, or synthetic files of any number of rows. The synthetic rows
+ * are spread evenly over the years 1900 to 2099, so a large file has many rows per
+ * day like intraday bars, and are written once under target/benchmark-data
+ *
+ * @author  Hussain Aljassim, Ahmed Baabdullah, Omar Mashhrawi
+ * @version 1.0
+ */
+final class BenchmarkData {
+
+    static final String AAPL = "AAPL";
+
+    static final int FIRST_YEAR = 1900;
+    static final int LAST_YEAR = 2099;
+
+    private static final Path DIRECTORY = Path.of("target", "benchmark-data");
+
+    private BenchmarkData() {
+    }
+
+
+    /**
+     * This method aims to get the stock csv file of a benchmark parameter
+     * @param rows This is the only parameter, AAPL or a number of rows
+     * @exception IOException On output error
+     * @return File The method will return the csv file
+     */
+    static File prices(String rows) throws IOException {
+        if (rows.equals(AAPL)) return new File("AAPL.csv");
+
+        int count = Integer.parseInt(rows);
+        Path file = DIRECTORY.resolve("SYNTH-" + count + ".csv");
+        if (!Files.exists(file)) writePrices(file, count);
+        return file.toFile();
+    }
+
+
+    /**
+     * This method aims to get the dividends csv file of a benchmark parameter,
+     * the synthetic files pay a dividend every quarter
+     * @param rows This is the only parameter, AAPL or a number of rows
+     * @exception IOException On output error
+     * @return File The method will return the csv file
+     */
+    static File dividends(String rows) throws IOException {
+        if (rows.equals(AAPL)) return new File("AAPL-Dividends.csv");
+
+        Path file = DIRECTORY.resolve("SYNTH-Dividends.csv");
+        if (!Files.exists(file)) writeDividends(file);
+        return file.toFile();
+    }
+
+
+    private static void writePrices(Path file, int rows) throws IOException {
+        Files.createDirectories(file.getParent());
+        Path temporary = Files.createTempFile(file.getParent(), "SYNTH", ".tmp");
+
+        long firstDay = LocalDate.of(FIRST_YEAR, 1, 1).toEpochDay();
+        long days = LocalDate.of(LAST_YEAR + 1, 1, 1).toEpochDay() - firstDay;
+        SplittableRandom random = new SplittableRandom(311);
+        double close = 100;
+
+        try (BufferedWriter writer = Files.newBufferedWriter(temporary)) {
+            writer.write("Date,Open,High,Low,Close,Adj Close,Volume");
+            writer.newLine();
+            for (long i = 0; i < rows; i++) {
+                LocalDate date = LocalDate.ofEpochDay(firstDay + i * days / rows);
+                double open = close;
+                close = Math.max(0.01, close * (1 + random.nextDouble(-0.02, 0.02)));
+                double high = Math.max(open, close) * (1 + random.nextDouble(0.01));
+                double low = Math.min(open, close) * (1 - random.nextDouble(0.01));
+
+                writer.write(String.format(Locale.ROOT, "%s,%.6f,%.6f,%.6f,%.6f,%.6f,%d",
+                        date, open, high, low, close, close * 0.98, random.nextLong(1_000_000, 500_000_000)));
+                writer.newLine();
+            }
+        }
+        Files.move(temporary, file);
+    }
+
+
+    private static void writeDividends(Path file) throws IOException {
+        Files.createDirectories(file.getParent());
+        Path temporary = Files.createTempFile(file.getParent(), "SYNTH", ".tmp");
+
+        try (BufferedWriter writer = Files.newBufferedWriter(temporary)) {
+            writer.write("Date,Dividends");
+            writer.newLine();
+            for (int year = FIRST_YEAR; year <= LAST_YEAR; year++) {
+                for (int month = 2; month <= 11; month += 3) {
+                    writer.write(String.format(Locale.ROOT, "%s,%.6f",
+                            LocalDate.of(year, month, 7), 0.1 + (year - FIRST_YEAR) * 0.001));
+                    writer.newLine();
+                }
+            }
+        }
+        Files.move(temporary, file);
+    }
+}
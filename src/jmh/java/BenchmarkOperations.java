@@ -0,0 +1,140 @@
+import java.io.File;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+/**
+ * The BenchmarkOperations class loads the data of a benchmark and gives every
+ * operation to measure as a Callable. JMH only runs benchmarks that are in a package,
+ * and a package can not use the classes of the default package, so the benchmarks
+ * get the operations from here through benchmarks.Operations
+ *
+ * @author  Hussain Aljassim, Ahmed Baabdullah, Omar Mashhrawi
+ * @version 1.0
+ */
+public final class BenchmarkOperations {
+
+    private BenchmarkOperations() {
+    }
+
+
+    /**
+     * This method aims to name the operations that load a series and answer one query,
+     * without reading the files first so the JVM stays cold. The snapshot is only written
+     * when it is missing, which warms up the csv reader of that fork
+     * @param rows This is the only parameter, AAPL or a number of synthetic rows
+     * @exception IOException On input error
+     * @return Map<String, Callable<Object>> The method will return the operations by name
+     */
+    public static Map<String, Callable<Object>> coldStart(String rows) throws IOException {
+        TradingOffice tradingOffice = new TradingOffice();
+        File pricesFile = BenchmarkData.prices(rows);
+        if (!new File(pricesFile.getPath() + SeriesSnapshot.EXTENSION).exists()) {
+            tradingOffice.getPriceSeriesFromSnapshot(pricesFile);
+        }
+        String year = rows.equals(BenchmarkData.AAPL) ? "2015" : "2000";
+
+        Map<String, Callable<Object>> operations = new LinkedHashMap<>();
+        operations.put("firstQuery.csv",
+                () -> tradingOffice.SMAYear(tradingOffice.getPriceSeriesFromCSV(pricesFile), year));
+        operations.put("firstQuery.snapshot",
+                () -> tradingOffice.SMAYear(tradingOffice.getPriceSeriesFromSnapshot(pricesFile), year));
+        return operations;
+    }
+
+
+    /**
+     * This method aims to load the files of a benchmark parameter and name its operations
+     * @param rows This is the only parameter, AAPL or a number of synthetic rows
+     * @exception IOException On input error
+     * @return Map<String, Callable<Object>> The method will return the operations by name
+     */
+    public static Map<String, Callable<Object>> of(String rows) throws IOException {
+        TradingOffice tradingOffice = new TradingOffice();
+        TradingOffice bigDecimal = new TradingOffice(TradingOffice.Arithmetic.BIG_DECIMAL);
+        File pricesFile = BenchmarkData.prices(rows);
+        File dividendsFile = BenchmarkData.dividends(rows);
+
+        ArrayList<String[]> prices = tradingOffice.getDataFromCSV(pricesFile);
+        ArrayList<String[]> dividends = tradingOffice.getDataFromCSV(dividendsFile);
+        PriceSeries priceSeries = tradingOffice.getPriceSeriesFromCSV(pricesFile);
+        DividendSeries dividendSeries = tradingOffice.getDividendSeriesFromCSV(dividendsFile);
+
+        // a period in the middle of the data, and a date with 20 rows after it for the EMA
+        int firstYear = EpochDays.year(priceSeries.epochDays[0]);
+        int lastYear = EpochDays.year(priceSeries.epochDays[priceSeries.size() - 1]);
+        int fromYear = firstYear + (lastYear - firstYear) / 4;
+        int toYear = lastYear - (lastYear - firstYear) / 4;
+        String year = String.valueOf((firstYear + lastYear) / 2);
+        LocalDate date = LocalDate.ofEpochDay(priceSeries.epochDays[priceSeries.size() / 2]);
+        int y = date.getYear();
+        int m = date.getMonthValue();
+        int d = date.getDayOfMonth();
+
+        Map<String, Callable<Object>> operations = new LinkedHashMap<>();
+        operations.put("getDataFromCSV", () -> tradingOffice.getDataFromCSV(pricesFile));
+        operations.put("getDataFromCSV.columns", () -> PriceSeries.fromRows(tradingOffice.getDataFromCSV(pricesFile)));
+        operations.put("getPriceSeriesFromCSV", () -> tradingOffice.getPriceSeriesFromCSV(pricesFile));
+        operations.put("streamPrices", () -> CsvSeriesReader.streamPrices(pricesFile.toPath(), 4096,
+                CsvSeriesReader.DEFAULT_WINDOW, chunk -> { }));
+
+        operations.put("yearsExist", () -> tradingOffice.yearsExist(prices, fromYear, toYear));
+        operations.put("getIndex", () -> tradingOffice.getIndex(prices, y, m, d));
+        operations.put("getIndex.series", () -> priceSeries.indexOf((int) date.toEpochDay()));
+        operations.put("SMA", () -> tradingOffice.SMA(prices));
+        operations.put("SMA.series", () -> tradingOffice.SMA(priceSeries));
+        operations.put("SMAOfSpecificPeriod", () -> tradingOffice.SMAOfSpecificPeriod(prices, fromYear, toYear));
+        operations.put("SMAOfSpecificPeriod.series", () -> tradingOffice.SMAOfSpecificPeriod(priceSeries, fromYear, toYear));
+        operations.put("SMAYear", () -> tradingOffice.SMAYear(prices, year));
+        operations.put("SMAYear.series", () -> tradingOffice.SMAYear(priceSeries, year));
+        operations.put("ExponentialMovingAverage", () -> tradingOffice.ExponentialMovingAverage(prices, y, m, d, 20));
+        operations.put("ExponentialMovingAverage.series",
+                () -> tradingOffice.ExponentialMovingAverage(priceSeries, y, m, d, 20));
+        operations.put("averageDividends", () -> tradingOffice.averageDividends(dividends, fromYear, toYear));
+        operations.put("averageDividends.series", () -> tradingOffice.averageDividends(dividendSeries, fromYear, toYear));
+
+        // the same queries with a BigDecimal per row, to compare with the fixed-point ones
+        operations.put("SMA.bigDecimal", () -> bigDecimal.SMA(priceSeries));
+        operations.put("SMAYear.bigDecimal", () -> bigDecimal.SMAYear(priceSeries, year));
+        operations.put("ExponentialMovingAverage.bigDecimal",
+                () -> bigDecimal.ExponentialMovingAverage(priceSeries, y, m, d, 20));
+        operations.put("averageDividends.bigDecimal", () -> bigDecimal.averageDividends(dividendSeries, fromYear, toYear));
+
+        operations.put("frequencyOfDividendsDistribution", () -> tradingOffice.frequencyOfDividendsDistribution(dividends));
+        operations.put("frequencyOfDividendsDistribution.series",
+                () -> tradingOffice.frequencyOfDividendsDistribution(dividendSeries));
+        return operations;
+    }
+
+
+    /**
+     * This method aims to name the kernels of ColumnKernels over the whole series, the
+     * vector ones only when they were compiled and the incubator module is loaded
+     * @param rows This is the only parameter, AAPL or a number of synthetic rows
+     * @exception IOException On input error
+     * @return Map<String, Callable<Object>> The method will return the operations by name
+     */
+    public static Map<String, Callable<Object>> kernels(String rows) throws IOException {
+        TradingOffice tradingOffice = new TradingOffice();
+        PriceSeries prices = tradingOffice.getPriceSeriesFromCSV(BenchmarkData.prices(rows));
+        int size = prices.size();
+        long[] highLow = new long[ColumnKernels.HIGH_LOW_SLOTS];
+
+        Map<String, Callable<Object>> operations = new LinkedHashMap<>();
+        for (ColumnKernels kernels : new ColumnKernels[]{ColumnKernels.scalar(), ColumnKernels.vector()}) {
+            if (kernels == null) continue;
+            String name = kernels == ColumnKernels.scalar() ? "scalar" : "vector";
+            operations.put("sum." + name, () -> kernels.sum(prices.close, 0, size));
+            operations.put("max." + name, () -> kernels.max(prices.high, 0, size));
+            operations.put("highLow." + name, () -> {
+                kernels.highLow(prices.high, prices.low, 0, size, highLow);
+                return highLow;
+            });
+            operations.put("priceRange." + name, () -> PriceRange.of(prices, 0, size, kernels));
+        }
+        return operations;
+    }
+}
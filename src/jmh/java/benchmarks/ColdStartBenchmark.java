@@ -0,0 +1,51 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The ColdStartBenchmark class measures the time from a fresh JVM to the answer of the
+ * first query (SMAYear), loading the series from the csv file or from its snapshot.
+ * Every measurement is a single call in a new fork, so the JIT has not warmed up
+ *
+ * @author  Hussain Aljassim, Ahmed Baabdullah, Omar Mashhrawi
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(value = 10, jvmArgsAppend = "-Xmx12g")
+public class ColdStartBenchmark {
+
+    @Param({"AAPL", "1000000"})
+    String rows;
+
+    @Param({"firstQuery.csv", "firstQuery.snapshot"})
+    String load;
+
+    Callable<Object> call;
+
+    @Setup
+    public void setUp() throws Exception {
+        call = new Operations("BenchmarkOperations", "coldStart", rows).get(load);
+    }
+
+    @Benchmark
+    public Object firstQuery() throws Exception {
+        return call.call();
+    }
+}
@@ -0,0 +1,51 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The CsvIngestBenchmark class compares the line reader (getDataFromCSV), the line
+ * reader followed by the conversion to columns, and the memory-mapped column reader
+ * reading the whole file or streaming it in chunks
+ *
+ * @author  Hussain Aljassim, Ahmed Baabdullah, Omar Mashhrawi
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx12g")
+public class CsvIngestBenchmark {
+
+    @Param({"AAPL", "1000000"})
+    String rows;
+
+    @Param({"getDataFromCSV", "getDataFromCSV.columns", "getPriceSeriesFromCSV", "streamPrices"})
+    String reader;
+
+    Callable<Object> call;
+
+    @Setup
+    public void setUp() throws Exception {
+        call = new Operations("BenchmarkOperations", "of", rows).get(reader);
+    }
+
+    @Benchmark
+    public Object read() throws Exception {
+        return call.call();
+    }
+}
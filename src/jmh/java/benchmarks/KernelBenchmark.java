@@ -0,0 +1,57 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The KernelBenchmark class compares the scalar and the vector kernels of ColumnKernels
+ * over the whole close, high and low columns. The vector kernels are only there with
+ * the vector profile, so the kernels run by default are the scalar ones and the vector
+ * ones are asked for by name:
+ *
+ * <pre>
+ * mvn -P benchmarks,vector test-compile exec:exec -Djmh.args="KernelBenchmark -p kernel=sum.scalar,sum.vector,max.scalar,max.vector,highLow.scalar,highLow.vector,priceRange.scalar,priceRange.vector"
+ * </pre>
+ *
+ * @author  Hussain Aljassim, Ahmed Baabdullah, Omar Mashhrawi
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g", "--add-modules=jdk.incubator.vector"})
+public class KernelBenchmark {
+
+    @Param({"AAPL", "1000000", "10000000"})
+    String rows;
+
+    // without the vector profile there are no vector kernels, so a trial of one would fail in setUp
+    @Param({"sum.scalar", "max.scalar", "highLow.scalar", "priceRange.scalar"})
+    String kernel;
+
+    Callable<Object> call;
+
+    @Setup
+    public void setUp() throws Exception {
+        call = new Operations("BenchmarkOperations", "kernels", rows).get(kernel);
+    }
+
+    @Benchmark
+    public Object run() throws Exception {
+        return call.call();
+    }
+}
@@ -0,0 +1,30 @@
+package benchmarks;
+
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+/**
+ * The Operations class gets the operations of BenchmarkOperations, which is in the
+ * default package, by reflection. It is called once per trial, the benchmarks then
+ * call the operations through the Callable interface
+ *
+ * @author  Hussain Aljassim, Ahmed Baabdullah, Omar Mashhrawi
+ * @version 1.0
+ */
+final class Operations {
+
+    private final Map<String, Callable<Object>> operations;
+
+    @SuppressWarnings("unchecked")
+    Operations(String className, String factory, String rows) throws ReflectiveOperationException {
+        operations = (Map<String, Callable<Object>>) Class.forName(className)
+                .getMethod(factory, String.class)
+                .invoke(null, rows);
+    }
+
+    Callable<Object> get(String name) {
+        Callable<Object> operation = operations.get(name);
+        if (operation == null) throw new IllegalArgumentException("No operation " + name);
+        return operation;
+    }
+}
@@ -0,0 +1,62 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The TradingOfficeBenchmark class measures every operation of TradingOffice, on the
+ * rows of getDataFromCSV and on the columnar series (the .series operations), for
+ * AAPL.csv and synthetic files of one and ten million rows. The benchmarks profile runs
+ * it with the gc profiler for the allocation rate. The ten million row files need a
+ * large heap for the rows of getDataFromCSV
+ *
+ * @author  Hussain Aljassim, Ahmed Baabdullah, Omar Mashhrawi
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx12g")
+public class TradingOfficeBenchmark {
+
+    @Param({"AAPL", "1000000", "10000000"})
+    String rows;
+
+    @Param({"getDataFromCSV", "getPriceSeriesFromCSV",
+            "yearsExist", "getIndex", "getIndex.series",
+            "SMA", "SMA.series",
+            "SMAOfSpecificPeriod", "SMAOfSpecificPeriod.series",
+            "SMAYear", "SMAYear.series",
+            "ExponentialMovingAverage", "ExponentialMovingAverage.series",
+            "averageDividends", "averageDividends.series",
+            "SMA.bigDecimal", "SMAYear.bigDecimal",
+            "ExponentialMovingAverage.bigDecimal", "averageDividends.bigDecimal",
+            "frequencyOfDividendsDistribution", "frequencyOfDividendsDistribution.series"})
+    String operation;
+
+    Callable<Object> call;
+
+    @Setup
+    public void setUp() throws Exception {
+        call = new Operations("BenchmarkOperations", "of", rows).get(operation);
+    }
+
+    @Benchmark
+    public Object run() throws Exception {
+        return call.call();
+    }
+}
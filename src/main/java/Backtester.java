@@ -0,0 +1,318 @@
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * The Backtester class runs moving average crossover strategies over the close
+ * price of one or many tickers: the strategy holds the stock while the fast average
+ * is above the slow one, buying and selling at the close of the day the averages
+ * cross. A grid of fast and slow windows is run on a pool of threads.
+ *
+ * Every ticker is read once and shared by every strategy. The average of every
+ * window of the grid is calculated once per ticker with RollingIndicators, then a
+ * strategy is one pass over its two averages, so a grid of F x S windows costs
+ * F + S averages instead of 2 x F x S
+ *
+ * @author  Hussain Aljassim, Ahmed Baabdullah, Omar Mashhrawi
+ * @version 1.0
+ */
+public class Backtester {
+
+    static final String HEADER = "Ticker,Average,Fast,Slow,Trades,Return,MaxDrawdown";
+
+    // the number of strategies of a task, enough to hide the cost of handing out a task
+    private static final int STRATEGIES_PER_TASK = 64;
+
+    private final int parallelism;
+
+    Backtester(int parallelism) {
+        if (parallelism <= 0) throw new IllegalArgumentException("The parallelism must be positive: " + parallelism);
+        this.parallelism = parallelism;
+    }
+
+
+    /**
+     * Usage: Backtester directory output.csv [sma|ema] [maxFast] [maxSlow] [parallelism]
+     * runs every fast window from 2 to maxFast with every slow window up to maxSlow above it
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length < 2) {
+            System.out.println("Usage: Backtester <directory> <output.csv> [sma|ema] [maxFast] [maxSlow] [parallelism]");
+            System.exit(1);
+        }
+
+        Path directory = Path.of(args[0]);
+        Path output = Path.of(args[1]);
+        Average average = args.length > 2 ? Average.valueOf(args[2].toUpperCase(Locale.ROOT)) : Average.SMA;
+        int maxFast = args.length > 3 ? Integer.parseInt(args[3]) : 50;
+        int maxSlow = args.length > 4 ? Integer.parseInt(args[4]) : 200;
+        int parallelism = args.length > 5 ? Integer.parseInt(args[5]) : Runtime.getRuntime().availableProcessors();
+
+        TradingOffice tradingOffice = new TradingOffice();
+        Map<String, PriceSeries> tickers = new LinkedHashMap<>();
+        for (String ticker : BatchRunner.findTickers(directory)) {
+            tickers.put(ticker, tradingOffice.getPriceSeriesFromSnapshot(directory.resolve(ticker + ".csv").toFile()));
+        }
+        List<Strategy> strategies = grid(average, 2, maxFast, maxSlow);
+
+        long start = System.nanoTime();
+        List<Result> results = new Backtester(parallelism).run(tickers, strategies);
+        long nanos = System.nanoTime() - start;
+        write(results, output);
+
+        System.out.printf(Locale.ROOT, "%d combinations of %d tickers on %d threads in %.1f ms, %.0f combinations/s%n",
+                results.size(), tickers.size(), parallelism, nanos / 1e6, results.size() / (nanos / 1e9));
+    }
+
+
+    /**
+     * This method aims to make the strategies of every fast window with every slower window
+     * @param average This is the first parameter, the kind of moving average
+     * @param minFast This is the second parameter, the smallest fast window
+     * @param maxFast This is the third parameter, the largest fast window
+     * @param maxSlow This is the forth parameter, the largest slow window
+     * @return List<Strategy> The method will return a strategy per pair with fast < slow
+     */
+    static List<Strategy> grid(Average average, int minFast, int maxFast, int maxSlow) {
+        List<Strategy> strategies = new ArrayList<>();
+        for (int fast = minFast; fast <= maxFast; fast++) {
+            for (int slow = fast + 1; slow <= maxSlow; slow++) {
+                strategies.add(new Strategy(average, fast, slow));
+            }
+        }
+        return strategies;
+    }
+
+
+    /**
+     * This method aims to run every strategy on every ticker on a pool of threads
+     * @param tickers This is the first parameter, the stock series of every ticker sorted by date
+     * @param strategies This is the second parameter, the strategies
+     * @exception InterruptedException If the thread is interrupted while waiting
+     * @return List<Result> The method will return a result per ticker and strategy, the
+     * strategies of the first ticker first, in the order of the strategies
+     */
+    List<Result> run(Map<String, PriceSeries> tickers, List<Strategy> strategies) throws InterruptedException {
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            // the averages of every window of every ticker, each array written by one task
+            List<Callable<double[]>> averageTasks = new ArrayList<>();
+            List<Map<Strategy, double[]>> averagesOfTicker = new ArrayList<>();
+            for (PriceSeries series : tickers.values()) {
+                Map<Strategy, double[]> averages = new HashMap<>();
+                for (Strategy strategy : strategies) {
+                    for (Strategy window : new Strategy[]{strategy.fastAverage(), strategy.slowAverage()}) {
+                        if (averages.containsKey(window)) continue;
+                        double[] values = new double[series.size()];
+                        averages.put(window, values);
+                        averageTasks.add(() -> window.average.calculate(series, window.fast, values));
+                    }
+                }
+                averagesOfTicker.add(averages);
+            }
+            invokeAll(pool, averageTasks);
+
+            List<Callable<List<Result>>> tasks = new ArrayList<>();
+            int t = 0;
+            for (Map.Entry<String, PriceSeries> ticker : tickers.entrySet()) {
+                Map<Strategy, double[]> averages = averagesOfTicker.get(t++);
+                double[] growth = growthOf(ticker.getValue());
+                for (int from = 0; from < strategies.size(); from += STRATEGIES_PER_TASK) {
+                    List<Strategy> chunk = strategies.subList(from, Math.min(strategies.size(), from + STRATEGIES_PER_TASK));
+                    tasks.add(() -> {
+                        List<Result> results = new ArrayList<>(chunk.size());
+                        for (Strategy strategy : chunk) {
+                            results.add(backtest(ticker.getKey(), growth, averages.get(strategy.fastAverage()),
+                                    averages.get(strategy.slowAverage()), strategy));
+                        }
+                        return results;
+                    });
+                }
+            }
+
+            List<Result> results = new ArrayList<>(tickers.size() * strategies.size());
+            for (List<Result> chunk : invokeAll(pool, tasks)) {
+                results.addAll(chunk);
+            }
+            return results;
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+
+    /**
+     * This method aims to get the change of the close of every day from the day before,
+     * shared by every strategy of a ticker
+     * @param series This is the only parameter, the stock series
+     * @return double[] The method will return close[i] / close[i - 1] for every row, 1 for the first one
+     */
+    static double[] growthOf(PriceSeries series) {
+        double[] growth = new double[series.size()];
+        for (int i = 0; i < growth.length; i++) {
+            growth[i] = i == 0 ? 1.0 : (double) series.close[i] / series.close[i - 1];
+        }
+        return growth;
+    }
+
+
+    /**
+     * This method aims to run one strategy over the averages of a ticker. The position
+     * taken at the close of a day earns the change of the close to the next day
+     * @param ticker This is the first parameter, the name of the ticker
+     * @param growth This is the second parameter, the change of the close of every row, from growthOf
+     * @param fast This is the third parameter, the fast average of every row, NaN before it is known
+     * @param slow This is the forth parameter, the slow average of every row, NaN before it is known
+     * @param strategy This is the fifth parameter, the strategy
+     * @return Result The method will return the trades, the return and the drawdown
+     */
+    static Result backtest(String ticker, double[] growth, double[] fast, double[] slow, Strategy strategy) {
+        boolean holding = false;
+        int trades = 0;
+        double equity = 1.0;
+        double peak = 1.0;
+        double maxDrawdown = 0.0;
+
+        for (int i = 0; i < growth.length; i++) {
+            if (holding) {
+                equity *= growth[i];
+                peak = Math.max(peak, equity);
+                maxDrawdown = Math.max(maxDrawdown, 1.0 - equity / peak);
+            }
+            // NaN compares as false, so there is no position before both averages are known
+            boolean above = fast[i] > slow[i];
+            if (above && !holding) trades++;
+            holding = above;
+        }
+        return new Result(ticker, strategy, trades, equity - 1.0, maxDrawdown);
+    }
+
+
+    static void write(List<Result> results, Path output) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(output)) {
+            writer.write(HEADER);
+            writer.newLine();
+            for (Result result : results) {
+                writer.write(result.toCsv());
+                writer.newLine();
+            }
+        }
+    }
+
+
+    private static <T> List<T> invokeAll(ForkJoinPool pool, List<Callable<T>> tasks) throws InterruptedException {
+        List<T> results = new ArrayList<>(tasks.size());
+        try {
+            for (Future<T> future : pool.invokeAll(tasks)) {
+                results.add(future.get());
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+        return results;
+    }
+
+
+    /**
+     * The Average enum is the kind of moving average of a strategy
+     */
+    enum Average {
+        SMA {
+            @Override
+            double[] calculate(PriceSeries series, int window, double[] out) {
+                RollingIndicators.sma(series.close, window, 0, series.size(), out, 0);
+                return out;
+            }
+        },
+        EMA {
+            @Override
+            double[] calculate(PriceSeries series, int window, double[] out) {
+                RollingIndicators.ema(series.close, window, 0, series.size(), out, 0);
+                return out;
+            }
+        };
+
+        abstract double[] calculate(PriceSeries series, int window, double[] out);
+    }
+
+
+    /**
+     * The Strategy class is a pair of windows of a kind of moving average. A strategy
+     * whose two windows are the same stands for the average of that window alone
+     */
+    static final class Strategy {
+        final Average average;
+        final int fast;
+        final int slow;
+
+        Strategy(Average average, int fast, int slow) {
+            if (fast <= 0 || slow < fast) {
+                throw new IllegalArgumentException("The windows must be 0 < fast <= slow: " + fast + ", " + slow);
+            }
+            this.average = average;
+            this.fast = fast;
+            this.slow = slow;
+        }
+
+        Strategy fastAverage() {
+            return new Strategy(average, fast, fast);
+        }
+
+        Strategy slowAverage() {
+            return new Strategy(average, slow, slow);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof Strategy)) return false;
+            Strategy strategy = (Strategy) other;
+            return average == strategy.average && fast == strategy.fast && slow == strategy.slow;
+        }
+
+        @Override
+        public int hashCode() {
+            return (average.hashCode() * 31 + fast) * 31 + slow;
+        }
+
+        @Override
+        public String toString() {
+            return average + "(" + fast + ", " + slow + ")";
+        }
+    }
+
+
+    /**
+     * The Result class holds what a strategy did on a ticker
+     */
+    static final class Result {
+        final String ticker;
+        final Strategy strategy;
+        final int trades;
+        final double totalReturn;
+        final double maxDrawdown;
+
+        Result(String ticker, Strategy strategy, int trades, double totalReturn, double maxDrawdown) {
+            this.ticker = ticker;
+            this.strategy = strategy;
+            this.trades = trades;
+            this.totalReturn = totalReturn;
+            this.maxDrawdown = maxDrawdown;
+        }
+
+        String toCsv() {
+            return String.format(Locale.ROOT, "%s,%s,%d,%d,%d,%.6f,%.6f", ticker, strategy.average,
+                    strategy.fast, strategy.slow, trades, totalReturn, maxDrawdown);
+        }
+    }
+}
@@ -0,0 +1,192 @@
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.function.Supplier;
+
+/**
+ * The BatchQuery class is one query of TradingOffice.batch: an SMA over years, over
+ * dates or over one year, an EMA from a date, or an average of dividends over years.
+ * The queries of a batch are answered from one index of the series, so asking for
+ * hundreds of windows costs one pass over the rows and a binary search per window
+ *
+ * @author  Hussain Aljassim, Ahmed Baabdullah, Omar Mashhrawi
+ * @version 1.0
+ */
+public final class BatchQuery {
+
+    /**
+     * The Kind enum names the TradingOffice method a query gives the same answer as
+     */
+    enum Kind {
+        SMA_OF_SPECIFIC_PERIOD,
+        SMA_OF_DATE_RANGE,
+        SMA_YEAR,
+        EXPONENTIAL_MOVING_AVERAGE,
+        AVERAGE_DIVIDENDS
+    }
+
+    final Kind kind;
+    // the years, the epoch days or the date and the days of the EMA, depending on the kind
+    final int first;
+    final int second;
+    final int third;
+    final int fourth;
+
+    private BatchQuery(Kind kind, int first, int second, int third, int fourth) {
+        this.kind = kind;
+        this.first = first;
+        this.second = second;
+        this.third = third;
+        this.fourth = fourth;
+    }
+
+
+    /**
+     * This method aims to ask for the SMA between two years, like SMAOfSpecificPeriod
+     * @param from This is the first parameter, the first year in the period
+     * @param to This is the second parameter, the second year in the period
+     * @return BatchQuery The method will return the query
+     */
+    static BatchQuery smaOfSpecificPeriod(int from, int to) {
+        return new BatchQuery(Kind.SMA_OF_SPECIFIC_PERIOD, from, to, 0, 0);
+    }
+
+
+    /**
+     * This method aims to ask for the SMA between two dates, both included, like SMAOfDateRange
+     * @param from This is the first parameter, the first date of the period
+     * @param to This is the second parameter, the last date of the period
+     * @return BatchQuery The method will return the query
+     */
+    static BatchQuery smaOfDateRange(LocalDate from, LocalDate to) {
+        return new BatchQuery(Kind.SMA_OF_DATE_RANGE, Math.toIntExact(from.toEpochDay()),
+                (int) Math.min(to.toEpochDay() + 1, Integer.MAX_VALUE), 0, 0);
+    }
+
+
+    /**
+     * This method aims to ask for the SMA of a year, like SMAYear
+     * @param year This is the only parameter, the year
+     * @return BatchQuery The method will return the query
+     */
+    static BatchQuery smaYear(int year) {
+        return new BatchQuery(Kind.SMA_YEAR, year, year, 0, 0);
+    }
+
+
+    /**
+     * This method aims to ask for the EMA from a date, like ExponentialMovingAverage
+     * @param startingYear This is the first parameter, The starting year
+     * @param month This is the second parameter, the month of the year chosen
+     * @param dayOfMonth This is the third parameter, the day of month
+     * @param days This is the forth parameter, the number of days to calculate EMA
+     * @return BatchQuery The method will return the query
+     */
+    static BatchQuery exponentialMovingAverage(int startingYear, int month, int dayOfMonth, int days) {
+        return new BatchQuery(Kind.EXPONENTIAL_MOVING_AVERAGE, startingYear, month, dayOfMonth, days);
+    }
+
+
+    /**
+     * This method aims to ask for the average of dividends between two years, like averageDividends
+     * @param from This is the first parameter, the first year
+     * @param to This is the second parameter, the second year
+     * @return BatchQuery The method will return the query
+     */
+    static BatchQuery averageDividends(int from, int to) {
+        return new BatchQuery(Kind.AVERAGE_DIVIDENDS, from, to, 0, 0);
+    }
+
+
+    @Override
+    public String toString() {
+        switch (kind) {
+            case SMA_OF_DATE_RANGE:
+                return kind + "(" + LocalDate.ofEpochDay(first) + ", " + LocalDate.ofEpochDay(second - 1L) + ")";
+            case EXPONENTIAL_MOVING_AVERAGE:
+                return kind + "(" + first + "-" + second + "-" + third + ", " + fourth + ")";
+            default:
+                return kind + "(" + first + ", " + second + ")";
+        }
+    }
+
+
+    /**
+     * The SortedColumn class is a column of a series in date order with its running
+     * totals, built once per batch. A series whose dates are sorted is used as it is,
+     * one that is not is sorted once, which keeps the rows of every date window
+     * together and leaves the sum of the window the same
+     */
+    static final class SortedColumn {
+        final DateIndex index;
+        final PrefixSums sums;
+        final int scale;
+        // the rows read to build it, zero when the index of the series was used
+        final int rowsScanned;
+
+        private SortedColumn(DateIndex index, PrefixSums sums, int scale, int rowsScanned) {
+            this.index = index;
+            this.sums = sums;
+            this.scale = scale;
+            this.rowsScanned = rowsScanned;
+        }
+
+
+        /**
+         * This method aims to get a column of a series in date order
+         * @param index This is the first parameter, the index of the date column of the series
+         * @param sums This is the second parameter, a supplier of the running totals of the series,
+         * only called when the dates are sorted
+         * @param epochDays This is the third parameter, the date column
+         * @param column This is the forth parameter, the column in micros
+         * @param size This is the fifth parameter, the number of rows
+         * @param scale This is the sixth parameter, the scale to round the averages at
+         * @return SortedColumn The method will return the column in date order
+         */
+        static SortedColumn of(DateIndex index, Supplier<PrefixSums> sums,
+                               int[] epochDays, long[] column, int size, int scale) {
+            if (index.isSorted()) return new SortedColumn(index, sums.get(), scale, 0);
+
+            // the date in the high half and the row in the low half, so one sort of longs orders the rows
+            long[] keys = new long[size];
+            for (int i = 0; i < size; i++) {
+                keys[i] = (long) epochDays[i] << 32 | i;
+            }
+            Arrays.sort(keys);
+
+            int[] sortedDays = new int[size];
+            long[] sortedColumn = new long[size];
+            for (int i = 0; i < size; i++) {
+                sortedDays[i] = (int) (keys[i] >> 32);
+                sortedColumn[i] = column[(int) keys[i]];
+            }
+            return new SortedColumn(DateIndex.ofSorted(sortedDays, size), PrefixSums.of(sortedColumn, size),
+                    scale, size);
+        }
+
+
+        /**
+         * This method aims to average the rows of the years from and to, and of the
+         * years between them, the same way SMAOfSpecificPeriod and averageDividends do
+         * @param from This is the first parameter, the first year
+         * @param to This is the second parameter, the second year
+         * @return BigDecimal The method will return the average, it will return zero
+         * if none of the years exist
+         */
+        BigDecimal averageOfYears(int from, int to) {
+            if (!index.yearExists(from) && !index.yearExists(to)) return BigDecimal.ZERO;
+            return average(EpochDays.yearStart(from), EpochDays.yearStart(to + 1));
+        }
+
+
+        /**
+         * This method aims to average the rows between two dates
+         * @param firstDay This is the first parameter, the first epoch day included
+         * @param endDay This is the second parameter, the first epoch day excluded
+         * @return BigDecimal The method will return the average, or zero if no row is in the window
+         */
+        BigDecimal average(int firstDay, int endDay) {
+            return sums.mean(index.firstOnOrAfter(firstDay), index.firstOnOrAfter(endDay), scale);
+        }
+    }
+}
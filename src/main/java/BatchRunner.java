@@ -0,0 +1,219 @@
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * The BatchRunner class loads every TICKER.csv / TICKER-Dividends.csv pair of a
+ * directory and calculates the SMA, the EMA, the average dividends and the frequency
+ * of dividends of every ticker on a pool of threads, then writes one csv file
+ * with a row per ticker
+ *
+ * @author  Hussain Aljassim, Ahmed Baabdullah, Omar Mashhrawi
+ * @version 1.0
+ */
+public class BatchRunner {
+
+    static final String DIVIDENDS_SUFFIX = "-Dividends.csv";
+    static final String HEADER = "Ticker,Rows,SMA,EMA,AverageDividends,FrequencyOfDividends,Error";
+
+    private final TradingOffice tradingOffice = new TradingOffice();
+    private final int emaWindow;
+
+    BatchRunner(int emaWindow) {
+        if (emaWindow <= 0) throw new IllegalArgumentException("The EMA window must be positive: " + emaWindow);
+        this.emaWindow = emaWindow;
+    }
+
+
+    /**
+     * Usage: BatchRunner directory output.csv [parallelism] [emaWindow] [--compare]
+     * with --compare the tickers are also run on one thread and the speedup is printed
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length < 2) {
+            System.out.println("Usage: BatchRunner <directory> <output.csv> [parallelism] [emaWindow] [--compare]");
+            System.exit(1);
+        }
+
+        Path directory = Path.of(args[0]);
+        Path output = Path.of(args[1]);
+        int parallelism = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        int emaWindow = args.length > 3 ? Integer.parseInt(args[3]) : 20;
+        boolean compare = args.length > 4 && args[4].equals("--compare");
+
+        BatchRunner runner = new BatchRunner(emaWindow);
+        List<String> tickers = findTickers(directory);
+
+        long sequentialNanos = 0;
+        if (compare) {
+            long start = System.nanoTime();
+            runner.run(directory, tickers, 1);
+            sequentialNanos = System.nanoTime() - start;
+        }
+
+        long start = System.nanoTime();
+        List<TickerResult> results = runner.run(directory, tickers, parallelism);
+        long parallelNanos = System.nanoTime() - start;
+        write(results, output);
+
+        System.out.printf("%d tickers on %d threads in %.1f ms%n",
+                results.size(), parallelism, parallelNanos / 1e6);
+        if (compare) {
+            System.out.printf("1 thread in %.1f ms, speedup %.2fx%n",
+                    sequentialNanos / 1e6, (double) sequentialNanos / parallelNanos);
+        }
+    }
+
+
+    /**
+     * This method aims to find the tickers of a directory, a ticker is a csv file
+     * that is not a dividends file
+     * @param directory This is the only parameter, the directory of the csv files
+     * @exception IOException On input error
+     * @return List<String> The method will return the tickers sorted by name
+     */
+    static List<String> findTickers(Path directory) throws IOException {
+        List<String> tickers = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*.csv")) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                if (!name.endsWith(DIVIDENDS_SUFFIX)) {
+                    tickers.add(name.substring(0, name.length() - ".csv".length()));
+                }
+            }
+        }
+        Collections.sort(tickers);
+        return tickers;
+    }
+
+
+    /**
+     * This method aims to analyze the tickers on a pool of threads
+     * @param directory This is the first parameter, the directory of the csv files
+     * @param tickers This is the second parameter, the tickers to analyze
+     * @param parallelism This is the third parameter, the number of threads
+     * @exception InterruptedException If the thread is interrupted while waiting
+     * @return List<TickerResult> The method will return a result per ticker in the order of the tickers
+     */
+    List<TickerResult> run(Path directory, List<String> tickers, int parallelism) throws InterruptedException {
+        List<Callable<TickerResult>> tasks = new ArrayList<>(tickers.size());
+        for (String ticker : tickers) {
+            tasks.add(() -> analyze(directory, ticker));
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            List<TickerResult> results = new ArrayList<>(tickers.size());
+            for (Future<TickerResult> future : pool.invokeAll(tasks)) {
+                results.add(future.get());
+            }
+            return results;
+        } catch (ExecutionException e) {
+            // analyze reports its own failures in the result, so this is a bug
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+
+    /**
+     * This method aims to load and analyze one ticker, a ticker that can not be read
+     * gets a result with the error instead of stopping the other tickers
+     * @param directory This is the first parameter, the directory of the csv files
+     * @param ticker This is the second parameter, the ticker
+     * @return TickerResult The method will return the indicators of the ticker
+     */
+    TickerResult analyze(Path directory, String ticker) {
+        try {
+            PriceSeries prices = tradingOffice.getPriceSeriesFromCSV(directory.resolve(ticker + ".csv").toFile());
+            if (prices.size() == 0) return TickerResult.failed(ticker, "no rows");
+
+            BigDecimal sma = tradingOffice.SMA(prices);
+            double[] ema = new double[1];
+            RollingIndicators.ema(prices.close, emaWindow, prices.size() - 1, prices.size(), ema, 0);
+
+            BigDecimal averageDividends = BigDecimal.ZERO;
+            int frequency = 0;
+            Path dividendsFile = directory.resolve(ticker + DIVIDENDS_SUFFIX);
+            if (Files.exists(dividendsFile)) {
+                DividendSeries dividends = tradingOffice.getDividendSeriesFromCSV(dividendsFile.toFile());
+                if (dividends.size() > 0) {
+                    averageDividends = tradingOffice.averageDividends(dividends,
+                            EpochDays.year(dividends.epochDays[0]),
+                            EpochDays.year(dividends.epochDays[dividends.size() - 1]));
+                    frequency = tradingOffice.frequencyOfDividendsDistribution(dividends);
+                }
+            }
+
+            return new TickerResult(ticker, prices.size(), sma, ema[0], averageDividends, frequency, null);
+        } catch (IOException | RuntimeException e) {
+            return TickerResult.failed(ticker, e.getClass().getSimpleName() + ": " + e.getMessage());
+        }
+    }
+
+
+    /**
+     * This method aims to write the results into one csv file
+     * @param results This is the first parameter, the results to write
+     * @param output This is the second parameter, the path of the csv file
+     * @exception IOException On output error
+     */
+    static void write(List<TickerResult> results, Path output) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(output)) {
+            writer.write(HEADER);
+            writer.newLine();
+            for (TickerResult result : results) {
+                writer.write(result.toCsv());
+                writer.newLine();
+            }
+        }
+    }
+
+
+    /**
+     * The TickerResult class holds the indicators of one ticker
+     */
+    static final class TickerResult {
+        final String ticker;
+        final int rows;
+        final BigDecimal sma;
+        final double ema;
+        final BigDecimal averageDividends;
+        final int frequencyOfDividends;
+        final String error;
+
+        TickerResult(String ticker, int rows, BigDecimal sma, double ema,
+                     BigDecimal averageDividends, int frequencyOfDividends, String error) {
+            this.ticker = ticker;
+            this.rows = rows;
+            this.sma = sma;
+            this.ema = ema;
+            this.averageDividends = averageDividends;
+            this.frequencyOfDividends = frequencyOfDividends;
+            this.error = error;
+        }
+
+        static TickerResult failed(String ticker, String error) {
+            return new TickerResult(ticker, 0, BigDecimal.ZERO, Double.NaN, BigDecimal.ZERO, 0, error);
+        }
+
+        String toCsv() {
+            return ticker + ',' + rows + ',' + sma.toPlainString() + ',' +
+                    (Double.isNaN(ema) ? "" : String.format(Locale.ROOT, "%.6f", ema)) + ',' +
+                    averageDividends.toPlainString() + ',' + frequencyOfDividends + ',' +
+                    (error == null ? "" : '"' + error.replace("\"", "'") + '"');
+        }
+    }
+}
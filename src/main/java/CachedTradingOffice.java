@@ -0,0 +1,239 @@
+import java.io.File;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The CachedTradingOffice class answers the indicator queries of TradingOffice
+ * through a ResultCache, so a query that is asked again on the same series is not
+ * calculated again. The series read through it are remembered by file, and reading
+ * a file again drops every result of the series it was read into before
+ *
+ * @author  Hussain Aljassim, Ahmed Baabdullah, Omar Mashhrawi
+ * @version 1.0
+ */
+public class CachedTradingOffice {
+
+    private final TradingOffice tradingOffice;
+    private final ResultCache cache;
+    private final Map<Path, Object> seriesOfFile = new HashMap<>();
+
+    CachedTradingOffice(TradingOffice tradingOffice, ResultCache cache) {
+        this.tradingOffice = tradingOffice;
+        this.cache = cache;
+    }
+
+    CachedTradingOffice() {
+        this(new TradingOffice(), new ResultCache());
+    }
+
+
+    /**
+     * This method aims to read a stock csv file, dropping the results of the series
+     * the file was read into before
+     * @param file This is the only parameter, the csv file to extract data from
+     * @exception IOException On input error
+     * @return PriceSeries The method will return the data as a column per field
+     * @see TradingOffice#getPriceSeriesFromCSV(File)
+     */
+    PriceSeries getPriceSeriesFromCSV(File file) throws IOException {
+        return loaded(file, tradingOffice.getPriceSeriesFromCSV(file));
+    }
+
+
+    /**
+     * This method aims to read a dividends csv file, dropping the results of the series
+     * the file was read into before
+     * @param file This is the only parameter, the csv file to extract data from
+     * @exception IOException On input error
+     * @return DividendSeries The method will return the data as a column per field
+     * @see TradingOffice#getDividendSeriesFromCSV(File)
+     */
+    DividendSeries getDividendSeriesFromCSV(File file) throws IOException {
+        return loaded(file, tradingOffice.getDividendSeriesFromCSV(file));
+    }
+
+
+    /**
+     * This method aims to read a stock csv file through its snapshot, dropping the
+     * results of the series the file was read into before
+     * @param file This is the only parameter, the csv file to extract data from
+     * @exception IOException On input error
+     * @return PriceSeries The method will return the data as a column per field
+     * @see TradingOffice#getPriceSeriesFromSnapshot(File)
+     */
+    PriceSeries getPriceSeriesFromSnapshot(File file) throws IOException {
+        return loaded(file, tradingOffice.getPriceSeriesFromSnapshot(file));
+    }
+
+
+    /**
+     * This method aims to read a dividends csv file through its snapshot, dropping the
+     * results of the series the file was read into before
+     * @param file This is the only parameter, the csv file to extract data from
+     * @exception IOException On input error
+     * @return DividendSeries The method will return the data as a column per field
+     * @see TradingOffice#getDividendSeriesFromSnapshot(File)
+     */
+    DividendSeries getDividendSeriesFromSnapshot(File file) throws IOException {
+        return loaded(file, tradingOffice.getDividendSeriesFromSnapshot(file));
+    }
+
+
+    /**
+     * This method aims to replace a series that rows were appended to, the results
+     * of the old series are dropped and the new one takes its file
+     * @param old This is the first parameter, the series before the append
+     * @param appended This is the second parameter, the series after the append
+     * @return T The method will return the appended series
+     */
+    <T> T appended(T old, T appended) {
+        synchronized (seriesOfFile) {
+            seriesOfFile.replaceAll((file, series) -> series == old ? appended : series);
+        }
+        cache.invalidate(old);
+        return appended;
+    }
+
+
+    /**
+     * This method aims to get the average dividend of a period, computed once per series
+     * @param dividends This is the first parameter, the dividends series
+     * @param from This is the second parameter, the first year
+     * @param to This is the third parameter, the second year
+     * @return BigDecimal The method will return the average value, or zero if one of the years does not exist
+     * @see TradingOffice#averageDividends(DividendSeries, int, int)
+     */
+    BigDecimal averageDividends(DividendSeries dividends, int from, int to) {
+        return cache.get(dividends, "averageDividends",
+                () -> tradingOffice.averageDividends(dividends, from, to), from, to);
+    }
+
+
+    /**
+     * This method aims to get the frequency of dividends distribution, computed once per series
+     * @param dividends This is the only parameter, the dividends series
+     * @return int The method will return the floored value of the average period between dividends
+     * @see TradingOffice#frequencyOfDividendsDistribution(DividendSeries)
+     */
+    int frequencyOfDividendsDistribution(DividendSeries dividends) {
+        return cache.get(dividends, "frequencyOfDividendsDistribution",
+                () -> tradingOffice.frequencyOfDividendsDistribution(dividends));
+    }
+
+
+    /**
+     * This method aims to get the statistics of the gaps between dividends, computed once per series
+     * @param dividends This is the only parameter, the dividends series
+     * @return DividendCadence The method will return the cadence of the dividends
+     * @see TradingOffice#dividendCadence(DividendSeries)
+     */
+    DividendCadence dividendCadence(DividendSeries dividends) {
+        return cache.get(dividends, "dividendCadence", () -> tradingOffice.dividendCadence(dividends));
+    }
+
+
+    /**
+     * This method aims to get the simple moving average of the whole series, computed once per series
+     * @param data This is the only parameter, the stock series
+     * @return BigDecimal The method will return the average close price
+     * @see TradingOffice#SMA(PriceSeries)
+     */
+    BigDecimal SMA(PriceSeries data) {
+        return cache.get(data, "SMA", () -> tradingOffice.SMA(data));
+    }
+
+
+    /**
+     * This method aims to get the simple moving average of a period of years, computed once per
+     * series and period
+     * @param data This is the first parameter, the stock series
+     * @param from This is the second parameter, the first year in the period
+     * @param to This is the third parameter, the second year in the period
+     * @return BigDecimal The method will return the average close price, or zero if one of the years does not exist
+     * @see TradingOffice#SMAOfSpecificPeriod(PriceSeries, int, int)
+     */
+    BigDecimal SMAOfSpecificPeriod(PriceSeries data, int from, int to) {
+        return cache.get(data, "SMAOfSpecificPeriod",
+                () -> tradingOffice.SMAOfSpecificPeriod(data, from, to), from, to);
+    }
+
+
+    /**
+     * This method aims to get the simple moving average between two dates, computed once per
+     * series and pair of dates
+     * @param data This is the first parameter, the stock series
+     * @param from This is the second parameter, the first date of the period
+     * @param to This is the third parameter, the last date of the period
+     * @return BigDecimal The method will return the average close price, or zero if no row is in the period
+     * @see TradingOffice#SMAOfDateRange(PriceSeries, LocalDate, LocalDate)
+     */
+    BigDecimal SMAOfDateRange(PriceSeries data, LocalDate from, LocalDate to) {
+        return cache.get(data, "SMAOfDateRange", () -> tradingOffice.SMAOfDateRange(data, from, to), from, to);
+    }
+
+
+    /**
+     * This method aims to get the simple moving average of a year, computed once per series and year
+     * @param data This is the first parameter, the stock series
+     * @param year This is the second parameter, the year
+     * @return BigDecimal The method will return the average close price, or zero if the year does not exist
+     * @see TradingOffice#SMAYear(PriceSeries, String)
+     */
+    BigDecimal SMAYear(PriceSeries data, String year) {
+        return cache.get(data, "SMAYear", () -> tradingOffice.SMAYear(data, year), year);
+    }
+
+
+    /**
+     * This method aims to get the exponential moving average from a date, computed once per
+     * series and set of arguments
+     * @param data This is the first parameter, the stock series
+     * @param startingYear This is the second parameter, the year of the first day
+     * @param month This is the third parameter, the month of the first day
+     * @param dayOfMonth This is the forth parameter, the day of the month of the first day
+     * @param days This is the fifth parameter, the number of days of the average
+     * @return BigDecimal The method will return the value of the exponential moving average
+     * @see TradingOffice#ExponentialMovingAverage(PriceSeries, int, int, int, int)
+     */
+    BigDecimal ExponentialMovingAverage(PriceSeries data, int startingYear, int month, int dayOfMonth, int days) {
+        return cache.get(data, "ExponentialMovingAverage",
+                () -> tradingOffice.ExponentialMovingAverage(data, startingYear, month, dayOfMonth, days),
+                startingYear, month, dayOfMonth, days);
+    }
+
+
+    /**
+     * This method aims to get the total return of a stock series with its dividends,
+     * the result is dropped when either file is read again
+     * @param data This is the first parameter, the stock series sorted by date
+     * @param dividends This is the second parameter, the dividends series sorted by date
+     * @return TotalReturn The method will return the total return and the yield per day
+     * @see TradingOffice#totalReturn(PriceSeries, DividendSeries)
+     */
+    TotalReturn totalReturn(PriceSeries data, DividendSeries dividends) {
+        return cache.get(data, "totalReturn", () -> tradingOffice.totalReturn(data, dividends), dividends);
+    }
+
+
+    /**
+     * This method aims to read the counters of the cache
+     * @return ResultCache.Stats The method will return the hits, misses and evictions so far
+     */
+    ResultCache.Stats cacheStats() {
+        return cache.stats();
+    }
+
+
+    private <T> T loaded(File file, T series) {
+        Object previous;
+        synchronized (seriesOfFile) {
+            previous = seriesOfFile.put(file.toPath().toAbsolutePath().normalize(), series);
+        }
+        if (previous != null && previous != series) cache.invalidate(previous);
+        return series;
+    }
+}
@@ -0,0 +1,155 @@
+/**
+ * The ColumnKernels class holds the loops that aggregate a run of rows of a column
+ * in micros: sums, minimums, maximums and the high-low statistics of a window, all
+ * in one pass. The scalar kernels are always there; the kernels of VectorKernels use
+ * the lanes of the CPU through jdk.incubator.vector, they are only compiled with the
+ * vector profile and only loaded when the JVM runs with
+ * --add-modules=jdk.incubator.vector. Both give the same results: the sums wrap
+ * around like long additions, which does not depend on the order of the rows
+ *
+ * @author  Hussain Aljassim, Ahmed Baabdullah, Omar Mashhrawi
+ * @version 1.0
+ */
+abstract class ColumnKernels {
+
+    // the slots of the array filled by highLow
+    static final int MIN_LOW = 0;
+    static final int MAX_LOW = 1;
+    static final int MIN_HIGH = 2;
+    static final int MAX_HIGH = 3;
+    static final int SUM_LOW = 4;
+    static final int SUM_HIGH = 5;
+    static final int HIGH_LOW_SLOTS = 6;
+
+    private static final ColumnKernels SCALAR = new Scalar();
+    private static final ColumnKernels VECTOR = loadVector();
+    private static final ColumnKernels BEST =
+            VECTOR != null && !"false".equals(System.getProperty("tradingoffice.vector")) ? VECTOR : SCALAR;
+
+
+    /**
+     * This method aims to get the kernels the indicators use, the vector ones when they
+     * can be loaded and -Dtradingoffice.vector=false is not set
+     * @return ColumnKernels The method will return the fastest kernels available
+     */
+    static ColumnKernels best() {
+        return BEST;
+    }
+
+
+    static ColumnKernels scalar() {
+        return SCALAR;
+    }
+
+
+    /**
+     * This method aims to get the vector kernels
+     * @return ColumnKernels The method will return the vector kernels, or null when they
+     * were not compiled or the JVM runs without the incubator module
+     */
+    static ColumnKernels vector() {
+        return VECTOR;
+    }
+
+
+    /** @return String The name of the kernels, scalar or vector with the number of lanes */
+    abstract String name();
+
+    /** @return long The sum of the rows in [from, to), wrapping around on overflow */
+    abstract long sum(long[] column, int from, int to);
+
+    /** @return long The smallest value of the rows in [from, to), Long.MAX_VALUE if there is none */
+    abstract long min(long[] column, int from, int to);
+
+    /** @return long The largest value of the rows in [from, to), Long.MIN_VALUE if there is none */
+    abstract long max(long[] column, int from, int to);
+
+
+    /**
+     * This method aims to read the high and low columns of a window once and fill
+     * the minimum, the maximum and the sum of both
+     * @param high This is the first parameter, the high column in micros
+     * @param low This is the second parameter, the low column in micros
+     * @param from This is the third parameter, the first row included
+     * @param to This is the forth parameter, the first row excluded
+     * @param out This is the fifth parameter, an array of HIGH_LOW_SLOTS values filled at
+     * MIN_LOW, MAX_LOW, MIN_HIGH, MAX_HIGH, SUM_LOW and SUM_HIGH
+     */
+    abstract void highLow(long[] high, long[] low, int from, int to, long[] out);
+
+
+    private static ColumnKernels loadVector() {
+        try {
+            return (ColumnKernels) Class.forName("VectorKernels").getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return null;    // not compiled, or the incubator module is not in the JVM
+        }
+    }
+
+
+    /**
+     * The Scalar class runs the kernels one row at a time
+     */
+    private static final class Scalar extends ColumnKernels {
+
+        @Override
+        String name() {
+            return "scalar";
+        }
+
+        @Override
+        long sum(long[] column, int from, int to) {
+            long sum = 0;
+            for (int i = from; i < to; i++) {
+                sum += column[i];
+            }
+            return sum;
+        }
+
+        @Override
+        long min(long[] column, int from, int to) {
+            long min = Long.MAX_VALUE;
+            for (int i = from; i < to; i++) {
+                min = Math.min(min, column[i]);
+            }
+            return min;
+        }
+
+        @Override
+        long max(long[] column, int from, int to) {
+            long max = Long.MIN_VALUE;
+            for (int i = from; i < to; i++) {
+                max = Math.max(max, column[i]);
+            }
+            return max;
+        }
+
+        @Override
+        void highLow(long[] high, long[] low, int from, int to, long[] out) {
+            long minLow = Long.MAX_VALUE;
+            long maxLow = Long.MIN_VALUE;
+            long minHigh = Long.MAX_VALUE;
+            long maxHigh = Long.MIN_VALUE;
+            long sumLow = 0;
+            long sumHigh = 0;
+
+            for (int i = from; i < to; i++) {
+                long l = low[i];
+                long h = high[i];
+                minLow = Math.min(minLow, l);
+                maxLow = Math.max(maxLow, l);
+                minHigh = Math.min(minHigh, h);
+                maxHigh = Math.max(maxHigh, h);
+                sumLow += l;
+                sumHigh += h;
+            }
+
+            out[MIN_LOW] = minLow;
+            out[MAX_LOW] = maxLow;
+            out[MIN_HIGH] = minHigh;
+            out[MAX_HIGH] = maxHigh;
+            out[SUM_LOW] = sumLow;
+            out[SUM_HIGH] = sumHigh;
+        }
+    }
+}
@@ -0,0 +1,481 @@
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.function.Consumer;
+
+/**
+ * The CsvSeriesReader class reads the stock and dividends csv files straight
+ * from the bytes of a memory-mapped file into the columns of a series, without
+ * creating a String per line or per field. The reader fails on the first bad row,
+ * or with a ValidationReport it leaves the bad rows out, repairs the order of the
+ * dates and reports both in the same pass. The dates are checked while they are
+ * read, so a sorted file gets its DateIndex without another scan of the column
+ *
+ * @author  Hussain Aljassim, Ahmed Baabdullah, Omar Mashhrawi
+ * @version 1.0
+ */
+public final class CsvSeriesReader {
+
+    /** The largest part of a file mapped at once */
+    static final int DEFAULT_WINDOW = 64 << 20;
+
+    private static final int STOCK_FIELDS = 7;      // Date,Open,High,Low,Close,Adj Close,Volume
+    private static final int DIVIDEND_FIELDS = 2;   // Date,Dividends
+
+    private CsvSeriesReader() {
+    }
+
+
+    /**
+     * This method aims to read a whole stock csv file into columns
+     * @param path This is the only parameter, the path of the csv file
+     * @exception IOException On input error
+     * @exception NumberFormatException If a row is not a well-formed stock row
+     * @return PriceSeries The method will return the rows of the file as columns
+     * @see PriceSeries
+     */
+    static PriceSeries readPrices(Path path) throws IOException {
+        // a stock row is about 66 bytes, so the columns are sized once for most files
+        int capacity = (int) Math.min(Files.size(path) / 60, Integer.MAX_VALUE - 8);
+        PriceParser parser = new PriceParser(new PriceSeries.Builder(capacity), 0, null, null);
+        scan(path, DEFAULT_WINDOW, parser);
+        return parser.builder.build(parser.sorted);
+    }
+
+
+    /**
+     * This method aims to read a whole stock csv file into columns, leaving out the rows
+     * that can not be read instead of failing. A null row, a malformed row and a second
+     * row of a date are rejected, rows out of order are kept and sorted once the file
+     * is read, and every one of them is added to the report
+     * @param path This is the first parameter, the path of the csv file
+     * @param report This is the second parameter, the report the bad rows are added to
+     * @exception IOException On input error
+     * @return PriceSeries The method will return the good rows sorted by date, with one row per date
+     * @see ValidationReport
+     */
+    static PriceSeries readPrices(Path path, ValidationReport report) throws IOException {
+        int capacity = (int) Math.min(Files.size(path) / 60, Integer.MAX_VALUE - 8);
+        PriceParser parser = new PriceParser(new PriceSeries.Builder(capacity), 0, null, report);
+        scan(path, DEFAULT_WINDOW, parser);
+        PriceSeries series = parser.builder.build(parser.sorted);
+        return parser.sorted ? series : sortByDate(series, parser.lines, parser.outOfOrder, report);
+    }
+
+
+    /**
+     * This method aims to read a whole dividends csv file into columns
+     * @param path This is the only parameter, the path of the csv file
+     * @exception IOException On input error
+     * @exception NumberFormatException If a row is not a well-formed dividends row
+     * @return DividendSeries The method will return the rows of the file as columns
+     * @see DividendSeries
+     */
+    static DividendSeries readDividends(Path path) throws IOException {
+        DividendParser parser = new DividendParser(new DividendSeries.Builder(64), null);
+        scan(path, DEFAULT_WINDOW, parser);
+        return parser.builder.build(parser.sorted);
+    }
+
+
+    /**
+     * This method aims to read a whole dividends csv file into columns, leaving out the
+     * rows that can not be read instead of failing, the same way as the stock files
+     * @param path This is the first parameter, the path of the csv file
+     * @param report This is the second parameter, the report the bad rows are added to
+     * @exception IOException On input error
+     * @return DividendSeries The method will return the good rows sorted by date, with one row per date
+     * @see ValidationReport
+     */
+    static DividendSeries readDividends(Path path, ValidationReport report) throws IOException {
+        DividendParser parser = new DividendParser(new DividendSeries.Builder(64), report);
+        scan(path, DEFAULT_WINDOW, parser);
+        DividendSeries series = parser.builder.build(parser.sorted);
+        return parser.sorted ? series : sortByDate(series, parser.lines, parser.outOfOrder, report);
+    }
+
+
+    /**
+     * This method aims to read a stock csv file in chunks of rows so the memory used
+     * does not grow with the size of the file. The same columns are reused for every
+     * chunk, so a chunk must not be kept after the consumer returns
+     * @param path This is the first parameter, the path of the csv file
+     * @param chunkRows This is the second parameter, the number of rows in a chunk
+     * @param window This is the third parameter, the largest part of the file mapped at once
+     * @param consumer This is the forth parameter, called with every chunk in file order
+     * @exception IOException On input error
+     * @return long The method will return the number of rows read
+     * @see Consumer
+     */
+    static long streamPrices(Path path, int chunkRows, int window,
+                             Consumer<PriceSeries> consumer) throws IOException {
+        if (chunkRows <= 0) throw new IllegalArgumentException("chunkRows must be positive: " + chunkRows);
+
+        PriceParser parser = new PriceParser(new PriceSeries.Builder(chunkRows), chunkRows, consumer, null);
+        scan(path, window, parser);
+        if (parser.builder.size() > 0) {
+            consumer.accept(parser.builder.build());
+        }
+        return parser.rows;
+    }
+
+
+    /**
+     * This method aims to call the parser with every line of the file after the header.
+     * The file is mapped one window at a time, and a line cut by the end of a
+     * window is read again at the start of the next one
+     */
+    private static void scan(Path path, int window, LineParser parser) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            long position = 0;
+            long lineNumber = 0;
+
+            while (position < fileSize) {
+                int length = (int) Math.min(window, fileSize - position);
+                boolean lastWindow = position + length == fileSize;
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+
+                int start = 0;
+                while (start < length) {
+                    int end = start;
+                    while (end < length && buffer.get(end) != '\n') end++;
+                    if (end == length && !lastWindow) break;    // the line continues in the next window
+
+                    lineNumber++;
+                    int lineEnd = end > start && buffer.get(end - 1) == '\r' ? end - 1 : end;
+                    if (lineNumber > 1 && lineEnd > start) {    // To skip the first row (columns names)
+                        parser.parse(buffer, start, lineEnd, lineNumber);
+                    }
+                    start = end + 1;
+                }
+
+                if (start == 0) throw new IOException("Line " + (lineNumber + 1) + " is longer than " + window + " bytes");
+                position += Math.min(start, length);
+            }
+        }
+    }
+
+
+    /**
+     * This method aims to sort the rows of a series read with rows out of order, the
+     * first row of a date in the file is kept and the others are reported
+     */
+    private static PriceSeries sortByDate(PriceSeries series, long[] lines, BitSet outOfOrder,
+                                          ValidationReport report) {
+        int[] order = dateOrder(series.epochDays, series.size, lines, outOfOrder, report);
+        int[] epochDays = gather(series.epochDays, order);
+        return new PriceSeries(epochDays, gather(series.open, order), gather(series.high, order),
+                gather(series.low, order), gather(series.close, order), gather(series.adjClose, order),
+                gather(series.volume, order), order.length, series.closeScale,
+                DateIndex.ofSorted(epochDays, order.length), null);
+    }
+
+
+    private static DividendSeries sortByDate(DividendSeries series, long[] lines, BitSet outOfOrder,
+                                             ValidationReport report) {
+        int[] order = dateOrder(series.epochDays, series.size, lines, outOfOrder, report);
+        int[] epochDays = gather(series.epochDays, order);
+        return new DividendSeries(epochDays, gather(series.amounts, order), order.length, series.amountScale,
+                DateIndex.ofSorted(epochDays, order.length));
+    }
+
+
+    /**
+     * This method aims to get the rows in date order, leaving out the later rows of a date.
+     * A row out of order is reported as repaired only when it is kept, so a row is never
+     * reported twice
+     * @return int[] The method will return the rows to keep, in the order to keep them
+     */
+    private static int[] dateOrder(int[] epochDays, int size, long[] lines, BitSet outOfOrder,
+                                   ValidationReport report) {
+        // the row in the low bits keeps the rows of a date in file order
+        long[] keys = new long[size];
+        for (int i = 0; i < size; i++) {
+            keys[i] = (long) epochDays[i] << 32 | i;
+        }
+        Arrays.sort(keys);
+
+        int[] order = new int[size];
+        int kept = 0;
+        for (long key : keys) {
+            int row = (int) key;
+            if (kept > 0 && epochDays[order[kept - 1]] == epochDays[row]) {
+                report.reject(lines[row], ValidationReport.Problem.DUPLICATE_DATE,
+                        "the date of line " + lines[order[kept - 1]]);
+                continue;
+            }
+            if (outOfOrder.get(row)) {
+                report.repair(lines[row], ValidationReport.Problem.OUT_OF_ORDER, "dated before the row above it");
+            }
+            order[kept++] = row;
+        }
+        return Arrays.copyOf(order, kept);
+    }
+
+
+    private static int[] gather(int[] column, int[] order) {
+        int[] result = new int[order.length];
+        for (int i = 0; i < order.length; i++) result[i] = column[order[i]];
+        return result;
+    }
+
+
+    private static long[] gather(long[] column, int[] order) {
+        long[] result = new long[order.length];
+        for (int i = 0; i < order.length; i++) result[i] = column[order[i]];
+        return result;
+    }
+
+
+    /**
+     * The LineParser class turns one line of bytes into a row of a series. Without a
+     * report a bad row throws, with one it is added to the report and left out
+     */
+    private abstract static class LineParser {
+        final ValidationReport report;
+        int pos;
+        int end;
+        int lastScale;     // the number of decimals of the last number read
+
+        int lastDay = Integer.MIN_VALUE;    // the latest date of the rows kept so far
+        boolean sorted = true;
+        long[] lines = new long[0];         // the line of every row kept, only with a report
+        final BitSet outOfOrder = new BitSet();     // the rows kept that are dated before a row above them
+        boolean separated;                  // whether the last field read was followed by a separator
+
+        LineParser(ValidationReport report) {
+            this.report = report;
+        }
+
+        /** Reads the fields of a row and adds it, a bad field throws before anything is added */
+        abstract void row(MappedByteBuffer line, long lineNumber);
+
+        /** The number of rows added so far */
+        abstract int rows();
+
+        final void parse(MappedByteBuffer line, int start, int end, long lineNumber) {
+            pos = start;
+            this.end = end;
+            if (report == null) {
+                row(line, lineNumber);
+                return;
+            }
+
+            report.rowRead();
+            try {
+                row(line, lineNumber);
+            } catch (NumberFormatException e) {
+                ValidationReport.Problem problem = isNullRow(line, start, end) ?
+                        ValidationReport.Problem.NULL_ROW : ValidationReport.Problem.MALFORMED;
+                report.reject(lineNumber, problem, e.getMessage());
+            }
+        }
+
+        /**
+         * Checks the date of a row that was read without error against the rows before it
+         * @return boolean true if the row is added, a second row of a date is not with a report
+         */
+        boolean accept(int epochDay, long lineNumber) {
+            if (epochDay < lastDay) {
+                // reported once the rows are sorted, when it is known whether the row is kept
+                sorted = false;
+                if (report != null) outOfOrder.set(rows());
+            } else if (epochDay == lastDay && report != null) {
+                report.reject(lineNumber, ValidationReport.Problem.DUPLICATE_DATE, "the date of the row above it");
+                return false;
+            }
+            lastDay = Math.max(lastDay, epochDay);
+
+            if (report != null) {
+                int row = rows();
+                if (row == lines.length) lines = Arrays.copyOf(lines, Math.max(16, row * 2));
+                lines[row] = lineNumber;
+            }
+            return true;
+        }
+
+        /** Reads a yyyy-MM-dd date and the separator after it */
+        int date(MappedByteBuffer line, long lineNumber) {
+            if (end - pos < 10 || line.get(pos + 4) != '-' || line.get(pos + 7) != '-') {
+                throw malformed("date", lineNumber);
+            }
+            int year = digits(line, pos, 4, lineNumber);
+            int month = digits(line, pos + 5, 2, lineNumber);
+            int day = digits(line, pos + 8, 2, lineNumber);
+            if (month < 1 || month > 12 || day < 1 || day > EpochDays.lengthOfMonth(year, month)) {
+                throw malformed("date", lineNumber);
+            }
+
+            pos += 10;
+            separator(line, lineNumber);
+            return EpochDays.fromCivil(year, month, day);
+        }
+
+        /** Reads a decimal number as micros and the separator after it */
+        long micros(MappedByteBuffer line, long lineNumber) {
+            long units = 0;
+            int decimals = -1;
+            int digits = 0;
+            boolean negative = pos < end && line.get(pos) == '-';
+            if (negative) pos++;
+
+            for (; pos < end; pos++) {
+                byte b = line.get(pos);
+                if (b >= '0' && b <= '9') {
+                    if (decimals >= 0 && ++decimals > FixedPoint.SCALE) throw malformed("price", lineNumber);
+                    if (++digits > 18) throw malformed("price", lineNumber);
+                    units = units * 10 + (b - '0');
+                } else if (b == '.' && decimals < 0) {
+                    decimals = 0;
+                } else {
+                    break;
+                }
+            }
+            if (digits == 0) throw malformed("price", lineNumber);
+            separator(line, lineNumber);
+
+            lastScale = Math.max(decimals, 0);
+            try {
+                for (int i = lastScale; i < FixedPoint.SCALE; i++) units = Math.multiplyExact(units, 10);
+            } catch (ArithmeticException e) {
+                throw malformed("price", lineNumber);
+            }
+            return negative ? -units : units;
+        }
+
+        /** Reads a price, which can not be negative, as micros and the separator after it */
+        long price(MappedByteBuffer line, long lineNumber) {
+            if (pos < end && line.get(pos) == '-') throw malformed("negative price", lineNumber);
+            return micros(line, lineNumber);
+        }
+
+        /** Reads a whole number and the separator after it */
+        long whole(MappedByteBuffer line, long lineNumber) {
+            long value = 0;
+            int digits = 0;
+            for (; pos < end; pos++) {
+                byte b = line.get(pos);
+                if (b < '0' || b > '9') break;
+                if (++digits > 18) throw malformed("volume", lineNumber);
+                value = value * 10 + (b - '0');
+            }
+            if (digits == 0) throw malformed("volume", lineNumber);
+            separator(line, lineNumber);
+            return value;
+        }
+
+        void separator(MappedByteBuffer line, long lineNumber) {
+            separated = pos < end;
+            if (separated) {
+                if (line.get(pos) != ',') throw malformed("separator", lineNumber);
+                pos++;
+            }
+        }
+
+        void lastField(long lineNumber, int expectedFields) {
+            if (pos != end) throw malformed("more than " + expectedFields + " fields", lineNumber);
+            if (separated) throw malformed("separator at the end of the row", lineNumber);
+        }
+
+        private int digits(MappedByteBuffer line, int from, int count, long lineNumber) {
+            int value = 0;
+            for (int i = from; i < from + count; i++) {
+                byte b = line.get(i);
+                if (b < '0' || b > '9') throw malformed("date", lineNumber);
+                value = value * 10 + (b - '0');
+            }
+            return value;
+        }
+
+        static NumberFormatException malformed(String what, long lineNumber) {
+            return new NumberFormatException("Malformed " + what + " at line " + lineNumber);
+        }
+
+        /** Only called for a row that failed, so a good row is never searched */
+        private static boolean isNullRow(MappedByteBuffer line, int start, int end) {
+            for (int i = start; i + 4 <= end; i++) {
+                if (line.get(i) == 'n' && line.get(i + 1) == 'u' && line.get(i + 2) == 'l' && line.get(i + 3) == 'l') {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+
+    private static final class PriceParser extends LineParser {
+        final PriceSeries.Builder builder;
+        final int chunkRows;
+        final Consumer<PriceSeries> consumer;
+        long rows;
+
+        PriceParser(PriceSeries.Builder builder, int chunkRows, Consumer<PriceSeries> consumer,
+                    ValidationReport report) {
+            super(report);
+            this.builder = builder;
+            this.chunkRows = chunkRows;
+            this.consumer = consumer;
+        }
+
+        @Override
+        void row(MappedByteBuffer line, long lineNumber) {
+            int epochDay = date(line, lineNumber);
+            long open = price(line, lineNumber);
+            long high = price(line, lineNumber);
+            long low = price(line, lineNumber);
+            long close = price(line, lineNumber);
+            int closeScale = lastScale;
+            long adjClose = price(line, lineNumber);
+            long volume = whole(line, lineNumber);
+            lastField(lineNumber, STOCK_FIELDS);
+            if (!accept(epochDay, lineNumber)) return;
+
+            builder.closeScale(closeScale);
+            builder.add(epochDay, open, high, low, close, adjClose, volume);
+            rows++;
+
+            if (builder.size() == chunkRows) {
+                consumer.accept(builder.build());
+                builder.clear();
+            }
+        }
+
+        @Override
+        int rows() {
+            return builder.size();
+        }
+    }
+
+
+    private static final class DividendParser extends LineParser {
+        final DividendSeries.Builder builder;
+
+        DividendParser(DividendSeries.Builder builder, ValidationReport report) {
+            super(report);
+            this.builder = builder;
+        }
+
+        @Override
+        void row(MappedByteBuffer line, long lineNumber) {
+            int epochDay = date(line, lineNumber);
+            long amount = price(line, lineNumber);
+            int amountScale = lastScale;
+            lastField(lineNumber, DIVIDEND_FIELDS);
+            if (!accept(epochDay, lineNumber)) return;
+
+            builder.amountScale(amountScale);
+            builder.add(epochDay, amount);
+        }
+
+        @Override
+        int rows() {
+            return builder.size();
+        }
+    }
+}
@@ -0,0 +1,136 @@
+/**
+ * The DateIndex class answers date lookups over the date column of a series.
+ * The csv files are sorted by date, so the lookups are binary searches; a column
+ * that is not sorted is still answered, but by scanning it
+ *
+ * @author  Hussain Aljassim, Ahmed Baabdullah, Omar Mashhrawi
+ * @version 1.0
+ */
+public final class DateIndex {
+
+    private final int[] epochDays;
+    private final int size;
+    private final boolean sorted;
+
+    private DateIndex(int[] epochDays, int size, boolean sorted) {
+        this.epochDays = epochDays;
+        this.size = size;
+        this.sorted = sorted;
+    }
+
+
+    /**
+     * This method aims to build the index of a date column
+     * @param epochDays This is the first parameter, the date column
+     * @param size This is the second parameter, the number of rows in the column
+     * @return DateIndex The method will return the index of the column
+     */
+    static DateIndex of(int[] epochDays, int size) {
+        boolean sorted = true;
+        for (int i = 1; i < size && sorted; i++) {
+            sorted = epochDays[i - 1] <= epochDays[i];
+        }
+        return new DateIndex(epochDays, size, sorted);
+    }
+
+
+    /**
+     * This method aims to index a date column that is known to be sorted, without
+     * checking it again
+     * @param epochDays This is the first parameter, the sorted date column
+     * @param size This is the second parameter, the number of rows in the column
+     * @return DateIndex The method will return the index of the column
+     */
+    static DateIndex ofSorted(int[] epochDays, int size) {
+        return new DateIndex(epochDays, size, true);
+    }
+
+
+    /**
+     * This method aims to tell whether the dates never go back in time,
+     * which the range lookups rely on
+     * @return boolean The method will return true if the column is sorted
+     */
+    boolean isSorted() {
+        return sorted;
+    }
+
+
+    /**
+     * This method aims to find the first row on or after a date
+     * @param epochDay This is the only parameter, the date as an epoch day
+     * @return int The method will return the row, or the number of rows if every date is before it
+     * @exception IllegalStateException If the column is not sorted
+     */
+    int firstOnOrAfter(int epochDay) {
+        requireSorted();
+        int low = 0;
+        int high = size;
+
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (epochDays[middle] < epochDay) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+
+    /**
+     * This method aims to find the first row after a period ending on a date,
+     * together with firstOnOrAfter(from) it gives the rows of [from, to]
+     * @param toEpochDay This is the only parameter, the last date of the period
+     * @return int The method will return the row after the last row of the period
+     * @exception IllegalStateException If the column is not sorted
+     */
+    int endOfRange(int toEpochDay) {
+        return toEpochDay == Integer.MAX_VALUE ? size : firstOnOrAfter(toEpochDay + 1);
+    }
+
+
+    /**
+     * This method aims to find the row of a date
+     * @param epochDay This is the only parameter, the date as an epoch day
+     * @return int The method will return the first row of the date, or -1 if it does not exist
+     */
+    int indexOf(int epochDay) {
+        if (!sorted) {
+            for (int i = 0; i < size; i++) {
+                if (epochDays[i] == epochDay) return i;
+            }
+            return -1;
+        }
+
+        int row = firstOnOrAfter(epochDay);
+        return row < size && epochDays[row] == epochDay ? row : -1;
+    }
+
+
+    /**
+     * This method aims to tell whether at least one row is in a year
+     * @param year This is the only parameter, the year
+     * @return boolean The method will return true if a row falls in the year
+     */
+    boolean yearExists(int year) {
+        int firstDay = EpochDays.yearStart(year);
+        int endDay = EpochDays.yearStart(year + 1);
+
+        if (!sorted) {
+            for (int i = 0; i < size; i++) {
+                if (epochDays[i] >= firstDay && epochDays[i] < endDay) return true;
+            }
+            return false;
+        }
+
+        int row = firstOnOrAfter(firstDay);
+        return row < size && epochDays[row] < endDay;
+    }
+
+
+    private void requireSorted() {
+        if (!sorted) throw new IllegalStateException("The dates are not sorted");
+    }
+}
@@ -0,0 +1,261 @@
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The DividendCadence class describes how often a company pays dividends: the
+ * average, median and most common gap between payouts in days and in months, the
+ * number of payouts of every year, and the dates the cadence changed, for example
+ * from quarterly to monthly. It is built in one pass over the sorted dates. The
+ * medians and modes are counted in histograms of a fixed size, ten years of days
+ * and of months, so it is O(n) whatever the span of the history; the rare gap longer
+ * than that is kept apart and only those gaps are sorted
+ *
+ * @author  Hussain Aljassim, Ahmed Baabdullah, Omar Mashhrawi
+ * @version 1.0
+ */
+public final class DividendCadence {
+
+    /**
+     * The Cadence enum groups a gap between two payouts by its length in days
+     */
+    enum Cadence {
+        MONTHLY(12, 20, 45),
+        QUARTERLY(4, 46, 135),
+        SEMI_ANNUAL(2, 136, 270),
+        ANNUAL(1, 271, 450),
+        IRREGULAR(0, Integer.MIN_VALUE, Integer.MAX_VALUE);
+
+        final int payoutsPerYear;
+        private final int shortestGap;
+        private final int longestGap;
+
+        Cadence(int payoutsPerYear, int shortestGap, int longestGap) {
+            this.payoutsPerYear = payoutsPerYear;
+            this.shortestGap = shortestGap;
+            this.longestGap = longestGap;
+        }
+
+        static Cadence ofGap(int days) {
+            for (Cadence cadence : values()) {
+                if (days >= cadence.shortestGap && days <= cadence.longestGap) return cadence;
+            }
+            return IRREGULAR;
+        }
+    }
+
+
+    /**
+     * The Change class holds a date the cadence changed on
+     */
+    static final class Change {
+        final int epochDay;
+        final Cadence from;
+        final Cadence to;
+
+        Change(int epochDay, Cadence from, Cadence to) {
+            this.epochDay = epochDay;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        public String toString() {
+            return LocalDate.ofEpochDay(epochDay) + ": " + from + " -> " + to;
+        }
+    }
+
+
+    // the number of gaps in a row of the same kind that makes a new cadence
+    static final int CONFIRMING_GAPS = 2;
+
+    // the longest gaps counted in the histograms, a longer gap goes to their overflow
+    static final int HISTOGRAM_DAYS = 3660;
+    static final int HISTOGRAM_MONTHS = 120;
+
+    final int payouts;
+    final double averageGapDays;
+    final double medianGapDays;
+    final int modalGapDays;
+    final double averageGapMonths;
+    final double medianGapMonths;
+    final int modalGapMonths;
+    final int firstYear;
+    final int[] payoutsPerYear;
+    final Cadence cadence;
+    final List<Change> changes;
+
+    private DividendCadence(int payouts, double averageGapDays, double medianGapDays, int modalGapDays,
+                            double averageGapMonths, double medianGapMonths, int modalGapMonths,
+                            int firstYear, int[] payoutsPerYear, Cadence cadence, List<Change> changes) {
+        this.payouts = payouts;
+        this.averageGapDays = averageGapDays;
+        this.medianGapDays = medianGapDays;
+        this.modalGapDays = modalGapDays;
+        this.averageGapMonths = averageGapMonths;
+        this.medianGapMonths = medianGapMonths;
+        this.modalGapMonths = modalGapMonths;
+        this.firstYear = firstYear;
+        this.payoutsPerYear = payoutsPerYear;
+        this.cadence = cadence;
+        this.changes = changes;
+    }
+
+
+    /**
+     * This method aims to describe the cadence of the payouts of a series
+     * @param dividends This is the only parameter, the dividends series sorted by date
+     * @return DividendCadence The method will return the cadence, with zero gaps and an
+     * irregular cadence when there are fewer than two payouts
+     * @exception IllegalArgumentException If the dates are not sorted
+     * @see DividendSeries
+     */
+    static DividendCadence of(DividendSeries dividends) {
+        int size = dividends.size();
+        if (!dividends.dateIndex().isSorted()) {
+            throw new IllegalArgumentException("The dividends are not sorted by date");
+        }
+        if (size == 0) {
+            return new DividendCadence(0, 0, 0, 0, 0, 0, 0, 0, new int[0], Cadence.IRREGULAR,
+                    Collections.emptyList());
+        }
+
+        int[] epochDays = dividends.epochDays;
+        int firstMonth = EpochDays.monthIndex(epochDays[0]);
+        int lastMonth = EpochDays.monthIndex(epochDays[size - 1]);
+        int firstYear = Math.floorDiv(firstMonth, 12);
+        int[] payoutsPerYear = new int[Math.floorDiv(lastMonth, 12) - firstYear + 1];
+
+        Histogram dayGaps = new Histogram(HISTOGRAM_DAYS);
+        Histogram monthGaps = new Histogram(HISTOGRAM_MONTHS);
+        long sumOfDays = 0;
+        long sumOfMonths = 0;
+
+        Cadence cadence = Cadence.IRREGULAR;
+        Cadence run = null;
+        int runLength = 0;
+        int runStart = 0;
+        boolean established = false;
+        List<Change> changes = new ArrayList<>();
+
+        int previousMonth = firstMonth;
+        payoutsPerYear[0]++;
+        for (int i = 1; i < size; i++) {
+            int month = EpochDays.monthIndex(epochDays[i]);
+            int days = epochDays[i] - epochDays[i - 1];
+            int months = month - previousMonth;
+            previousMonth = month;
+
+            payoutsPerYear[Math.floorDiv(month, 12) - firstYear]++;
+            dayGaps.add(days);
+            monthGaps.add(months);
+            sumOfDays += days;
+            sumOfMonths += months;
+
+            Cadence kind = Cadence.ofGap(days);
+            if (kind != run) {
+                run = kind;
+                runLength = 0;
+                runStart = epochDays[i - 1];
+            }
+            if (++runLength == CONFIRMING_GAPS) {
+                if (established && kind != cadence) changes.add(new Change(runStart, cadence, kind));
+                cadence = kind;
+                established = true;
+            }
+        }
+
+        int gaps = size - 1;
+        return new DividendCadence(size,
+                gaps > 0 ? (double) sumOfDays / gaps : 0, dayGaps.median(), dayGaps.mode(),
+                gaps > 0 ? (double) sumOfMonths / gaps : 0, monthGaps.median(), monthGaps.mode(),
+                firstYear, payoutsPerYear, cadence, Collections.unmodifiableList(changes));
+    }
+
+
+    /**
+     * This method aims to get the number of payouts of a year
+     * @param year This is the only parameter, the year
+     * @return int The method will return the number of payouts, zero outside the history
+     */
+    int payoutsOf(int year) {
+        int slot = year - firstYear;
+        return slot >= 0 && slot < payoutsPerYear.length ? payoutsPerYear[slot] : 0;
+    }
+
+
+    /**
+     * The Histogram class counts the gaps from 0 to a largest value in an array, the
+     * few gaps above it are kept in a list that is sorted when a median or mode needs it
+     */
+    private static final class Histogram {
+        private final int[] counts;
+        private int[] overflow = new int[0];
+        private int overflowSize;
+        private int total;
+        private boolean overflowSorted = true;
+
+        Histogram(int largest) {
+            counts = new int[largest + 1];
+        }
+
+        void add(int value) {
+            total++;
+            if (value < counts.length) {
+                counts[value]++;
+                return;
+            }
+            if (overflowSize == overflow.length) overflow = Arrays.copyOf(overflow, Math.max(4, overflowSize * 2));
+            overflow[overflowSize++] = value;
+            overflowSorted = false;
+        }
+
+        double median() {
+            if (total == 0) return 0;
+            // the two middle values are the same one when the total is odd
+            return (valueAt((total - 1) / 2) + valueAt(total / 2)) / 2.0;
+        }
+
+        int mode() {
+            if (total == 0) return 0;
+
+            int mode = 0;
+            for (int value = 1; value < counts.length; value++) {
+                if (counts[value] > counts[mode]) mode = value;
+            }
+            int modeCount = counts[mode];
+
+            sortOverflow();
+            for (int i = 0; i < overflowSize; ) {
+                int run = i;
+                while (run < overflowSize && overflow[run] == overflow[i]) run++;
+                if (run - i > modeCount) {
+                    mode = overflow[i];
+                    modeCount = run - i;
+                }
+                i = run;
+            }
+            return mode;
+        }
+
+        /** The value at a position of the gaps in sorted order */
+        private int valueAt(int position) {
+            int seen = 0;
+            for (int value = 0; value < counts.length; value++) {
+                seen += counts[value];
+                if (seen > position) return value;
+            }
+            sortOverflow();
+            return overflow[position - seen];
+        }
+
+        private void sortOverflow() {
+            if (!overflowSorted) {
+                Arrays.sort(overflow, 0, overflowSize);
+                overflowSorted = true;
+            }
+        }
+    }
+}
@@ -0,0 +1,158 @@
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The DividendSeries class stores the rows of a dividends csv file column by column,
+ * dates as epoch days and the payouts as micros
+ *
+ * @author  Hussain Aljassim, Ahmed Baabdullah, Omar Mashhrawi
+ * @version 1.0
+ */
+public final class DividendSeries {
+
+    final int[] epochDays;
+    final long[] amounts;
+    final int size;
+
+    // the largest number of decimals a payout was written with
+    final int amountScale;
+
+    // built on the first lookup, both only hold final fields so they can be shared between threads
+    private DateIndex dateIndex;
+    private PrefixSums amountSums;
+
+    DividendSeries(int[] epochDays, long[] amounts, int size, int amountScale) {
+        this.epochDays = epochDays;
+        this.amounts = amounts;
+        this.size = size;
+        this.amountScale = amountScale;
+    }
+
+    DividendSeries(int[] epochDays, long[] amounts, int size, int amountScale, DateIndex dateIndex) {
+        this(epochDays, amounts, size, amountScale);
+        this.dateIndex = dateIndex;
+    }
+
+
+    /**
+     * This method aims to build a series from the rows returned by getDataFromCSV
+     * @param rows This is the only parameter, the rows as Date,Dividends
+     * @return DividendSeries The method will return the columns of the rows
+     * @exception NumberFormatException If a payout is not a number
+     * @see List
+     */
+    static DividendSeries fromRows(List<String[]> rows) {
+        Builder builder = new Builder(rows.size());
+        for (String[] row : rows) {
+            builder.add(row);
+        }
+        return builder.build();
+    }
+
+
+    /**
+     * This method aims to get the index of the date column, it is built on the first call
+     * @return DateIndex The method will return the index of the dates
+     * @see DateIndex
+     */
+    DateIndex dateIndex() {
+        DateIndex index = dateIndex;
+        if (index == null) {
+            index = DateIndex.of(epochDays, size);
+            dateIndex = index;
+        }
+        return index;
+    }
+
+
+    /**
+     * This method aims to get the running totals of the payouts, they are built on the first call
+     * @return PrefixSums The method will return the totals of the column
+     * @see PrefixSums
+     */
+    PrefixSums amountSums() {
+        PrefixSums sums = amountSums;
+        if (sums == null) {
+            sums = PrefixSums.of(amounts, size);
+            amountSums = sums;
+        }
+        return sums;
+    }
+
+
+    /**
+     * This method aims to get the number of payouts in the series
+     * @return int The method will return the number of rows
+     */
+    int size() {
+        return size;
+    }
+
+
+    /**
+     * The Builder class collects payouts into growing columns
+     */
+    static final class Builder {
+        private int[] epochDays;
+        private long[] amounts;
+        private int size;
+        private int amountScale;
+
+        Builder(int capacity) {
+            capacity = Math.max(capacity, 16);
+            epochDays = new int[capacity];
+            amounts = new long[capacity];
+        }
+
+        Builder add(String[] row) {
+            amountScale = Math.max(amountScale, FixedPoint.scaleOf(row[1]));
+            return add(EpochDays.parse(row[0]), FixedPoint.parseMicros(row[1]));
+        }
+
+        /**
+         * Adds a payout in micros, the scale is at least the decimals the payout needs
+         */
+        Builder add(int epochDay, long amount) {
+            amountScale = Math.max(amountScale, FixedPoint.scaleOfMicros(amount));
+            if (size == epochDays.length) {
+                epochDays = Arrays.copyOf(epochDays, size * 2);
+                amounts = Arrays.copyOf(amounts, size * 2);
+            }
+            epochDays[size] = epochDay;
+            amounts[size] = amount;
+            size++;
+            return this;
+        }
+
+        Builder amountScale(int scale) {
+            amountScale = Math.max(amountScale, scale);
+            return this;
+        }
+
+        int size() {
+            return size;
+        }
+
+        /**
+         * Empties the builder and keeps its columns, so a series built earlier
+         * must not be used after the next rows are added
+         */
+        void clear() {
+            size = 0;
+            amountScale = 0;
+        }
+
+        DividendSeries build() {
+            return new DividendSeries(epochDays, amounts, size, amountScale);
+        }
+
+        /**
+         * Builds the series with the index of its dates when the caller checked they
+         * are sorted while adding the payouts, so the column is not scanned again
+         */
+        DividendSeries build(boolean sorted) {
+            if (!sorted) return build();
+            return new DividendSeries(epochDays, amounts, size, amountScale, DateIndex.ofSorted(epochDays, size));
+        }
+    }
+}
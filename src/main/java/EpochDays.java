@@ -0,0 +1,122 @@
+import java.time.LocalDate;
+
+/**
+ * The EpochDays class holds the helpers used to keep dates as int days
+ * since 1970-01-01 instead of parsing the date text on every query
+ *
+ * @author  Hussain Aljassim, Ahmed Baabdullah, Omar Mashhrawi
+ * @version 1.0
+ */
+public final class EpochDays {
+
+    private EpochDays() {
+    }
+
+
+    /**
+     * This method aims to convert a date written as yyyy-MM-dd to an epoch day
+     * @param text This is the only parameter, the date text
+     * @return int The method will return the number of days since 1970-01-01
+     * @see LocalDate
+     */
+    static int parse(String text) {
+        return (int) LocalDate.parse(text).toEpochDay();
+    }
+
+
+    /**
+     * This method aims to get the epoch day of a calendar date
+     * @param year This is the first parameter, the year
+     * @param month This is the second parameter, the month of the year
+     * @param dayOfMonth This is the third parameter, the day of month
+     * @return int The method will return the number of days since 1970-01-01
+     * @see LocalDate
+     */
+    static int of(int year, int month, int dayOfMonth) {
+        return (int) LocalDate.of(year, month, dayOfMonth).toEpochDay();
+    }
+
+
+    /**
+     * This method aims to get the epoch day of a calendar date without
+     * creating a LocalDate, the fields are not validated
+     * @param year This is the first parameter, the year
+     * @param month This is the second parameter, the month of the year
+     * @param dayOfMonth This is the third parameter, the day of month
+     * @return int The method will return the number of days since 1970-01-01
+     */
+    static int fromCivil(int year, int month, int dayOfMonth) {
+        // days from civil, counting the years from March so the leap day is the last one
+        int y = month <= 2 ? year - 1 : year;
+        int era = (y >= 0 ? y : y - 399) / 400;
+        int yearOfEra = y - era * 400;
+        int dayOfYear = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + dayOfMonth - 1;
+        int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146097 + dayOfEra - 719468;
+    }
+
+
+    /**
+     * This method aims to get the number of days of a month, the way LocalDate counts them
+     * @param year This is the first parameter, the year
+     * @param month This is the second parameter, the month of the year from 1 to 12
+     * @return int The method will return 28 to 31
+     */
+    static int lengthOfMonth(int year, int month) {
+        if (month == 2) {
+            boolean leap = (year & 3) == 0 && (year % 100 != 0 || year % 400 == 0);
+            return leap ? 29 : 28;
+        }
+        return month == 4 || month == 6 || month == 9 || month == 11 ? 30 : 31;
+    }
+
+
+    /**
+     * This method aims to get the epoch day of the first of January of a year
+     * @param year This is the only parameter, the year
+     * @return int The method will return the epoch day of year-01-01
+     */
+    static int yearStart(int year) {
+        return fromCivil(year, 1, 1);
+    }
+
+
+    /**
+     * This method aims to get the year an epoch day falls in
+     * @param epochDay This is the only parameter, the epoch day
+     * @return int The method will return the year
+     */
+    static int year(int epochDay) {
+        return Math.floorDiv(monthIndex(epochDay), 12);
+    }
+
+
+    /**
+     * This method aims to get the month of the year an epoch day falls in
+     * @param epochDay This is the only parameter, the epoch day
+     * @return int The method will return the month from 1 to 12
+     */
+    static int month(int epochDay) {
+        return Math.floorMod(monthIndex(epochDay), 12) + 1;
+    }
+
+
+    /**
+     * This method aims to count the months from the year 0 to the month of an epoch day,
+     * so the difference of two of them is the number of calendar months between two dates
+     * @param epochDay This is the only parameter, the epoch day
+     * @return int The method will return year * 12 + month - 1
+     */
+    static int monthIndex(int epochDay) {
+        // civil from days, the inverse of fromCivil
+        int z = epochDay + 719468;
+        int era = (z >= 0 ? z : z - 146096) / 146097;
+        int dayOfEra = z - era * 146097;
+        int yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        int dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        int monthFromMarch = (5 * dayOfYear + 2) / 153;
+        int month = monthFromMarch < 10 ? monthFromMarch + 3 : monthFromMarch - 9;
+        int year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+        return year * 12 + month - 1;
+    }
+}
@@ -0,0 +1,197 @@
+import java.math.BigDecimal;
+
+/**
+ * The FixedPoint class holds the helpers used to keep prices as scaled longs
+ * (micros, six decimal places) instead of BigDecimal, the same precision
+ * the csv files are written with
+ *
+ * @author  Hussain Aljassim, Ahmed Baabdullah, Omar Mashhrawi
+ * @version 1.0
+ */
+public final class FixedPoint {
+
+    /** Number of decimal places kept in a scaled long */
+    static final int SCALE = 6;
+
+    /** The value of 1.000000 as a scaled long */
+    static final long ONE = 1_000_000L;
+
+    /** Returned by the fixed-point methods when only BigDecimal can give the exact result */
+    static final long INEXACT = Long.MIN_VALUE;
+
+    // the EMA is kept with six more decimals than the prices, in units of 10^-12
+    private static final long EMA_UNITS_PER_MICRO = 1_000_000L;
+    private static final long HALF_MICRO = EMA_UNITS_PER_MICRO / 2;
+
+    private static final long[] POWERS_OF_TEN = {
+            1L, 10L, 100L, 1_000L, 10_000L, 100_000L, 1_000_000L
+    };
+
+    private FixedPoint() {
+    }
+
+
+    /**
+     * This method aims to parse a decimal text such as "96.692497" into micros
+     * @param text This is the only parameter, the decimal text
+     * @return long The method will return the value multiplied by 10^6
+     * @exception NumberFormatException If the text is not a plain decimal number
+     * or has more than six decimal places
+     */
+    static long parseMicros(String text) {
+        int length = text.length();
+        if (length == 0) throw new NumberFormatException("Empty number");
+
+        int i = 0;
+        boolean negative = false;
+        char first = text.charAt(0);
+        if (first == '-' || first == '+') {
+            negative = first == '-';
+            i++;
+        }
+
+        long units = 0;
+        int decimals = -1;  // -1 until the decimal point is seen
+        boolean digits = false;
+
+        for (; i < length; i++) {
+            char c = text.charAt(i);
+            if (c == '.' && decimals < 0) {
+                decimals = 0;
+            } else if (c >= '0' && c <= '9') {
+                if (decimals >= 0 && ++decimals > SCALE) {
+                    throw new NumberFormatException("More than " + SCALE + " decimals: " + text);
+                }
+                units = Math.addExact(Math.multiplyExact(units, 10), c - '0');
+                digits = true;
+            } else {
+                throw new NumberFormatException("For input string: \"" + text + "\"");
+            }
+        }
+        if (!digits) throw new NumberFormatException("For input string: \"" + text + "\"");
+
+        long micros = Math.multiplyExact(units, POWERS_OF_TEN[SCALE - Math.max(decimals, 0)]);
+        return negative ? -micros : micros;
+    }
+
+
+    /**
+     * This method aims to find how many decimal places a value in micros needs, the
+     * scale of its shortest text, for a value that was not read from a text
+     * @param micros This is the only parameter, the value in micros
+     * @return int The method will return the number of digits after the point, 0 to SCALE
+     */
+    static int scaleOfMicros(long micros) {
+        int scale = SCALE;
+        while (scale > 0 && micros % 10 == 0) {
+            micros /= 10;
+            scale--;
+        }
+        return scale;
+    }
+
+
+    /**
+     * This method aims to find how many decimal places a decimal text is written with
+     * @param text This is the only parameter, the decimal text
+     * @return int The method will return the number of digits after the point
+     */
+    static int scaleOf(String text) {
+        int point = text.indexOf('.');
+        return point < 0 ? 0 : text.length() - point - 1;
+    }
+
+
+    /**
+     * This method aims to convert micros back to a BigDecimal with six decimal places
+     * @param micros This is the only parameter, the scaled value
+     * @return BigDecimal The method will return the value with scale 6
+     * @see BigDecimal
+     */
+    static BigDecimal toBigDecimal(long micros) {
+        return BigDecimal.valueOf(micros, SCALE);
+    }
+
+
+    /**
+     * This method aims to divide a sum of micros by a count the same way
+     * BigDecimal.divide(count, RoundingMode.HALF_UP) does when the sum has the given scale
+     * @param sumMicros This is the first parameter, the sum in micros
+     * @param count This is the second parameter, the number of values summed
+     * @param scale This is the third parameter, the scale of the result (0 to 6)
+     * @return BigDecimal The method will return the mean rounded HALF_UP at the scale
+     * @exception ArithmeticException If count is zero
+     * @see BigDecimal
+     */
+    static BigDecimal meanHalfUp(long sumMicros, long count, int scale) {
+        if (count == 0) throw new ArithmeticException("/ by zero");
+        long divisor = Math.multiplyExact(count, POWERS_OF_TEN[SCALE - scale]);
+        return BigDecimal.valueOf(divideHalfUp(sumMicros, divisor), scale);
+    }
+
+
+    /**
+     * This method aims to divide two longs rounding half away from zero
+     * @param dividend This is the first parameter, the dividend
+     * @param divisor This is the second parameter, a positive divisor
+     * @return long The method will return the rounded quotient
+     */
+    static long divideHalfUp(long dividend, long divisor) {
+        long quotient = dividend / divisor;
+        long remainder = Math.abs(dividend % divisor);
+
+        if (remainder >= divisor - remainder) {
+            quotient += dividend < 0 ? -1 : 1;
+        }
+        return quotient;
+    }
+
+
+    /**
+     * This method aims to round 2 / (days + 1) HALF_UP at two decimals, the smoothing
+     * factor ExponentialMovingAverage uses
+     * @param days This is the only parameter, the number of days, at least one
+     * @return long The method will return the smoothing factor in hundredths
+     */
+    static long smoothingFactorHundredths(int days) {
+        long divisor = days + 1L;
+        return (400 + divisor) / (2 * divisor);
+    }
+
+
+    /**
+     * This method aims to calculate the EMA of ExponentialMovingAverage without BigDecimal.
+     * BigDecimal keeps every digit of EMA * (1 - factor) + factor * close, two more decimals
+     * per day, and rounds only at the end. Here the EMA is kept at twelve decimals and
+     * rounded down every day, so it is below the exact value by less than one unit per day.
+     * The result is rounded HALF_UP at six decimals when that error can not change the
+     * rounding, which is nearly always, and INEXACT is returned otherwise
+     * @param column This is the first parameter, the close column in micros
+     * @param index This is the second parameter, the row the EMA starts from
+     * @param days This is the third parameter, the number of rows, at least one
+     * @return long The method will return the EMA in micros, or INEXACT when the values
+     * are negative, do not fit in a long or fall too close to half a micro
+     */
+    static long emaHalfUp(long[] column, int index, int days) {
+        if (days < 1 || days >= HALF_MICRO) return INEXACT;
+
+        long factor = smoothingFactorHundredths(days);
+        long rest = 100 - factor;
+        try {
+            long ema = Math.multiplyExact(column[index], EMA_UNITS_PER_MICRO);
+            for (int i = index; i < index + days; i++) {
+                long weighted = Math.multiplyExact(factor, Math.multiplyExact(column[i], EMA_UNITS_PER_MICRO));
+                ema = Math.floorDiv(Math.addExact(Math.multiplyExact(ema, rest), weighted), 100);
+            }
+            if (ema < 0) return INEXACT;
+
+            long micros = ema / EMA_UNITS_PER_MICRO;
+            long remainder = ema % EMA_UNITS_PER_MICRO;
+            if (remainder >= HALF_MICRO) return micros + 1;
+            if (remainder + days <= HALF_MICRO) return micros;
+            return INEXACT;
+        } catch (ArithmeticException e) {
+            return INEXACT;
+        }
+    }
+}
@@ -0,0 +1,160 @@
+/**
+ * The FusedIndicators class computes the volatility and volume indicators of every
+ * row of a run of rows in one pass over the high, low, close and volume columns:
+ * the rolling standard deviation of the close with Welford's method, the Bollinger
+ * Bands around the simple moving average, the rolling volume weighted average price,
+ * and the average true range and relative strength index with Wilder's smoothing.
+ * The values are written into the columns of an Output given by the caller, so the
+ * loop does not allocate and an Output can be used again for the next call.
+ *
+ * ATR and RSI depend on every row before them, like the EMA of RollingIndicators,
+ * so the pass starts at the first row and the value of a row does not depend on from.
+ * A row without enough rows before it gets NaN
+ *
+ * @author  Hussain Aljassim, Ahmed Baabdullah, Omar Mashhrawi
+ * @version 1.0
+ */
+public final class FusedIndicators {
+
+    private static final double MICROS = FixedPoint.ONE;
+
+    private FusedIndicators() {
+    }
+
+
+    /**
+     * This method aims to compute every indicator of the rows in [from, to)
+     * @param series This is the first parameter, the stock series
+     * @param window This is the second parameter, the number of rows of every indicator
+     * @param bandWidth This is the third parameter, the number of standard deviations
+     * between the middle band and the upper and lower bands, usually 2
+     * @param from This is the forth parameter, the first row written
+     * @param to This is the fifth parameter, the first row not written
+     * @param out This is the sixth parameter, the columns the row from is written at index 0 of
+     */
+    static void compute(PriceSeries series, int window, double bandWidth, int from, int to, Output out) {
+        if (window <= 1) throw new IllegalArgumentException("The window must be above one: " + window);
+        if (from < 0 || to < from || to > series.size) {
+            throw new IndexOutOfBoundsException("Rows [" + from + ", " + to + ")");
+        }
+        if (out.capacity() < to - from) {
+            throw new IllegalArgumentException("The output can not hold " + (to - from) + " rows");
+        }
+
+        long[] high = series.high;
+        long[] low = series.low;
+        long[] close = series.close;
+        long[] volume = series.volume;
+
+        long closeSum = 0;          // in micros, exact like RollingIndicators.sma
+        double mean = 0;            // Welford's mean and sum of squared differences of the window
+        double squares = 0;
+        double priceVolume = 0;     // the typical prices times the volumes of the window
+        long volumeSum = 0;
+        double trueRangeSum = 0;
+        double atr = Double.NaN;
+        double gainSum = 0;
+        double lossSum = 0;
+        double averageGain = Double.NaN;
+        double averageLoss = Double.NaN;
+
+        for (int i = 0; i < to; i++) {
+            double c = close[i] / MICROS;
+            double h = high[i] / MICROS;
+            double l = low[i] / MICROS;
+
+            closeSum += close[i];
+            priceVolume += (h + l + c) / 3 * volume[i];
+            volumeSum += volume[i];
+            if (i < window) {
+                double delta = c - mean;
+                mean += delta / (i + 1);
+                squares += delta * (c - mean);
+            } else {
+                double old = close[i - window] / MICROS;
+                double previousMean = mean;
+                mean += (c - old) / window;
+                squares += (c - old) * (c - mean + old - previousMean);
+                closeSum -= close[i - window];
+                priceVolume -= (high[i - window] + low[i - window] + close[i - window]) / (3 * MICROS) *
+                        volume[i - window];
+                volumeSum -= volume[i - window];
+            }
+
+            double trueRange = h - l;
+            if (i > 0) {
+                double previousClose = close[i - 1] / MICROS;
+                trueRange = Math.max(trueRange, Math.max(Math.abs(h - previousClose), Math.abs(l - previousClose)));
+
+                double change = c - previousClose;
+                double gain = Math.max(change, 0);
+                double loss = Math.max(-change, 0);
+                if (i < window) {
+                    gainSum += gain;
+                    lossSum += loss;
+                } else if (i == window) {
+                    averageGain = (gainSum + gain) / window;
+                    averageLoss = (lossSum + loss) / window;
+                } else {
+                    averageGain = (averageGain * (window - 1) + gain) / window;
+                    averageLoss = (averageLoss * (window - 1) + loss) / window;
+                }
+            }
+            if (i < window - 1) {
+                trueRangeSum += trueRange;
+            } else if (i == window - 1) {
+                atr = (trueRangeSum + trueRange) / window;
+            } else {
+                atr = (atr * (window - 1) + trueRange) / window;
+            }
+
+            if (i < from) continue;
+            int row = i - from;
+            boolean full = i >= window - 1;
+            // the rounding of the updates can leave a tiny negative sum for a flat window
+            double deviation = full ? Math.sqrt(Math.max(squares, 0) / window) : Double.NaN;
+            double middle = full ? closeSum / (window * MICROS) : Double.NaN;
+            out.standardDeviation[row] = deviation;
+            out.middleBand[row] = middle;
+            out.upperBand[row] = middle + bandWidth * deviation;
+            out.lowerBand[row] = middle - bandWidth * deviation;
+            out.vwap[row] = full && volumeSum != 0 ? priceVolume / volumeSum : Double.NaN;
+            out.atr[row] = atr;
+            out.rsi[row] = rsi(averageGain, averageLoss);
+        }
+    }
+
+
+    private static double rsi(double averageGain, double averageLoss) {
+        if (averageLoss == 0) return averageGain == 0 ? 50.0 : 100.0;
+        return 100.0 - 100.0 / (1.0 + averageGain / averageLoss);
+    }
+
+
+    /**
+     * The Output class holds a column per indicator, row from of a call is at index 0
+     */
+    static final class Output {
+        final double[] standardDeviation;
+        final double[] middleBand;
+        final double[] upperBand;
+        final double[] lowerBand;
+        final double[] vwap;
+        final double[] atr;
+        final double[] rsi;
+
+        Output(int capacity) {
+            standardDeviation = new double[capacity];
+            middleBand = new double[capacity];
+            upperBand = new double[capacity];
+            lowerBand = new double[capacity];
+            vwap = new double[capacity];
+            atr = new double[capacity];
+            rsi = new double[capacity];
+        }
+
+        int capacity() {
+            return rsi.length;
+        }
+    }
+}
@@ -0,0 +1,242 @@
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * The LiveIndicators class holds calculators that are updated one bar or one
+ * dividend at a time, so a feed can keep the indicators up to date without
+ * reading the history again. Every update is O(1) and the values are the same
+ * as the ones TradingOffice calculates over the whole series
+ *
+ * @author  Hussain Aljassim, Ahmed Baabdullah, Omar Mashhrawi
+ * @version 1.0
+ */
+public final class LiveIndicators {
+
+    private LiveIndicators() {
+    }
+
+
+    /**
+     * The Sma class keeps the simple moving average of the last window closes,
+     * the same value rollingSMA gives for the last bar
+     */
+    static final class Sma {
+        private final long[] closes;    // the last window closes, used as a ring
+        private long sum;
+        private long bars;
+        private int lastEpochDay = Integer.MIN_VALUE;
+
+        Sma(int window) {
+            if (window <= 0) throw new IllegalArgumentException("The window must be positive: " + window);
+            closes = new long[window];
+        }
+
+        /**
+         * This method aims to add the next bar
+         * @param epochDay This is the first parameter, the date of the bar, after the last one
+         * @param close This is the second parameter, the close price in micros
+         */
+        void onBar(int epochDay, long close) {
+            lastEpochDay = nextDay(lastEpochDay, epochDay);
+            int slot = (int) (bars % closes.length);
+            sum += close - closes[slot];
+            closes[slot] = close;
+            bars++;
+        }
+
+        void onBar(String[] row) {
+            onBar(EpochDays.parse(row[0]), FixedPoint.parseMicros(row[4]));
+        }
+
+        /** @return double The average of the last window closes, NaN until window bars were added */
+        double value() {
+            return bars >= closes.length ? sum / (closes.length * (double) FixedPoint.ONE) : Double.NaN;
+        }
+
+        /** @return BigDecimal The average rounded HALF_UP at six decimals, zero until window bars were added */
+        BigDecimal exactValue() {
+            return bars >= closes.length ?
+                    FixedPoint.meanHalfUp(sum, closes.length, FixedPoint.SCALE) : BigDecimal.ZERO;
+        }
+    }
+
+
+    /**
+     * The Ema class keeps the exponential moving average with a smoothing factor of
+     * 2 / (window + 1) started from the first window closes, the same value rollingEMA
+     * gives for the last bar
+     */
+    static final class Ema {
+        private final int window;
+        private final double smoothingFactor;
+        private double ema = Double.NaN;
+        private long seed;
+        private long bars;
+        private int lastEpochDay = Integer.MIN_VALUE;
+
+        Ema(int window) {
+            if (window <= 0) throw new IllegalArgumentException("The window must be positive: " + window);
+            this.window = window;
+            this.smoothingFactor = 2.0 / (window + 1);
+        }
+
+        /**
+         * This method aims to add the next bar
+         * @param epochDay This is the first parameter, the date of the bar, after the last one
+         * @param close This is the second parameter, the close price in micros
+         */
+        void onBar(int epochDay, long close) {
+            lastEpochDay = nextDay(lastEpochDay, epochDay);
+            if (bars < window) {
+                seed += close;
+                if (bars == window - 1) ema = seed / (window * (double) FixedPoint.ONE);
+            } else {
+                ema += smoothingFactor * (close / (double) FixedPoint.ONE - ema);
+            }
+            bars++;
+        }
+
+        void onBar(String[] row) {
+            onBar(EpochDays.parse(row[0]), FixedPoint.parseMicros(row[4]));
+        }
+
+        /** @return double The exponential moving average, NaN until window bars were added */
+        double value() {
+            return ema;
+        }
+    }
+
+
+    /**
+     * The AverageDividends class keeps the total and the number of payouts of every
+     * year, so the average of a period is the same as averageDividends gives
+     */
+    static final class AverageDividends {
+        private int firstYear;
+        private long[] sums = new long[0];
+        private int[] counts = new int[0];
+        private int scale;
+        private int lastEpochDay = Integer.MIN_VALUE;
+
+        /**
+         * This method aims to add the next payout
+         * @param epochDay This is the first parameter, the date of the payout, not before the last one
+         * @param amount This is the second parameter, the payout in micros
+         */
+        void onDividend(int epochDay, long amount) {
+            onDividend(epochDay, amount, FixedPoint.SCALE);
+        }
+
+        void onDividend(String[] row) {
+            onDividend(EpochDays.parse(row[0]), FixedPoint.parseMicros(row[1]), FixedPoint.scaleOf(row[1]));
+        }
+
+        private void onDividend(int epochDay, long amount, int amountScale) {
+            lastEpochDay = sameOrNextDay(lastEpochDay, epochDay);
+            int year = EpochDays.year(epochDay);
+            if (counts.length == 0) firstYear = year;
+
+            int slot = year - firstYear;
+            if (slot >= counts.length) {
+                int length = Math.max(slot + 1, counts.length * 2);
+                sums = Arrays.copyOf(sums, length);
+                counts = Arrays.copyOf(counts, length);
+            }
+            sums[slot] += amount;
+            counts[slot]++;
+            scale = Math.max(scale, amountScale);
+        }
+
+        /**
+         * This method aims to get the average of the payouts during a period
+         * @param from This is the first parameter, the first year
+         * @param to This is the second parameter, the second year
+         * @return BigDecimal The method will return the average value, it will return zero
+         * if none of the years has a payout
+         */
+        BigDecimal average(int from, int to) {
+            if (count(from) == 0 && count(to) == 0) return BigDecimal.ZERO;
+
+            long sum = 0;
+            long count = 0;
+            for (int year = Math.max(from, firstYear); year <= to && year - firstYear < counts.length; year++) {
+                sum += sums[year - firstYear];
+                count += counts[year - firstYear];
+            }
+            return count != 0 ? FixedPoint.meanHalfUp(sum, count, scale) : BigDecimal.ZERO;
+        }
+
+        private int count(int year) {
+            int slot = year - firstYear;
+            return slot >= 0 && slot < counts.length ? counts[slot] : 0;
+        }
+    }
+
+
+    /**
+     * The DividendFrequency class keeps the value frequencyOfDividendsDistribution
+     * gives. That method pairs every payout with each later payout of the same year
+     * and adds the month gap to the next payout, so a new payout adds the gaps of all
+     * the earlier payouts of its year, which are kept as one running total
+     */
+    static final class DividendFrequency {
+        private long months;
+        private long counter;
+        private long gapsOfYear;        // the month gaps of the earlier payouts of the current year
+        private long payoutsOfYear;     // the earlier payouts of the current year
+        private int lastYear;
+        private int lastMonth;
+        private boolean first = true;
+        private int lastEpochDay = Integer.MIN_VALUE;
+
+        /**
+         * This method aims to add the next payout
+         * @param epochDay This is the only parameter, the date of the payout, not before the last one
+         */
+        void onDividend(int epochDay) {
+            lastEpochDay = sameOrNextDay(lastEpochDay, epochDay);
+            int year = EpochDays.year(epochDay);
+            int month = EpochDays.month(epochDay);
+
+            if (!first && year == lastYear) {
+                gapsOfYear += Math.abs(month - lastMonth);
+                payoutsOfYear++;
+                months += gapsOfYear;
+                counter += payoutsOfYear;
+            } else {
+                gapsOfYear = 0;
+                payoutsOfYear = 0;
+            }
+            first = false;
+            lastYear = year;
+            lastMonth = month;
+        }
+
+        void onDividend(String[] row) {
+            onDividend(EpochDays.parse(row[0]));
+        }
+
+        /** @return int The floored value of the average period in months */
+        int value() {
+            return counter != 0 ? (int) (months / counter) : 0;
+        }
+    }
+
+
+    private static int nextDay(int lastEpochDay, int epochDay) {
+        if (epochDay <= lastEpochDay) {
+            throw new IllegalArgumentException("The bar of " + LocalDate.ofEpochDay(epochDay) +
+                    " is not after the last bar");
+        }
+        return epochDay;
+    }
+
+    private static int sameOrNextDay(int lastEpochDay, int epochDay) {
+        if (epochDay < lastEpochDay) {
+            throw new IllegalArgumentException("The dividend of " + LocalDate.ofEpochDay(epochDay) +
+                    " is before the last dividend");
+        }
+        return epochDay;
+    }
+}
@@ -0,0 +1,182 @@
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * The LoadGenerator class measures a QueryServer on localhost: every client sends
+ * its requests one after the other, as fast as the answers come back, cycling
+ * through the queries. It reports the requests per second and the latency
+ * percentiles of the answers, the latencies are kept in a Metrics.Histogram.
+ * Without a url it starts a server on a free port for the run
+ *
+ * @author  Hussain Aljassim, Ahmed Baabdullah, Omar Mashhrawi
+ * @version 1.0
+ */
+public class LoadGenerator {
+
+    static final String USAGE = "Usage: LoadGenerator [--url http://localhost:8080] [--clients 8] " +
+            "[--requests 5000] [query...]";
+    static final List<String> DEFAULT_QUERIES = List.of("SMAYear:2020", "SMAOfSpecificPeriod:2015:2020",
+            "EMA:2020:7:16:10", "averageDividends:2019:2020", "frequencyOfDividendsDistribution");
+
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        QueryServer.useNoDelay();
+        String url = null;
+        int clients = 8;
+        int requests = 5000;
+        List<String> queries = new ArrayList<>();
+
+        for (int i = 0; i < args.length; i++) {
+            if (!args[i].startsWith("--")) {
+                queries.add(args[i]);
+            } else if (i + 1 == args.length) {
+                System.err.println(USAGE);
+                System.exit(2);
+            } else if (args[i].equals("--url")) {
+                url = args[++i];
+            } else if (args[i].equals("--clients")) {
+                clients = Integer.parseInt(args[++i]);
+            } else if (args[i].equals("--requests")) {
+                requests = Integer.parseInt(args[++i]);
+            } else {
+                System.err.println(USAGE);
+                System.exit(2);
+            }
+        }
+        if (queries.isEmpty()) queries = DEFAULT_QUERIES;
+
+        QueryServer server = null;
+        if (url == null) {
+            TradingOffice tradingOffice = new TradingOffice();
+            server = new QueryServer(tradingOffice.getPriceSeriesFromSnapshot(new File("AAPL.csv")),
+                    tradingOffice.getDividendSeriesFromSnapshot(new File("AAPL-Dividends.csv")),
+                    0, Runtime.getRuntime().availableProcessors() * 4);
+            url = "http://localhost:" + server.port();
+            System.out.println("Started a server at " + url + " with " + server.executorName());
+        }
+
+        try {
+            LoadGenerator generator = new LoadGenerator();
+            // a short run first, so the JIT has compiled both sides before the measured one
+            generator.run(URI.create(url), queries, clients, Math.max(1, requests / 10));
+            System.out.println(generator.run(URI.create(url), queries, clients, requests));
+        } finally {
+            if (server != null) server.stop();
+        }
+    }
+
+
+    /**
+     * This method aims to send the requests of every client and time the answers
+     * @param base This is the first parameter, the url of the server
+     * @param queries This is the second parameter, the operations the clients cycle through
+     * @param clients This is the third parameter, the number of clients sending at the same time
+     * @param requestsPerClient This is the forth parameter, the number of requests of each client
+     * @exception InterruptedException If the thread is interrupted while waiting for the clients
+     * @return Report The method will return the throughput and the latencies of the run
+     */
+    Report run(URI base, List<String> queries, int clients, int requestsPerClient) throws InterruptedException {
+        List<HttpRequest> requests = new ArrayList<>(queries.size());
+        for (String query : queries) {
+            requests.add(HttpRequest.newBuilder(base.resolve("/query?q=" +
+                    URLEncoder.encode(query, StandardCharsets.UTF_8))).GET().build());
+        }
+
+        Metrics.Histogram latency = new Metrics.Histogram();
+        List<Callable<long[]>> tasks = new ArrayList<>(clients);
+        for (int c = 0; c < clients; c++) {
+            int first = c;
+            tasks.add(() -> send(requests, first, requestsPerClient, latency));
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(clients);
+        long start = System.nanoTime();
+        long ok = 0;
+        long failed = 0;
+        try {
+            for (Future<long[]> future : pool.invokeAll(tasks)) {
+                long[] counts = future.get();
+                ok += counts[0];
+                failed += counts[1];
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+        return new Report(ok, failed, System.nanoTime() - start, latency);
+    }
+
+
+    /**
+     * This method aims to send the requests of one client one after the other
+     * @return long[] The method will return the number of answers with status 200 and of the others
+     */
+    private long[] send(List<HttpRequest> requests, int first, int count, Metrics.Histogram latency) {
+        long[] counts = new long[2];
+        for (int i = 0; i < count; i++) {
+            HttpRequest request = requests.get((first + i) % requests.size());
+            long start = System.nanoTime();
+            try {
+                HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+                latency.record(System.nanoTime() - start);
+                counts[response.statusCode() == 200 ? 0 : 1]++;
+            } catch (IOException e) {
+                counts[1]++;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        return counts;
+    }
+
+
+    /**
+     * The Report class holds the result of a run
+     */
+    static final class Report {
+        final long ok;
+        final long failed;
+        final long nanos;
+        final long[] percentileNanos;
+
+        private Report(long ok, long failed, long nanos, Metrics.Histogram latency) {
+            this.ok = ok;
+            this.failed = failed;
+            this.nanos = nanos;
+            this.percentileNanos = new long[]{latency.percentile(0.50), latency.percentile(0.99),
+                    latency.percentile(0.999), latency.percentile(1.0)};
+        }
+
+        double requestsPerSecond() {
+            return (ok + failed) / (nanos / 1e9);
+        }
+
+        @Override
+        public String toString() {
+            double[] micros = Arrays.stream(percentileNanos).mapToDouble(nanos -> nanos / 1e3).toArray();
+            return String.format(Locale.ROOT, "%d requests (%d failed) in %.1f ms, %.0f requests/s, " +
+                            "p50 %.1f us, p99 %.1f us, p999 %.1f us, max %.1f us",
+                    ok + failed, failed, nanos / 1e6, requestsPerSecond(), micros[0], micros[1], micros[2], micros[3]);
+        }
+    }
+}
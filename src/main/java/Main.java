@@ -1,19 +1,21 @@
 import java.io.File;
 import java.io.IOException;
 import java.time.LocalDate;
-import java.util.ArrayList;
 import java.util.Scanner;
 
 public class Main {
     public static void main(String[] args) {
 
-        TradingOffice tradingOffice = new TradingOffice();
+        // with arguments the operations are run as a script, without the menu
+        if (args.length > 0) System.exit(ScriptRunner.run(args, System.err));
+
+        CachedTradingOffice tradingOffice = new CachedTradingOffice();
 
         try {
-            ArrayList<String[]> APPLDividendsData =
-                    tradingOffice.getDataFromCSV(new File("AAPL-Dividends.csv"));
-            ArrayList<String[]> APPLData =
-                    tradingOffice.getDataFromCSV(new File("AAPL.csv"));
+            DividendSeries APPLDividendsData =
+                    tradingOffice.getDividendSeriesFromSnapshot(new File("AAPL-Dividends.csv"));
+            PriceSeries APPLData =
+                    tradingOffice.getPriceSeriesFromSnapshot(new File("AAPL.csv"));
 
             Scanner userInput = new Scanner(System.in);
             int choice = 0;
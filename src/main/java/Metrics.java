@@ -0,0 +1,291 @@
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * The Metrics class counts the calls of every TradingOffice operation with their
+ * latency, the rows they read one at a time and the bytes they read from files.
+ * A lookup in the running totals or a binary search reads no row, so a query that
+ * falls back to scanning shows up in the rows. The latencies go into a histogram
+ * with 32 buckets per power of two, like HdrHistogram, so a percentile is within
+ * about 3% of the real value.
+ *
+ * The metrics are off by default, then an operation costs one read of a flag. They
+ * are turned on by enable() or -Dtradingoffice.metrics=true, and
+ * -Dtradingoffice.metrics.dumpSeconds=N prints them every N seconds. Every operation
+ * is also published through JMX as TradingOffice:type=Metrics,name=operation
+ *
+ * @author  Hussain Aljassim, Ahmed Baabdullah, Omar Mashhrawi
+ * @version 1.0
+ */
+public final class Metrics {
+
+    static final String DOMAIN = "TradingOffice";
+
+    private static final Map<String, Operation> operations = new ConcurrentSkipListMap<>();
+    private static volatile boolean enabled;
+
+    static {
+        if (Boolean.getBoolean("tradingoffice.metrics")) enable();
+        long dumpSeconds = Long.getLong("tradingoffice.metrics.dumpSeconds", 0L);
+        if (dumpSeconds > 0) {
+            enable();
+            dumpEvery(Duration.ofSeconds(dumpSeconds), System.err);
+        }
+    }
+
+    private Metrics() {
+    }
+
+
+    /**
+     * This method aims to get the metrics of an operation, creating them on the first call
+     * @param name This is the only parameter, the name of the operation
+     * @return Operation The method will return the metrics of the operation
+     */
+    static Operation operation(String name) {
+        Operation operation = operations.computeIfAbsent(name, Operation::new);
+        if (enabled) register(operation);
+        return operation;
+    }
+
+
+    /**
+     * This method aims to start timing a call
+     * @return long The method will return the start time, or zero when the metrics are off
+     */
+    static long start() {
+        return enabled ? System.nanoTime() : 0L;
+    }
+
+
+    /**
+     * This method aims to turn the metrics on and publish them through JMX
+     */
+    static void enable() {
+        enabled = true;
+        for (Operation operation : operations.values()) {
+            register(operation);
+        }
+    }
+
+
+    /**
+     * This method aims to turn the metrics off, the counts so far are kept
+     */
+    static void disable() {
+        enabled = false;
+    }
+
+
+    static boolean isEnabled() {
+        return enabled;
+    }
+
+
+    /**
+     * This method aims to set every count of every operation back to zero
+     */
+    static void reset() {
+        for (Operation operation : operations.values()) {
+            operation.reset();
+        }
+    }
+
+
+    /**
+     * This method aims to write the metrics of the operations that were called as a table
+     * @return String The method will return a line per operation, the latencies in microseconds
+     */
+    static String dump() {
+        StringBuilder text = new StringBuilder(String.format(Locale.ROOT,
+                "%-36s %10s %10s %10s %10s %10s %14s %14s%n",
+                "operation", "calls", "p50(us)", "p99(us)", "p999(us)", "max(us)", "rows", "bytes"));
+        for (Operation operation : operations.values()) {
+            long calls = operation.getCalls();
+            if (calls == 0) continue;
+            text.append(String.format(Locale.ROOT, "%-36s %10d %10.1f %10.1f %10.1f %10.1f %14d %14d%n",
+                    operation.name, calls, operation.getP50Micros(), operation.getP99Micros(),
+                    operation.getP999Micros(), operation.getMaxMicros(),
+                    operation.getRowsScanned(), operation.getBytesRead()));
+        }
+        return text.toString();
+    }
+
+
+    /**
+     * This method aims to print the metrics on a daemon thread every period
+     * @param period This is the first parameter, the time between two dumps
+     * @param out This is the second parameter, the stream the dumps are printed on
+     * @return ScheduledExecutorService The method will return the thread, shut it down to stop the dumps
+     */
+    static ScheduledExecutorService dumpEvery(Duration period, PrintStream out) {
+        ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "metrics-dump");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long millis = period.toMillis();
+        executor.scheduleAtFixedRate(() -> out.print(dump()), millis, millis, TimeUnit.MILLISECONDS);
+        return executor;
+    }
+
+
+    /**
+     * This method aims to list the operations in the order of their names
+     * @return List<Operation> The method will return every operation created so far
+     */
+    static List<Operation> operations() {
+        return new ArrayList<>(operations.values());
+    }
+
+
+    private static void register(Operation operation) {
+        if (operation.registered) return;
+        synchronized (operation) {
+            if (operation.registered) return;
+            try {
+                MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+                ObjectName name = new ObjectName(DOMAIN + ":type=Metrics,name=" + ObjectName.quote(operation.name));
+                if (!server.isRegistered(name)) server.registerMBean(operation, name);
+            } catch (JMException e) {
+                // the metrics are still counted and dumped without JMX
+            }
+            operation.registered = true;
+        }
+    }
+
+
+    /**
+     * The OperationMXBean interface is what JMX shows of an operation
+     */
+    public interface OperationMXBean {
+        long getCalls();
+        long getRowsScanned();
+        long getBytesRead();
+        double getP50Micros();
+        double getP99Micros();
+        double getP999Micros();
+        double getMaxMicros();
+        void reset();
+    }
+
+
+    /**
+     * The Operation class holds the counts and the latency histogram of one operation
+     */
+    static final class Operation implements OperationMXBean {
+        final String name;
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder rows = new LongAdder();
+        private final LongAdder bytes = new LongAdder();
+        private final Histogram latency = new Histogram();
+        private volatile boolean registered;
+
+        private Operation(String name) {
+            this.name = name;
+        }
+
+        /**
+         * This method aims to record a finished call
+         * @param start This is the first parameter, the time returned by Metrics.start()
+         * @param rowsScanned This is the second parameter, the rows read one at a time
+         * @param bytesRead This is the third parameter, the bytes read from files
+         */
+        void stop(long start, long rowsScanned, long bytesRead) {
+            if (start == 0L) return;
+            latency.record(System.nanoTime() - start);
+            calls.increment();
+            if (rowsScanned != 0) rows.add(rowsScanned);
+            if (bytesRead != 0) bytes.add(bytesRead);
+        }
+
+        @Override public long getCalls() { return calls.sum(); }
+        @Override public long getRowsScanned() { return rows.sum(); }
+        @Override public long getBytesRead() { return bytes.sum(); }
+        @Override public double getP50Micros() { return latency.percentile(0.50) / 1e3; }
+        @Override public double getP99Micros() { return latency.percentile(0.99) / 1e3; }
+        @Override public double getP999Micros() { return latency.percentile(0.999) / 1e3; }
+        @Override public double getMaxMicros() { return latency.percentile(1.0) / 1e3; }
+
+        @Override
+        public void reset() {
+            calls.reset();
+            rows.reset();
+            bytes.reset();
+            latency.reset();
+        }
+    }
+
+
+    /**
+     * The Histogram class counts values in buckets that are 1/32 of a power of two
+     * wide, so every value is kept with about 3% of error in a fixed array
+     */
+    static final class Histogram {
+        private static final int SUB_BUCKET_BITS = 5;
+        private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+        private static final int BUCKETS = (64 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+        private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+
+        void record(long value) {
+            counts.incrementAndGet(bucketOf(Math.max(0L, value)));
+        }
+
+        /**
+         * This method aims to get the value below which a share of the values are
+         * @param quantile This is the only parameter, the share between 0 and 1
+         * @return long The method will return the highest value of the bucket the
+         * quantile falls in, or zero when nothing was recorded
+         */
+        long percentile(double quantile) {
+            long[] snapshot = new long[BUCKETS];
+            long total = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                snapshot[i] = counts.get(i);
+                total += snapshot[i];
+            }
+            if (total == 0) return 0;
+
+            long rank = Math.max(1, (long) Math.ceil(quantile * total));
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += snapshot[i];
+                if (seen >= rank) return highestValueOf(i);
+            }
+            return highestValueOf(BUCKETS - 1);
+        }
+
+        void reset() {
+            for (int i = 0; i < BUCKETS; i++) counts.set(i, 0);
+        }
+
+        static int bucketOf(long value) {
+            if (value < SUB_BUCKETS) return (int) value;
+            int exponent = 63 - Long.numberOfLeadingZeros(value);
+            int shift = exponent - SUB_BUCKET_BITS;
+            return shift * SUB_BUCKETS + (int) (value >>> shift);
+        }
+
+        static long highestValueOf(int bucket) {
+            if (bucket < SUB_BUCKETS * 2) return bucket;
+            int shift = bucket / SUB_BUCKETS - 1;
+            long subBucket = bucket % SUB_BUCKETS + SUB_BUCKETS;
+            return ((subBucket + 1) << shift) - 1;
+        }
+    }
+}
@@ -0,0 +1,124 @@
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * The PrefixSums class keeps the running totals of a column in micros, so the
+ * sum or the average of any run of rows is one subtraction instead of a loop.
+ * The totals are exact, an average is rounded the same way BigDecimal rounds it.
+ * When the total of the column does not fit in a long the runs are added row by
+ * row, and with BigDecimal when a run does not fit either
+ *
+ * @author  Hussain Aljassim, Ahmed Baabdullah, Omar Mashhrawi
+ * @version 1.0
+ */
+public final class PrefixSums {
+
+    // totals[i] is the sum of the first i rows, so totals[0] is zero
+    private final long[] totals;
+    private final long[] column;
+    private final int size;
+    private final boolean exact;
+
+    private PrefixSums(long[] totals, long[] column, int size, boolean exact) {
+        this.totals = totals;
+        this.column = column;
+        this.size = size;
+        this.exact = exact;
+    }
+
+
+    /**
+     * This method aims to build the running totals of a column
+     * @param column This is the first parameter, the column in micros
+     * @param size This is the second parameter, the number of rows
+     * @return PrefixSums The method will return the totals of the column
+     */
+    static PrefixSums of(long[] column, int size) {
+        long[] totals = new long[size + 1];
+        long total = 0;
+        long overflow = 0;
+
+        for (int i = 0; i < size; i++) {
+            long next = total + column[i];
+            overflow |= (total ^ next) & (column[i] ^ next);    // the sign flipped, as in Math.addExact
+            total = next;
+            totals[i + 1] = total;
+        }
+        return new PrefixSums(totals, column, size, overflow >= 0);
+    }
+
+
+    /**
+     * This method aims to wrap running totals that are kept up to date by the caller,
+     * such as the totals of a SeriesStore that grow with every append
+     * @param totals This is the first parameter, totals[i] is the sum of the first i rows
+     * @param column This is the second parameter, the column in micros
+     * @param size This is the third parameter, the number of rows covered
+     * @param exact This is the forth parameter, false if a total of the first rows overflowed
+     * @return PrefixSums The method will return the totals of the first size rows
+     */
+    static PrefixSums over(long[] totals, long[] column, int size, boolean exact) {
+        return new PrefixSums(totals, column, size, exact);
+    }
+
+
+    /**
+     * This method aims to get the sum of a run of rows
+     * @param from This is the first parameter, the first row included
+     * @param to This is the second parameter, the first row excluded
+     * @return long The method will return the sum of the rows in micros
+     * @exception ArithmeticException If the sum does not fit in a long
+     */
+    long sum(int from, int to) {
+        if (exact) return totals[to] - totals[from];
+
+        long sum = 0;
+        for (int i = from; i < to; i++) {
+            sum = Math.addExact(sum, column[i]);
+        }
+        return sum;
+    }
+
+
+    /**
+     * This method aims to get the average of a run of rows
+     * @param from This is the first parameter, the first row included
+     * @param to This is the second parameter, the first row excluded
+     * @param scale This is the third parameter, the scale to round the average at
+     * @return BigDecimal The method will return the average rounded HALF_UP,
+     * or zero if the run is empty
+     * @see FixedPoint
+     */
+    BigDecimal mean(int from, int to, int scale) {
+        if (to <= from) return BigDecimal.ZERO;
+
+        try {
+            return FixedPoint.meanHalfUp(sum(from, to), to - from, scale);
+        } catch (ArithmeticException e) {
+            BigDecimal sum = BigDecimal.ZERO;
+            for (int i = from; i < to; i++) {
+                sum = sum.add(FixedPoint.toBigDecimal(column[i]));
+            }
+            return sum.divide(BigDecimal.valueOf(to - from), scale, RoundingMode.HALF_UP);
+        }
+    }
+
+
+    /**
+     * This method aims to tell whether the running totals fit in a long, otherwise
+     * the runs are added row by row
+     * @return boolean The method will return true if the totals are exact
+     */
+    boolean isExact() {
+        return exact;
+    }
+
+
+    /**
+     * This method aims to get the number of rows the totals cover
+     * @return int The method will return the number of rows
+     */
+    int size() {
+        return size;
+    }
+}
@@ -0,0 +1,85 @@
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * The PriceRange class holds the statistics of the prices between two dates: the
+ * average close, the lowest low, the highest high, the range between them and the
+ * average distance between the high and the low of a day. The high and low columns
+ * are read once by ColumnKernels, on the lanes of the CPU when the vector kernels
+ * are loaded
+ *
+ * @author  Hussain Aljassim, Ahmed Baabdullah, Omar Mashhrawi
+ * @version 1.0
+ */
+public final class PriceRange {
+
+    final int rows;
+    final BigDecimal averageClose;
+    final BigDecimal lowest;
+    final BigDecimal highest;
+    final BigDecimal range;
+    final BigDecimal averageDailyRange;
+
+    private PriceRange(int rows, BigDecimal averageClose, BigDecimal lowest, BigDecimal highest,
+                       BigDecimal averageDailyRange) {
+        this.rows = rows;
+        this.averageClose = averageClose;
+        this.lowest = lowest;
+        this.highest = highest;
+        this.range = highest.subtract(lowest);
+        this.averageDailyRange = averageDailyRange;
+    }
+
+
+    /**
+     * This method aims to calculate the statistics of a run of rows
+     * @param data This is the first parameter, the stock series
+     * @param from This is the second parameter, the first row included
+     * @param to This is the third parameter, the first row excluded
+     * @param kernels This is the forth parameter, the kernels that read the columns
+     * @return PriceRange The method will return the statistics, all zero when the run is empty
+     */
+    static PriceRange of(PriceSeries data, int from, int to, ColumnKernels kernels) {
+        int rows = to - from;
+        if (rows <= 0) {
+            return new PriceRange(0, BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO);
+        }
+
+        long[] highLow = new long[ColumnKernels.HIGH_LOW_SLOTS];
+        kernels.highLow(data.high, data.low, from, to, highLow);
+
+        return new PriceRange(rows, data.closeSums().mean(from, to, data.closeScale),
+                FixedPoint.toBigDecimal(highLow[ColumnKernels.MIN_LOW]),
+                FixedPoint.toBigDecimal(highLow[ColumnKernels.MAX_HIGH]),
+                averageDailyRange(data, from, to, highLow));
+    }
+
+
+    /**
+     * This method aims to average high - low over the rows from the sums of the kernels.
+     * The sums wrap around on overflow, so they are only used when no value is large
+     * enough for rows of them to overflow, otherwise the rows are added as BigDecimal
+     */
+    private static BigDecimal averageDailyRange(PriceSeries data, int from, int to, long[] highLow) {
+        int rows = to - from;
+        long largest = 0;
+        for (int slot = ColumnKernels.MIN_LOW; slot <= ColumnKernels.MAX_HIGH; slot++) {
+            long value = highLow[slot];
+            largest = value == Long.MIN_VALUE ? Long.MAX_VALUE : Math.max(largest, Math.abs(value));
+        }
+
+        if (Math.multiplyHigh(largest, rows) == 0 && largest * rows >= 0) {
+            long difference = highLow[ColumnKernels.SUM_HIGH] - highLow[ColumnKernels.SUM_LOW];
+            if (((highLow[ColumnKernels.SUM_HIGH] ^ highLow[ColumnKernels.SUM_LOW])
+                    & (highLow[ColumnKernels.SUM_HIGH] ^ difference)) >= 0) {
+                return FixedPoint.meanHalfUp(difference, rows, FixedPoint.SCALE);
+            }
+        }
+
+        BigDecimal sum = BigDecimal.ZERO;
+        for (int i = from; i < to; i++) {
+            sum = sum.add(FixedPoint.toBigDecimal(data.high[i])).subtract(FixedPoint.toBigDecimal(data.low[i]));
+        }
+        return sum.divide(BigDecimal.valueOf(rows), FixedPoint.SCALE, RoundingMode.HALF_UP);
+    }
+}
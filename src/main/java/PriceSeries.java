@@ -0,0 +1,242 @@
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The PriceSeries class stores the rows of a stock csv file column by column,
+ * dates as epoch days and prices as micros, so the analytics can run over
+ * primitive arrays without parsing the text on every query
+ *
+ * @author  Hussain Aljassim, Ahmed Baabdullah, Omar Mashhrawi
+ * @version 1.0
+ */
+public final class PriceSeries {
+
+    final int[] epochDays;
+    final long[] open;
+    final long[] high;
+    final long[] low;
+    final long[] close;
+    final long[] adjClose;
+    final long[] volume;
+    final int size;
+
+    // the largest number of decimals a close price was written with, so the averages
+    // are rounded at the same scale BigDecimal would round them at
+    final int closeScale;
+
+    // built on the first lookup, they only hold final fields so they can be shared between threads
+    private DateIndex dateIndex;
+    private PrefixSums closeSums;
+    private TradingCalendar tradingCalendar;
+
+    PriceSeries(int[] epochDays, long[] open, long[] high, long[] low, long[] close,
+                long[] adjClose, long[] volume, int size, int closeScale) {
+        this.epochDays = epochDays;
+        this.open = open;
+        this.high = high;
+        this.low = low;
+        this.close = close;
+        this.adjClose = adjClose;
+        this.volume = volume;
+        this.size = size;
+        this.closeScale = closeScale;
+    }
+
+    PriceSeries(int[] epochDays, long[] open, long[] high, long[] low, long[] close,
+                long[] adjClose, long[] volume, int size, int closeScale,
+                DateIndex dateIndex, PrefixSums closeSums) {
+        this(epochDays, open, high, low, close, adjClose, volume, size, closeScale);
+        this.dateIndex = dateIndex;
+        this.closeSums = closeSums;
+    }
+
+    PriceSeries(int[] epochDays, long[] open, long[] high, long[] low, long[] close,
+                long[] adjClose, long[] volume, int size, int closeScale,
+                DateIndex dateIndex, PrefixSums closeSums, TradingCalendar tradingCalendar) {
+        this(epochDays, open, high, low, close, adjClose, volume, size, closeScale, dateIndex, closeSums);
+        this.tradingCalendar = tradingCalendar;
+    }
+
+
+    /**
+     * This method aims to build a series from the rows returned by getDataFromCSV
+     * @param rows This is the only parameter, the rows as Date,Open,High,Low,Close,Adj Close,Volume
+     * @return PriceSeries The method will return the columns of the rows
+     * @exception NumberFormatException If a price is not a number
+     * @see List
+     */
+    static PriceSeries fromRows(List<String[]> rows) {
+        Builder builder = new Builder(rows.size());
+        for (String[] row : rows) {
+            builder.add(row);
+        }
+        return builder.build();
+    }
+
+
+    /**
+     * This method aims to get the index of the date column, it is built on the first call
+     * @return DateIndex The method will return the index of the dates
+     * @see DateIndex
+     */
+    DateIndex dateIndex() {
+        DateIndex index = dateIndex;
+        if (index == null) {
+            index = DateIndex.of(epochDays, size);
+            dateIndex = index;
+        }
+        return index;
+    }
+
+
+    /**
+     * This method aims to get the trading calendar of the date column, it is built on the first call
+     * @return TradingCalendar The method will return the calendar of the dates
+     * @exception IllegalStateException If the dates are not sorted
+     * @see TradingCalendar
+     */
+    TradingCalendar tradingCalendar() {
+        TradingCalendar calendar = tradingCalendar;
+        if (calendar == null) {
+            if (!dateIndex().isSorted()) throw new IllegalStateException("The dates are not sorted");
+            calendar = TradingCalendar.of(epochDays, size);
+            tradingCalendar = calendar;
+        }
+        return calendar;
+    }
+
+
+    /**
+     * This method aims to get the running totals of the close price, they are built on the first call
+     * @return PrefixSums The method will return the totals of the column
+     * @see PrefixSums
+     */
+    PrefixSums closeSums() {
+        PrefixSums sums = closeSums;
+        if (sums == null) {
+            sums = PrefixSums.of(close, size);
+            closeSums = sums;
+        }
+        return sums;
+    }
+
+
+    /**
+     * This method aims to get the number of rows in the series
+     * @return int The method will return the number of rows
+     */
+    int size() {
+        return size;
+    }
+
+
+    /**
+     * This method aims to find the row of a date, the same way getIndex does
+     * @param epochDay This is the only parameter, the date as an epoch day
+     * @return int The method will return the row of the date, or zero if it does not exist
+     */
+    int indexOf(int epochDay) {
+        return Math.max(dateIndex().indexOf(epochDay), 0);
+    }
+
+
+    /**
+     * The Builder class collects rows into growing columns
+     */
+    static final class Builder {
+        private int[] epochDays;
+        private long[] open;
+        private long[] high;
+        private long[] low;
+        private long[] close;
+        private long[] adjClose;
+        private long[] volume;
+        private int size;
+        private int closeScale;
+
+        Builder(int capacity) {
+            capacity = Math.max(capacity, 16);
+            epochDays = new int[capacity];
+            open = new long[capacity];
+            high = new long[capacity];
+            low = new long[capacity];
+            close = new long[capacity];
+            adjClose = new long[capacity];
+            volume = new long[capacity];
+        }
+
+        Builder add(String[] row) {
+            closeScale = Math.max(closeScale, FixedPoint.scaleOf(row[4]));
+            return add(EpochDays.parse(row[0]),
+                    FixedPoint.parseMicros(row[1]),
+                    FixedPoint.parseMicros(row[2]),
+                    FixedPoint.parseMicros(row[3]),
+                    FixedPoint.parseMicros(row[4]),
+                    FixedPoint.parseMicros(row[5]),
+                    Long.parseLong(row[6]));
+        }
+
+        /**
+         * Adds a row of micros, the scale is at least the decimals the close needs,
+         * so a row that was not read from a text is not rounded to a whole number
+         */
+        Builder add(int epochDay, long open, long high, long low, long close,
+                    long adjClose, long volume) {
+            if (size == epochDays.length) grow();
+            closeScale = Math.max(closeScale, FixedPoint.scaleOfMicros(close));
+            this.epochDays[size] = epochDay;
+            this.open[size] = open;
+            this.high[size] = high;
+            this.low[size] = low;
+            this.close[size] = close;
+            this.adjClose[size] = adjClose;
+            this.volume[size] = volume;
+            size++;
+            return this;
+        }
+
+        Builder closeScale(int scale) {
+            closeScale = Math.max(closeScale, scale);
+            return this;
+        }
+
+        int size() {
+            return size;
+        }
+
+        /**
+         * Empties the builder and keeps its columns, so a series built earlier
+         * must not be used after the next rows are added
+         */
+        void clear() {
+            size = 0;
+            closeScale = 0;
+        }
+
+        PriceSeries build() {
+            return new PriceSeries(epochDays, open, high, low, close, adjClose, volume,
+                    size, closeScale);
+        }
+
+        /**
+         * Builds the series with the index of its dates when the caller checked they
+         * are sorted while adding the rows, so the column is not scanned again
+         */
+        PriceSeries build(boolean sorted) {
+            if (!sorted) return build();
+            return new PriceSeries(epochDays, open, high, low, close, adjClose, volume,
+                    size, closeScale, DateIndex.ofSorted(epochDays, size), null);
+        }
+
+        private void grow() {
+            int capacity = epochDays.length * 2;
+            epochDays = Arrays.copyOf(epochDays, capacity);
+            open = Arrays.copyOf(open, capacity);
+            high = Arrays.copyOf(high, capacity);
+            low = Arrays.copyOf(low, capacity);
+            close = Arrays.copyOf(close, capacity);
+            adjClose = Arrays.copyOf(adjClose, capacity);
+            volume = Arrays.copyOf(volume, capacity);
+        }
+    }
+}
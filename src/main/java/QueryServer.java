@@ -0,0 +1,222 @@
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The QueryServer class answers the operations of ScriptRunner over HTTP on the
+ * loopback address, so a tool can ask for an SMA, an EMA or the dividends without
+ * starting a JVM. The stock and dividends files are read once at startup and shared
+ * by every request, they are never written after that.
+ *
+ * GET /query?q=SMAYear:2020 answers one operation as a json object, and with several
+ * q parameters a json array of the objects in the same order, answered in one batch.
+ * GET /health gives the number of rows. The requests run on virtual threads when the
+ * JVM has them (Java 21 and later) and on a fixed pool of threads otherwise
+ *
+ * @author  Hussain Aljassim, Ahmed Baabdullah, Omar Mashhrawi
+ * @version 1.0
+ */
+public class QueryServer {
+
+    static final String USAGE = "Usage: QueryServer [--port 8080] [--prices FILE] [--dividends FILE] [--threads N]";
+
+    private final PriceSeries prices;
+    private final DividendSeries dividends;
+    private final ScriptRunner runner = new ScriptRunner();
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+
+    /**
+     * This method aims to start a server on the loopback address
+     * @param prices This is the first parameter, the stock series
+     * @param dividends This is the second parameter, the dividends series
+     * @param port This is the third parameter, the port, 0 for any free port
+     * @param threads This is the forth parameter, the size of the pool when there are no virtual threads
+     * @exception IOException If the port can not be bound
+     */
+    QueryServer(PriceSeries prices, DividendSeries dividends, int port, int threads) throws IOException {
+        this.prices = prices;
+        this.dividends = dividends;
+        // built now, so the requests only read them
+        prices.dateIndex();
+        prices.closeSums();
+        if (prices.dateIndex().isSorted()) prices.tradingCalendar();     // every EMA looks its start up in it
+        dividends.dateIndex();
+        dividends.amountSums();
+
+        executor = executor(threads);
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        server.createContext("/query", this::query);
+        server.createContext("/health", this::health);
+        server.setExecutor(executor);
+        server.start();
+    }
+
+
+    /**
+     * This method aims to turn off the delay of small writes of the HTTP server of the
+     * JDK, without it the headers and the body of an answer wait for the delayed ack of
+     * the client, which adds about 40 ms to every request on the loopback. The server
+     * reads the property once, so it is set before the first server of the JVM is made,
+     * and a value given with -D is kept
+     */
+    static void useNoDelay() {
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+    }
+
+
+    public static void main(String[] args) throws IOException {
+        useNoDelay();
+        int port = 8080;
+        File pricesFile = new File("AAPL.csv");
+        File dividendsFile = new File("AAPL-Dividends.csv");
+        int threads = Runtime.getRuntime().availableProcessors() * 4;
+        if (args.length % 2 != 0) {
+            System.err.println(USAGE);
+            System.exit(2);
+        }
+
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--port": port = Integer.parseInt(args[i + 1]); break;
+                case "--prices": pricesFile = new File(args[i + 1]); break;
+                case "--dividends": dividendsFile = new File(args[i + 1]); break;
+                case "--threads": threads = Integer.parseInt(args[i + 1]); break;
+                default:
+                    System.err.println(USAGE);
+                    System.exit(2);
+            }
+        }
+
+        TradingOffice tradingOffice = new TradingOffice();
+        QueryServer server = new QueryServer(tradingOffice.getPriceSeriesFromSnapshot(pricesFile),
+                tradingOffice.getDividendSeriesFromSnapshot(dividendsFile), port, threads);
+        System.out.println("Listening on http://localhost:" + server.port() + "/query?q=SMAYear:2020 with " +
+                server.executorName());
+    }
+
+
+    /**
+     * This method aims to get the port the server listens on
+     * @return int The method will return the port
+     */
+    int port() {
+        return server.getAddress().getPort();
+    }
+
+
+    String executorName() {
+        return executor.getClass().getSimpleName().contains("ThreadPerTask") ? "virtual threads" : "a thread pool";
+    }
+
+
+    /**
+     * This method aims to stop the server, the requests being answered get a second to finish
+     */
+    void stop() {
+        server.stop(1);
+        executor.shutdown();
+        try {
+            executor.awaitTermination(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+
+    private void query(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!"GET".equals(exchange.getRequestMethod())) {
+                send(exchange, 405, "{\"error\":\"Only GET is allowed\"}");
+                return;
+            }
+
+            List<ScriptRunner.Operation> operations = new ArrayList<>();
+            try {
+                for (String query : parameters(exchange.getRequestURI().getRawQuery(), "q")) {
+                    operations.add(ScriptRunner.Operation.parse(query));
+                }
+            } catch (IllegalArgumentException e) {
+                send(exchange, 400, "{\"error\":" + ScriptRunner.Format.jsonString(e.getMessage()) + "}");
+                return;
+            }
+            if (operations.isEmpty()) {
+                send(exchange, 400, "{\"error\":\"No q parameter was given\"}");
+                return;
+            }
+
+            StringWriter lines = new StringWriter();
+            runner.answer(operations, prices, dividends, ScriptRunner.Format.JSON, lines);
+            // the objects are written a line each, the last line ends with a new line
+            String body = lines.toString().stripTrailing();
+            send(exchange, 200, operations.size() == 1 ? body : "[" + body.replace('\n', ',') + "]");
+        }
+    }
+
+
+    private void health(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            send(exchange, 200, "{\"rows\":" + prices.size() + ",\"dividends\":" + dividends.size() + "}");
+        }
+    }
+
+
+    private static void send(HttpExchange exchange, int status, String json) throws IOException {
+        byte[] body = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+
+    /**
+     * This method aims to get the values of a parameter of a query string
+     * @param rawQuery This is the first parameter, the query string, still encoded, or null
+     * @param name This is the second parameter, the name of the parameter
+     * @return List<String> The method will return the decoded values in their order
+     */
+    static List<String> parameters(String rawQuery, String name) {
+        List<String> values = new ArrayList<>();
+        if (rawQuery == null) return values;
+        for (String pair : rawQuery.split("&")) {
+            int equals = pair.indexOf('=');
+            String key = URLDecoder.decode(equals < 0 ? pair : pair.substring(0, equals), StandardCharsets.UTF_8);
+            if (key.equals(name)) {
+                values.add(equals < 0 ? "" : URLDecoder.decode(pair.substring(equals + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return values;
+    }
+
+
+    /**
+     * This method aims to get a thread per request when the JVM has virtual threads,
+     * which are looked up at run time since the project is built for Java 17
+     * @param threads This is the only parameter, the size of the pool used otherwise
+     * @return ExecutorService The method will return the executor of the requests
+     */
+    private static ExecutorService executor(int threads) {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newFixedThreadPool(threads);
+        }
+    }
+}
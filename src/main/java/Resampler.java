@@ -0,0 +1,106 @@
+/**
+ * The Resampler class turns daily bars into weekly, monthly, quarterly or yearly bars
+ * in one pass: the open of the first day, the highest high, the lowest low, the close
+ * and adjusted close of the last day and the total volume. The bars are written into
+ * a PriceSeries, so every indicator of TradingOffice runs on them as on daily bars.
+ * A bar is dated with the first day of its period (the Monday of a week, the first
+ * day of a month, a quarter or a year), whether or not the market was open on it
+ *
+ * @author  Hussain Aljassim, Ahmed Baabdullah, Omar Mashhrawi
+ * @version 1.0
+ */
+public final class Resampler {
+
+    /**
+     * The Timeframe enum finds the period a day belongs to
+     */
+    enum Timeframe {
+        WEEKLY(5) {
+            @Override
+            int periodStart(int epochDay) {
+                return epochDay - Math.floorMod(epochDay + 3, 7);   // 1970-01-01 was a Thursday
+            }
+        },
+        MONTHLY(21) {
+            @Override
+            int periodStart(int epochDay) {
+                int monthIndex = EpochDays.monthIndex(epochDay);
+                return EpochDays.fromCivil(Math.floorDiv(monthIndex, 12), Math.floorMod(monthIndex, 12) + 1, 1);
+            }
+        },
+        QUARTERLY(63) {
+            @Override
+            int periodStart(int epochDay) {
+                int monthIndex = EpochDays.monthIndex(epochDay);
+                return EpochDays.fromCivil(Math.floorDiv(monthIndex, 12), Math.floorMod(monthIndex, 12) / 3 * 3 + 1, 1);
+            }
+        },
+        YEARLY(252) {
+            @Override
+            int periodStart(int epochDay) {
+                return EpochDays.yearStart(EpochDays.year(epochDay));
+            }
+        };
+
+        private final int tradingDays;  // about, to size the columns
+
+        Timeframe(int tradingDays) {
+            this.tradingDays = tradingDays;
+        }
+
+        /**
+         * This method aims to find the first day of the period of a day
+         * @param epochDay This is the only parameter, the day
+         * @return int The method will return the first day of the period as an epoch day
+         */
+        abstract int periodStart(int epochDay);
+    }
+
+    private Resampler() {
+    }
+
+
+    /**
+     * This method aims to resample daily bars into the bars of a timeframe
+     * @param daily This is the first parameter, the daily series sorted by date
+     * @param timeframe This is the second parameter, the timeframe of the new bars
+     * @return PriceSeries The method will return a bar per period that has at least one day
+     * @exception IllegalArgumentException If the days are not sorted
+     * @exception ArithmeticException If the volume of a period does not fit in a long
+     */
+    static PriceSeries resample(PriceSeries daily, Timeframe timeframe) {
+        if (!daily.dateIndex().isSorted()) {
+            throw new IllegalArgumentException("The daily bars are not sorted by date");
+        }
+
+        int size = daily.size();
+        PriceSeries.Builder bars = new PriceSeries.Builder(size / timeframe.tradingDays + 2)
+                .closeScale(daily.closeScale);
+        if (size == 0) return bars.build();
+
+        int period = timeframe.periodStart(daily.epochDays[0]);
+        long open = daily.open[0];
+        long high = daily.high[0];
+        long low = daily.low[0];
+        long volume = daily.volume[0];
+
+        for (int i = 1; i < size; i++) {
+            int dayPeriod = timeframe.periodStart(daily.epochDays[i]);
+            if (dayPeriod == period) {
+                high = Math.max(high, daily.high[i]);
+                low = Math.min(low, daily.low[i]);
+                volume = Math.addExact(volume, daily.volume[i]);
+                continue;
+            }
+
+            bars.add(period, open, high, low, daily.close[i - 1], daily.adjClose[i - 1], volume);
+            period = dayPeriod;
+            open = daily.open[i];
+            high = daily.high[i];
+            low = daily.low[i];
+            volume = daily.volume[i];
+        }
+        bars.add(period, open, high, low, daily.close[size - 1], daily.adjClose[size - 1], volume);
+        return bars.build();
+    }
+}
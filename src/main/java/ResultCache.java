@@ -0,0 +1,233 @@
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * The ResultCache class keeps the results of the latest queries, keyed by the
+ * series they were calculated on, the name of the operation and its parameters.
+ * It holds at most a number of entries and an estimated number of bytes, and drops
+ * the least recently used entries first. The series are compared by identity, so a
+ * series that is read again or appended to must be invalidated by the caller
+ *
+ * @author  Hussain Aljassim, Ahmed Baabdullah, Omar Mashhrawi
+ * @version 1.0
+ */
+public final class ResultCache {
+
+    static final int DEFAULT_ENTRIES = 10_000;
+    static final long DEFAULT_BYTES = 16L << 20;
+
+    // rough sizes of the objects on a 64 bit JVM with compressed references
+    private static final int ENTRY_BYTES = 96;
+    private static final int PARAMETER_BYTES = 24;
+    private static final int BIG_DECIMAL_BYTES = 72;
+    private static final int ARRAY_BYTES = 16;
+    private static final int OBJECT_BYTES = 32;
+
+    private final int maxEntries;
+    private final long maxBytes;
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private long bytes;
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long invalidations;
+
+    ResultCache(int maxEntries, long maxBytes) {
+        if (maxEntries <= 0) throw new IllegalArgumentException("The cache must hold an entry: " + maxEntries);
+        if (maxBytes <= 0) throw new IllegalArgumentException("The cache must hold a byte: " + maxBytes);
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxBytes;
+    }
+
+    ResultCache() {
+        this(DEFAULT_ENTRIES, DEFAULT_BYTES);
+    }
+
+
+    /**
+     * This method aims to get the result of a query, calculating and keeping it
+     * when it is not in the cache. The calculation runs outside the lock, so two
+     * threads missing the same key at once may both calculate it
+     * @param series This is the first parameter, the series the query reads
+     * @param operation This is the second parameter, the name of the operation
+     * @param calculation This is the third parameter, calculates the result on a miss
+     * @param parameters This is the forth parameter, the parameters of the operation
+     * @return T The method will return the kept or the calculated result
+     */
+    @SuppressWarnings("unchecked")
+    <T> T get(Object series, String operation, Supplier<T> calculation, Object... parameters) {
+        Key key = new Key(series, operation, parameters);
+        synchronized (this) {
+            Entry entry = entries.get(key);
+            if (entry != null) {
+                hits++;
+                return (T) entry.value;
+            }
+            misses++;
+        }
+
+        T value = calculation.get();
+        long weight = ENTRY_BYTES + (long) PARAMETER_BYTES * parameters.length + weightOf(value);
+        if (weight > maxBytes) return value;   // it would push everything else out
+
+        synchronized (this) {
+            Entry previous = entries.put(key, new Entry(value, weight));
+            bytes += weight - (previous != null ? previous.weight : 0);
+            evict();
+        }
+        return value;
+    }
+
+
+    /**
+     * This method aims to drop every result calculated on a series or with the series
+     * as a parameter, it is called when the series is read again or appended to
+     * @param series This is the only parameter, the series
+     * @return int The method will return the number of results dropped
+     */
+    synchronized int invalidate(Object series) {
+        int dropped = 0;
+        for (Iterator<Map.Entry<Key, Entry>> it = entries.entrySet().iterator(); it.hasNext(); ) {
+            Map.Entry<Key, Entry> entry = it.next();
+            if (entry.getKey().uses(series)) {
+                bytes -= entry.getValue().weight;
+                it.remove();
+                dropped++;
+            }
+        }
+        invalidations += dropped;
+        return dropped;
+    }
+
+
+    /**
+     * This method aims to drop every result, the counters are kept
+     */
+    synchronized void clear() {
+        invalidations += entries.size();
+        entries.clear();
+        bytes = 0;
+    }
+
+
+    /**
+     * This method aims to read the counters, to size the cache
+     * @return Stats The method will return the counters at the time of the call
+     */
+    synchronized Stats stats() {
+        return new Stats(hits, misses, evictions, invalidations, entries.size(), bytes);
+    }
+
+
+    private void evict() {
+        Iterator<Entry> it = entries.values().iterator();
+        while ((entries.size() > maxEntries || bytes > maxBytes) && it.hasNext()) {
+            bytes -= it.next().weight;
+            it.remove();
+            evictions++;
+        }
+    }
+
+
+    private static long weightOf(Object value) {
+        if (value instanceof BigDecimal) return BIG_DECIMAL_BYTES;
+        if (value instanceof double[]) return ARRAY_BYTES + 8L * ((double[]) value).length;
+        if (value instanceof long[]) return ARRAY_BYTES + 8L * ((long[]) value).length;
+        if (value instanceof int[]) return ARRAY_BYTES + 4L * ((int[]) value).length;
+        if (value instanceof DividendCadence) {
+            DividendCadence cadence = (DividendCadence) value;
+            return OBJECT_BYTES * 3 + 4L * cadence.payoutsPerYear.length + OBJECT_BYTES * cadence.changes.size();
+        }
+        if (value instanceof TotalReturn) return OBJECT_BYTES + (ARRAY_BYTES + 8L * ((TotalReturn) value).size) * 3;
+        return OBJECT_BYTES;
+    }
+
+
+    /**
+     * The Key class holds a series by identity with an operation and its parameters
+     */
+    private static final class Key {
+        final Object series;
+        final String operation;
+        final Object[] parameters;
+        final int hash;
+
+        Key(Object series, String operation, Object[] parameters) {
+            this.series = series;
+            this.operation = operation;
+            this.parameters = parameters;
+            this.hash = (System.identityHashCode(series) * 31 + operation.hashCode()) * 31 + Arrays.hashCode(parameters);
+        }
+
+        boolean uses(Object other) {
+            if (series == other) return true;
+            for (Object parameter : parameters) {
+                if (parameter == other) return true;
+            }
+            return false;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof Key)) return false;
+            Key key = (Key) other;
+            return series == key.series && operation.equals(key.operation) && Arrays.equals(parameters, key.parameters);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+
+    private static final class Entry {
+        final Object value;
+        final long weight;
+
+        Entry(Object value, long weight) {
+            this.value = value;
+            this.weight = weight;
+        }
+    }
+
+
+    /**
+     * The Stats class holds the counters of a cache at one time
+     */
+    static final class Stats {
+        final long hits;
+        final long misses;
+        final long evictions;
+        final long invalidations;
+        final int entries;
+        final long bytes;
+
+        Stats(long hits, long misses, long evictions, long invalidations, int entries, long bytes) {
+            this.hits = hits;
+            this.misses = misses;
+            this.evictions = evictions;
+            this.invalidations = invalidations;
+            this.entries = entries;
+            this.bytes = bytes;
+        }
+
+        /** @return double The share of the queries answered from the cache, zero before any query */
+        double hitRate() {
+            long queries = hits + misses;
+            return queries != 0 ? (double) hits / queries : 0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT,
+                    "hits=%d misses=%d hitRate=%.3f evictions=%d invalidations=%d entries=%d bytes=%d",
+                    hits, misses, hitRate(), evictions, invalidations, entries, bytes);
+        }
+    }
+}
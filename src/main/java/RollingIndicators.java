@@ -0,0 +1,83 @@
+/**
+ * The RollingIndicators class computes a moving average for every row of a run
+ * of rows in one pass over a column in micros. The values are written into an
+ * array given by the caller, so the loops do not allocate
+ *
+ * @author  Hussain Aljassim, Ahmed Baabdullah, Omar Mashhrawi
+ * @version 1.0
+ */
+public final class RollingIndicators {
+
+    private static final double MICROS = FixedPoint.ONE;
+
+    private RollingIndicators() {
+    }
+
+
+    /**
+     * This method aims to calculate the simple moving average of the last window rows
+     * for every row in [from, to). The rows before from are read only to fill the first
+     * window, and a row with fewer than window rows before it gets NaN
+     * @param column This is the first parameter, the column in micros
+     * @param window This is the second parameter, the number of rows averaged
+     * @param from This is the third parameter, the first row written
+     * @param to This is the forth parameter, the first row not written
+     * @param out This is the fifth parameter, the array the averages are written into
+     * @param offset This is the sixth parameter, where the average of row from is written
+     */
+    static void sma(long[] column, int window, int from, int to, double[] out, int offset) {
+        checkArguments(window, from, to, out, offset);
+
+        double divisor = window * MICROS;
+        long sum = 0;
+        for (int i = Math.max(0, from - window); i < from; i++) {
+            sum += column[i];
+        }
+
+        for (int i = from; i < to; i++) {
+            sum += column[i];
+            if (i >= window) sum -= column[i - window];
+            out[offset + i - from] = i >= window - 1 ? sum / divisor : Double.NaN;
+        }
+    }
+
+
+    /**
+     * This method aims to calculate the exponential moving average of every row in
+     * [from, to) with a smoothing factor of 2 / (window + 1). The average starts as the
+     * simple moving average of the first window rows of the column and goes through every
+     * row up to the last one written, so the value of a row does not depend on from
+     * @param column This is the first parameter, the column in micros
+     * @param window This is the second parameter, the number of days of the average
+     * @param from This is the third parameter, the first row written
+     * @param to This is the forth parameter, the first row not written
+     * @param out This is the fifth parameter, the array the averages are written into
+     * @param offset This is the sixth parameter, where the average of row from is written
+     */
+    static void ema(long[] column, int window, int from, int to, double[] out, int offset) {
+        checkArguments(window, from, to, out, offset);
+
+        double smoothingFactor = 2.0 / (window + 1);
+        double ema = Double.NaN;
+        long seed = 0;
+
+        for (int i = 0; i < to; i++) {
+            if (i < window) {
+                seed += column[i];
+                if (i == window - 1) ema = seed / (window * MICROS);
+            } else {
+                ema += smoothingFactor * (column[i] / MICROS - ema);
+            }
+            if (i >= from) out[offset + i - from] = ema;
+        }
+    }
+
+
+    private static void checkArguments(int window, int from, int to, double[] out, int offset) {
+        if (window <= 0) throw new IllegalArgumentException("The window must be positive: " + window);
+        if (from < 0 || to < from) throw new IndexOutOfBoundsException("Rows [" + from + ", " + to + ")");
+        if (offset < 0 || out.length - offset < to - from) {
+            throw new IllegalArgumentException("The array can not hold " + (to - from) + " values");
+        }
+    }
+}
@@ -0,0 +1,377 @@
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * The ScriptRunner class is the mode of Main without the menu: the files and the
+ * operations come from the arguments or from a query file, every file is read once,
+ * the operations are answered together through TradingOffice.batch, and the answers
+ * are written as csv or json lines through one buffered writer that is flushed at the end.
+ *
+ * Usage: Main [--prices AAPL.csv] [--dividends AAPL-Dividends.csv] [--queries FILE]
+ *             [--format csv|json] [--output FILE] operation...
+ * An operation is its name and its arguments separated by ':', such as SMA,
+ * SMAYear:2020, SMAOfSpecificPeriod:2019:2020, SMAOfDateRange:2020-01-01:2020-03-31,
+ * EMA:2020:7:16:10, averageDividends:2019:2020 or frequencyOfDividendsDistribution.
+ * A query file has an operation per line, blank lines and lines starting with # are skipped
+ *
+ * @author  Hussain Aljassim, Ahmed Baabdullah, Omar Mashhrawi
+ * @version 1.0
+ */
+public class ScriptRunner {
+
+    static final String USAGE = "Usage: Main [--prices FILE] [--dividends FILE] [--queries FILE] " +
+            "[--format csv|json] [--output FILE] operation...";
+    static final String CSV_HEADER = "query,result,error";
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final TradingOffice tradingOffice = new TradingOffice();
+
+
+    public static void main(String[] args) {
+        System.exit(run(args, System.err));
+    }
+
+
+    /**
+     * This method aims to run a script and write its answers to the output file, or to
+     * System.out when there is none
+     * @param args This is the first parameter, the arguments of Main
+     * @param err This is the second parameter, the stream the usage and the errors are printed on
+     * @return int The method will return 0 when every operation was answered, 1 when
+     * some gave an error and 2 when the arguments or the files could not be used
+     */
+    static int run(String[] args, PrintStream err) {
+        Script script;
+        try {
+            script = Script.parse(args);
+        } catch (IllegalArgumentException | IOException e) {
+            err.println(e.getMessage());
+            err.println(USAGE);
+            return 2;
+        }
+
+        try {
+            if (script.output == null) {
+                Writer out = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8), BUFFER_SIZE);
+                int errors = new ScriptRunner().run(script, out);
+                out.flush();
+                return errors == 0 ? 0 : 1;
+            }
+            try (Writer out = new BufferedWriter(new OutputStreamWriter(Files.newOutputStream(script.output),
+                    StandardCharsets.UTF_8), BUFFER_SIZE)) {
+                return new ScriptRunner().run(script, out) == 0 ? 0 : 1;
+            }
+        } catch (IOException e) {
+            err.println(e.getMessage());
+            return 2;
+        }
+    }
+
+
+    /**
+     * This method aims to read the files of a script once, answer its operations and
+     * write a line per operation in the order of the operations
+     * @param script This is the first parameter, the parsed script
+     * @param out This is the second parameter, the writer of the answers, it is flushed but not closed
+     * @exception IOException If a file can not be read or the answers can not be written
+     * @return int The method will return the number of operations that gave an error
+     */
+    int run(Script script, Writer out) throws IOException {
+        PriceSeries prices = script.needsPrices() ? tradingOffice.getPriceSeriesFromSnapshot(script.prices) : null;
+        DividendSeries dividends = script.needsDividends() ?
+                tradingOffice.getDividendSeriesFromSnapshot(script.dividends) : null;
+
+        if (script.format == Format.CSV) {
+            out.write(CSV_HEADER);
+            out.write('\n');
+        }
+        int errors = answer(script.operations, prices, dividends, script.format, out);
+        out.flush();
+        return errors;
+    }
+
+
+    /**
+     * This method aims to answer operations over series that are already read and
+     * write a line per operation in the order of the operations
+     * @param operations This is the first parameter, the operations
+     * @param prices This is the second parameter, the stock series, or null if no operation needs it
+     * @param dividends This is the third parameter, the dividends series, or null if no operation needs it
+     * @param format This is the forth parameter, the format of the lines
+     * @param out This is the fifth parameter, the writer of the lines
+     * @exception IOException If the answers can not be written
+     * @return int The method will return the number of operations that gave an error
+     */
+    int answer(List<Operation> operations, PriceSeries prices, DividendSeries dividends, Format format,
+               Writer out) throws IOException {
+        List<BatchQuery> batch = new ArrayList<>();
+        for (Operation operation : operations) {
+            if (operation.query != null) batch.add(operation.query);
+        }
+        List<Object> answers = answerBatch(prices, dividends, batch);
+
+        int errors = 0;
+        int next = 0;
+        for (Operation operation : operations) {
+            String result = null;
+            String error = null;
+            try {
+                if (operation.query != null) {
+                    Object answer = answers.get(next++);
+                    if (answer instanceof RuntimeException) throw (RuntimeException) answer;
+                    result = ((BigDecimal) answer).toPlainString();
+                } else if (operation.name.equals("SMA")) {
+                    result = tradingOffice.SMA(prices).toPlainString();
+                } else {
+                    result = Integer.toString(tradingOffice.frequencyOfDividendsDistribution(dividends));
+                }
+            } catch (RuntimeException e) {
+                error = e.getClass().getSimpleName() + ": " + e.getMessage();
+                errors++;
+            }
+            format.write(out, operation.text, result, error);
+        }
+        return errors;
+    }
+
+
+    /**
+     * This method aims to answer the queries of a script in one batch. When a query of
+     * the batch throws, the queries are answered one at a time so only that one fails
+     * @param prices This is the first parameter, the stock series
+     * @param dividends This is the second parameter, the dividends series
+     * @param queries This is the third parameter, the queries
+     * @return List<Object> The method will return the answer or the exception of every query
+     */
+    private List<Object> answerBatch(PriceSeries prices, DividendSeries dividends, List<BatchQuery> queries) {
+        try {
+            return new ArrayList<>(tradingOffice.batch(prices, dividends, queries));
+        } catch (RuntimeException e) {
+            List<Object> answers = new ArrayList<>(queries.size());
+            for (BatchQuery query : queries) {
+                try {
+                    answers.add(tradingOffice.batch(prices, dividends, List.of(query)).get(0));
+                } catch (RuntimeException queryError) {
+                    answers.add(queryError);
+                }
+            }
+            return answers;
+        }
+    }
+
+
+    /**
+     * The Format enum writes the line of an operation
+     */
+    enum Format {
+        CSV {
+            @Override
+            void write(Writer out, String query, String result, String error) throws IOException {
+                out.write(csvField(query));
+                out.write(',');
+                if (result != null) out.write(result);
+                out.write(',');
+                if (error != null) out.write(csvField(error));
+                out.write('\n');
+            }
+        },
+        JSON {
+            @Override
+            void write(Writer out, String query, String result, String error) throws IOException {
+                out.write("{\"query\":");
+                out.write(jsonString(query));
+                if (result != null) {
+                    // the answers are plain numbers, written as they are to keep their digits
+                    out.write(",\"result\":");
+                    out.write(result);
+                } else {
+                    out.write(",\"error\":");
+                    out.write(jsonString(error));
+                }
+                out.write("}\n");
+            }
+        };
+
+        abstract void write(Writer out, String query, String result, String error) throws IOException;
+
+        private static String csvField(String text) {
+            if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0) return text;
+            return '"' + text.replace("\"", "\"\"") + '"';
+        }
+
+        static String jsonString(String text) {
+            StringBuilder json = new StringBuilder(text.length() + 2).append('"');
+            for (int i = 0; i < text.length(); i++) {
+                char c = text.charAt(i);
+                if (c == '"' || c == '\\') {
+                    json.append('\\').append(c);
+                } else if (c < 0x20) {
+                    json.append(String.format(Locale.ROOT, "\\u%04x", (int) c));
+                } else {
+                    json.append(c);
+                }
+            }
+            return json.append('"').toString();
+        }
+    }
+
+
+    /**
+     * The Operation class is one parsed operation of a script. The queries that can be
+     * batched carry their BatchQuery, SMA and frequencyOfDividendsDistribution do not
+     */
+    static final class Operation {
+        final String text;
+        final String name;
+        final BatchQuery query;
+
+        private Operation(String text, String name, BatchQuery query) {
+            this.text = text;
+            this.name = name;
+            this.query = query;
+        }
+
+
+        /**
+         * This method aims to parse an operation written as name:argument:argument
+         * @param text This is the only parameter, the operation
+         * @return Operation The method will return the operation
+         * @exception IllegalArgumentException If the name is unknown or the arguments are wrong
+         */
+        static Operation parse(String text) {
+            String[] parts = text.trim().split(":");
+            String name = parts[0];
+            try {
+                switch (name.toLowerCase(Locale.ROOT)) {
+                    case "sma":
+                        arguments(parts, 0, text);
+                        return new Operation(text, "SMA", null);
+                    case "smayear":
+                        arguments(parts, 1, text);
+                        return new Operation(text, "SMAYear", BatchQuery.smaYear(Integer.parseInt(parts[1])));
+                    case "smaofspecificperiod":
+                        arguments(parts, 2, text);
+                        return new Operation(text, "SMAOfSpecificPeriod", BatchQuery.smaOfSpecificPeriod(
+                                Integer.parseInt(parts[1]), Integer.parseInt(parts[2])));
+                    case "smaofdaterange":
+                        arguments(parts, 2, text);
+                        return new Operation(text, "SMAOfDateRange", BatchQuery.smaOfDateRange(
+                                LocalDate.parse(parts[1]), LocalDate.parse(parts[2])));
+                    case "ema":
+                    case "exponentialmovingaverage":
+                        arguments(parts, 4, text);
+                        return new Operation(text, "ExponentialMovingAverage", BatchQuery.exponentialMovingAverage(
+                                Integer.parseInt(parts[1]), Integer.parseInt(parts[2]),
+                                Integer.parseInt(parts[3]), Integer.parseInt(parts[4])));
+                    case "averagedividends":
+                        arguments(parts, 2, text);
+                        return new Operation(text, "averageDividends", BatchQuery.averageDividends(
+                                Integer.parseInt(parts[1]), Integer.parseInt(parts[2])));
+                    case "frequencyofdividendsdistribution":
+                        arguments(parts, 0, text);
+                        return new Operation(text, "frequencyOfDividendsDistribution", null);
+                    default:
+                        throw new IllegalArgumentException("Unknown operation: " + text);
+                }
+            } catch (NumberFormatException | DateTimeParseException e) {
+                throw new IllegalArgumentException("Wrong argument in " + text + ": " + e.getMessage());
+            }
+        }
+
+        boolean needsDividends() {
+            return query != null ? query.kind == BatchQuery.Kind.AVERAGE_DIVIDENDS :
+                    name.equals("frequencyOfDividendsDistribution");
+        }
+
+        private static void arguments(String[] parts, int count, String text) {
+            if (parts.length != count + 1) {
+                throw new IllegalArgumentException(text + " needs " + count + " arguments");
+            }
+        }
+    }
+
+
+    /**
+     * The Script class holds the files, the format and the operations of a run
+     */
+    static final class Script {
+        File prices = new File("AAPL.csv");
+        File dividends = new File("AAPL-Dividends.csv");
+        Path output;
+        Format format = Format.CSV;
+        final List<Operation> operations = new ArrayList<>();
+
+
+        /**
+         * This method aims to parse the arguments of Main and read the query file
+         * @param args This is the only parameter, the arguments
+         * @exception IllegalArgumentException If an argument or an operation is wrong
+         * @exception IOException If the query file can not be read
+         * @return Script The method will return the script
+         */
+        static Script parse(String[] args) throws IOException {
+            Script script = new Script();
+            for (int i = 0; i < args.length; i++) {
+                String arg = args[i];
+                if (!arg.startsWith("--")) {
+                    script.operations.add(Operation.parse(arg));
+                    continue;
+                }
+                if (i + 1 == args.length) throw new IllegalArgumentException(arg + " needs a value");
+                String value = args[++i];
+                switch (arg) {
+                    case "--prices":
+                        script.prices = new File(value);
+                        break;
+                    case "--dividends":
+                        script.dividends = new File(value);
+                        break;
+                    case "--output":
+                        script.output = Path.of(value);
+                        break;
+                    case "--format":
+                        script.format = Format.valueOf(value.toUpperCase(Locale.ROOT));
+                        break;
+                    case "--queries":
+                        for (String line : Files.readAllLines(Path.of(value), StandardCharsets.UTF_8)) {
+                            line = line.trim();
+                            if (!line.isEmpty() && !line.startsWith("#")) script.operations.add(Operation.parse(line));
+                        }
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Unknown option: " + arg);
+                }
+            }
+            if (script.operations.isEmpty()) throw new IllegalArgumentException("No operation was given");
+            return script;
+        }
+
+        boolean needsPrices() {
+            for (Operation operation : operations) {
+                if (!operation.needsDividends()) return true;
+            }
+            return false;
+        }
+
+        boolean needsDividends() {
+            for (Operation operation : operations) {
+                if (operation.needsDividends()) return true;
+            }
+            return false;
+        }
+    }
+}
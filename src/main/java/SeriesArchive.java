@@ -0,0 +1,245 @@
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.LongBuffer;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The SeriesArchive class keeps the stock series of many tickers off the heap: a
+ * directory per ticker holds a partition per year, YEAR.snap, in the format of
+ * SeriesSnapshot. A query maps the partitions of the years it asks for and reads the
+ * columns in place, so the heap holds a few buffers per partition whatever the size
+ * of the archive, and the other years are never opened.
+ *
+ * A mapped partition is kept until its ticker is written again. The averages are
+ * rounded like the ones of TradingOffice over the whole series, every partition of
+ * a ticker is written with the scale of the whole series
+ *
+ * @author  Hussain Aljassim, Ahmed Baabdullah, Omar Mashhrawi
+ * @version 1.0
+ */
+public final class SeriesArchive {
+
+    static final String EXTENSION = SeriesSnapshot.EXTENSION;
+
+    private final Path root;
+    private final Map<Path, SeriesSnapshot.Mapped> partitions = new ConcurrentHashMap<>();
+    private final LongAdder opened = new LongAdder();
+
+    SeriesArchive(Path root) {
+        this.root = root;
+    }
+
+
+    /**
+     * This method aims to write the series of a ticker as a partition per year,
+     * the partitions it had before are deleted
+     * @param ticker This is the first parameter, the name of the ticker
+     * @param series This is the second parameter, the series sorted by date
+     * @exception IOException On output error
+     * @exception IllegalArgumentException If the series is not sorted by date
+     */
+    void write(String ticker, PriceSeries series) throws IOException {
+        if (!series.dateIndex().isSorted()) throw new IllegalArgumentException("The series is not sorted by date");
+
+        Path directory = directoryOf(ticker);
+        Files.createDirectories(directory);
+        for (int year : years(ticker)) {
+            Path partition = partitionOf(ticker, year);
+            partitions.remove(partition);
+            Files.delete(partition);
+        }
+
+        int first = 0;
+        while (first < series.size) {
+            int year = EpochDays.year(series.epochDays[first]);
+            int end = series.dateIndex().firstOnOrAfter(EpochDays.yearStart(year + 1));
+            SeriesSnapshot.write(slice(series, first, end), partitionOf(ticker, year));
+            first = end;
+        }
+    }
+
+
+    /**
+     * This method aims to list the years of a ticker from the names of its partitions
+     * @param ticker This is the only parameter, the name of the ticker
+     * @exception IOException On input error
+     * @return int[] The method will return the years in order, none if the ticker is not in the archive
+     */
+    int[] years(String ticker) throws IOException {
+        List<Integer> years = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directoryOf(ticker), "*" + EXTENSION)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                years.add(Integer.parseInt(name.substring(0, name.length() - EXTENSION.length())));
+            }
+        } catch (NoSuchFileException e) {
+            return new int[0];
+        }
+        return years.stream().mapToInt(Integer::intValue).sorted().toArray();
+    }
+
+
+    /**
+     * This method aims to calculate the simple moving average of the close price of the
+     * years from and to and of the years between them, opening only their partitions
+     * @param ticker This is the first parameter, the name of the ticker
+     * @param from This is the second parameter, the first year in the period
+     * @param to This is the third parameter, the second year in the period
+     * @exception IOException If a partition can not be read
+     * @return Average The method will return the average, zero if none of the two years
+     * exist like TradingOffice.SMAOfSpecificPeriod, with the rows and bytes it read
+     */
+    Average averageClose(String ticker, int from, int to) throws IOException {
+        SeriesSnapshot.Mapped fromPartition = partition(ticker, from);
+        SeriesSnapshot.Mapped toPartition = from == to ? fromPartition : partition(ticker, to);
+        if (fromPartition == null && toPartition == null) return new Average(BigDecimal.ZERO, 0, 0);
+
+        int scale = (fromPartition != null ? fromPartition : toPartition).scale;
+        long sum = 0;
+        long rows = 0;
+        long bytes = 0;
+        boolean exact = true;
+        for (int year = from; year <= to; year++) {
+            SeriesSnapshot.Mapped partition = year == from ? fromPartition : year == to ? toPartition :
+                    partition(ticker, year);
+            if (partition == null) continue;
+
+            LongBuffer close = partition.close;
+            for (int i = 0; i < partition.rows; i++) {
+                long next = sum + close.get(i);
+                exact &= ((sum ^ next) & (close.get(i) ^ next)) >= 0;   // the sign did not flip
+                sum = next;
+            }
+            rows += partition.rows;
+            bytes += 8L * partition.rows;
+        }
+
+        if (rows == 0) return new Average(BigDecimal.ZERO, 0, bytes);
+        BigDecimal average = exact ? FixedPoint.meanHalfUp(sum, rows, scale) :
+                bigDecimalAverage(ticker, from, to, scale, rows);
+        return new Average(average, rows, bytes);
+    }
+
+
+    /**
+     * This method aims to read the rows of some years back into a series on the heap,
+     * for the indicators that need the columns as arrays
+     * @param ticker This is the first parameter, the name of the ticker
+     * @param from This is the second parameter, the first year
+     * @param to This is the third parameter, the last year
+     * @exception IOException If a partition can not be read
+     * @return PriceSeries The method will return the rows of the years in order
+     */
+    PriceSeries read(String ticker, int from, int to) throws IOException {
+        List<SeriesSnapshot.Mapped> mapped = new ArrayList<>();
+        int rows = 0;
+        int scale = 0;
+        for (int year = from; year <= to; year++) {
+            SeriesSnapshot.Mapped partition = partition(ticker, year);
+            if (partition == null) continue;
+            mapped.add(partition);
+            rows += partition.rows;
+            scale = partition.scale;
+        }
+
+        int[] epochDays = new int[rows];
+        long[][] columns = new long[6][rows];
+        int row = 0;
+        for (SeriesSnapshot.Mapped partition : mapped) {
+            partition.epochDays.get(0, epochDays, row, partition.rows);
+            LongBuffer[] source = {partition.open, partition.high, partition.low, partition.close,
+                    partition.adjClose, partition.volume};
+            for (int c = 0; c < columns.length; c++) {
+                source[c].get(0, columns[c], row, partition.rows);
+            }
+            row += partition.rows;
+        }
+        return new PriceSeries(epochDays, columns[0], columns[1], columns[2], columns[3], columns[4], columns[5],
+                rows, scale);
+    }
+
+
+    /**
+     * This method aims to count the partitions mapped since the archive was made,
+     * a partition mapped again after its ticker was written is counted again
+     * @return long The method will return the number of partitions mapped
+     */
+    long partitionsOpened() {
+        return opened.sum();
+    }
+
+
+    private SeriesSnapshot.Mapped partition(String ticker, int year) throws IOException {
+        Path path = partitionOf(ticker, year);
+        SeriesSnapshot.Mapped partition = partitions.get(path);
+        if (partition != null) return partition;
+        if (!Files.isRegularFile(path)) return null;
+
+        partition = SeriesSnapshot.mapPrices(path);
+        SeriesSnapshot.Mapped previous = partitions.putIfAbsent(path, partition);
+        if (previous != null) return previous;
+        opened.increment();
+        return partition;
+    }
+
+
+    private BigDecimal bigDecimalAverage(String ticker, int from, int to, int scale, long rows) throws IOException {
+        BigDecimal sum = BigDecimal.ZERO;
+        for (int year = from; year <= to; year++) {
+            SeriesSnapshot.Mapped partition = partition(ticker, year);
+            if (partition == null) continue;
+            for (int i = 0; i < partition.rows; i++) {
+                sum = sum.add(FixedPoint.toBigDecimal(partition.close.get(i)));
+            }
+        }
+        return sum.divide(BigDecimal.valueOf(rows), scale, RoundingMode.HALF_UP);
+    }
+
+
+    private Path directoryOf(String ticker) {
+        if (ticker.isEmpty() || ticker.contains("/") || ticker.contains("\\") || ticker.startsWith(".")) {
+            throw new IllegalArgumentException("Not a ticker: " + ticker);
+        }
+        return root.resolve(ticker);
+    }
+
+
+    private Path partitionOf(String ticker, int year) {
+        return directoryOf(ticker).resolve(year + EXTENSION);
+    }
+
+
+    private static PriceSeries slice(PriceSeries series, int from, int to) {
+        return new PriceSeries(Arrays.copyOfRange(series.epochDays, from, to),
+                Arrays.copyOfRange(series.open, from, to), Arrays.copyOfRange(series.high, from, to),
+                Arrays.copyOfRange(series.low, from, to), Arrays.copyOfRange(series.close, from, to),
+                Arrays.copyOfRange(series.adjClose, from, to), Arrays.copyOfRange(series.volume, from, to),
+                to - from, series.closeScale);
+    }
+
+
+    /**
+     * The Average class holds an average read from the archive with what it cost
+     */
+    static final class Average {
+        final BigDecimal value;
+        final long rows;
+        final long bytes;
+
+        Average(BigDecimal value, long rows, long bytes) {
+            this.value = value;
+            this.rows = rows;
+            this.bytes = bytes;
+        }
+    }
+}
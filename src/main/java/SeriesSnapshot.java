@@ -0,0 +1,396 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * The SeriesSnapshot class saves a series as a binary file that is mapped back
+ * into the columns without parsing any row. The file is a 64 byte header followed
+ * by the date column and the other columns as little-endian primitives:
+ *
+ * <pre>
+ * int magic, int version, int kind, int scale, long rows,
+ * long size of the csv file, long last modified time of the csv file, padding to 64 bytes
+ * int[rows] epoch days, padding to 8 bytes
+ * long[rows] open, high, low, close, adj close, volume     (stock files)
+ * long[rows] dividends                                     (dividends files)
+ * </pre>
+ *
+ * A snapshot is stale when the csv file it was made from changed, then the csv file
+ * is read again and the snapshot rewritten
+ *
+ * @author  Hussain Aljassim, Ahmed Baabdullah, Omar Mashhrawi
+ * @version 1.0
+ */
+public final class SeriesSnapshot {
+
+    static final int MAGIC = 0x31534F54;    // "TOS1" in little-endian
+    static final int VERSION = 1;
+    static final int PRICES = 1;
+    static final int DIVIDENDS = 2;
+
+    /** The extension added to the csv file name to get the snapshot file name */
+    static final String EXTENSION = ".snap";
+
+    private static final int HEADER_BYTES = 64;
+    private static final int BUFFER_BYTES = 1 << 20;
+
+    private SeriesSnapshot() {
+    }
+
+
+    /**
+     * This method aims to load a stock csv file through its snapshot, the snapshot is
+     * used when it is fresh and written when it is missing or stale
+     * @param csv This is the first parameter, the path of the csv file
+     * @param snapshot This is the second parameter, the path of the snapshot
+     * @exception IOException If the csv file can not be read
+     * @return PriceSeries The method will return the rows of the file as columns
+     */
+    static PriceSeries loadPrices(Path csv, Path snapshot) throws IOException {
+        Header source = Header.ofSource(csv, PRICES);
+        if (source.matches(snapshot)) return readPrices(snapshot);
+
+        PriceSeries series = CsvSeriesReader.readPrices(csv);
+        try {
+            write(series, snapshot, source);
+        } catch (IOException e) {
+            // the snapshot only saves time on the next start, the series is still good
+        }
+        return series;
+    }
+
+
+    /**
+     * This method aims to load a dividends csv file through its snapshot, the snapshot
+     * is used when it is fresh and written when it is missing or stale
+     * @param csv This is the first parameter, the path of the csv file
+     * @param snapshot This is the second parameter, the path of the snapshot
+     * @exception IOException If the csv file can not be read
+     * @return DividendSeries The method will return the rows of the file as columns
+     */
+    static DividendSeries loadDividends(Path csv, Path snapshot) throws IOException {
+        Header source = Header.ofSource(csv, DIVIDENDS);
+        if (source.matches(snapshot)) return readDividends(snapshot);
+
+        DividendSeries series = CsvSeriesReader.readDividends(csv);
+        try {
+            write(series, snapshot, source);
+        } catch (IOException e) {
+            // the snapshot only saves time on the next start, the series is still good
+        }
+        return series;
+    }
+
+
+    /**
+     * This method aims to write the snapshot of a stock series made from a csv file
+     * @param series This is the first parameter, the series
+     * @param snapshot This is the second parameter, the path of the snapshot
+     * @param csv This is the third parameter, the csv file the series was read from
+     * @exception IOException On output error
+     */
+    static void write(PriceSeries series, Path snapshot, Path csv) throws IOException {
+        write(series, snapshot, Header.ofSource(csv, PRICES));
+    }
+
+
+    /**
+     * This method aims to write the snapshot of a dividends series made from a csv file
+     * @param series This is the first parameter, the series
+     * @param snapshot This is the second parameter, the path of the snapshot
+     * @param csv This is the third parameter, the csv file the series was read from
+     * @exception IOException On output error
+     */
+    static void write(DividendSeries series, Path snapshot, Path csv) throws IOException {
+        write(series, snapshot, Header.ofSource(csv, DIVIDENDS));
+    }
+
+
+    /**
+     * This method aims to write the snapshot of a stock series that was not read from
+     * a csv file, such as a partition of a SeriesArchive
+     * @param series This is the first parameter, the series
+     * @param snapshot This is the second parameter, the path of the snapshot
+     * @exception IOException On output error
+     */
+    static void write(PriceSeries series, Path snapshot) throws IOException {
+        write(series, snapshot, new Header(PRICES, 0, 0, 0L, 0L));
+    }
+
+
+    /**
+     * This method aims to map the columns of a stock snapshot without copying them,
+     * the columns stay in the page cache and take no room on the heap
+     * @param snapshot This is the only parameter, the path of the snapshot
+     * @exception IOException If the file is not a stock snapshot of this version
+     * @return Mapped The method will return the mapped columns
+     */
+    static Mapped mapPrices(Path snapshot) throws IOException {
+        try (FileChannel channel = FileChannel.open(snapshot, StandardOpenOption.READ)) {
+            Header header = Header.read(channel, PRICES);
+            // the mapping stays valid once the channel is closed
+            return new Mapped(map(channel, 0, channel.size()), header.rows, header.scale);
+        }
+    }
+
+
+    /**
+     * This method aims to read a stock snapshot back into columns
+     * @param snapshot This is the only parameter, the path of the snapshot
+     * @exception IOException If the file is not a stock snapshot of this version
+     * @return PriceSeries The method will return the columns
+     */
+    static PriceSeries readPrices(Path snapshot) throws IOException {
+        try (FileChannel channel = FileChannel.open(snapshot, StandardOpenOption.READ)) {
+            Header header = Header.read(channel, PRICES);
+            int rows = header.rows;
+
+            int[] epochDays = new int[rows];
+            long[][] columns = new long[6][rows];
+            long position = HEADER_BYTES;
+            map(channel, position, 4L * rows).asIntBuffer().get(epochDays);
+            position += align(4L * rows);
+            for (long[] column : columns) {
+                map(channel, position, 8L * rows).asLongBuffer().get(column);
+                position += 8L * rows;
+            }
+
+            return new PriceSeries(epochDays, columns[0], columns[1], columns[2], columns[3],
+                    columns[4], columns[5], rows, header.scale);
+        }
+    }
+
+
+    /**
+     * This method aims to read a dividends snapshot back into columns
+     * @param snapshot This is the only parameter, the path of the snapshot
+     * @exception IOException If the file is not a dividends snapshot of this version
+     * @return DividendSeries The method will return the columns
+     */
+    static DividendSeries readDividends(Path snapshot) throws IOException {
+        try (FileChannel channel = FileChannel.open(snapshot, StandardOpenOption.READ)) {
+            Header header = Header.read(channel, DIVIDENDS);
+            int rows = header.rows;
+
+            int[] epochDays = new int[rows];
+            long[] amounts = new long[rows];
+            map(channel, HEADER_BYTES, 4L * rows).asIntBuffer().get(epochDays);
+            map(channel, HEADER_BYTES + align(4L * rows), 8L * rows).asLongBuffer().get(amounts);
+
+            return new DividendSeries(epochDays, amounts, rows, header.scale);
+        }
+    }
+
+
+    private static void write(PriceSeries series, Path snapshot, Header source) throws IOException {
+        Header header = new Header(PRICES, series.closeScale, series.size(), source.sourceSize, source.sourceModified);
+        try (Writer writer = new Writer(snapshot, header)) {
+            writer.putInts(series.epochDays, series.size());
+            writer.putLongs(series.open, series.size());
+            writer.putLongs(series.high, series.size());
+            writer.putLongs(series.low, series.size());
+            writer.putLongs(series.close, series.size());
+            writer.putLongs(series.adjClose, series.size());
+            writer.putLongs(series.volume, series.size());
+            writer.commit();
+        }
+    }
+
+
+    private static void write(DividendSeries series, Path snapshot, Header source) throws IOException {
+        Header header = new Header(DIVIDENDS, series.amountScale, series.size(), source.sourceSize, source.sourceModified);
+        try (Writer writer = new Writer(snapshot, header)) {
+            writer.putInts(series.epochDays, series.size());
+            writer.putLongs(series.amounts, series.size());
+            writer.commit();
+        }
+    }
+
+
+    private static MappedByteBuffer map(FileChannel channel, long position, long length) throws IOException {
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        return buffer;
+    }
+
+
+    private static long align(long bytes) {
+        return (bytes + 7) & ~7L;
+    }
+
+
+    private static long expectedSize(int kind, long rows) {
+        return HEADER_BYTES + align(4 * rows) + (kind == PRICES ? 6 : 1) * 8 * rows;
+    }
+
+
+    /**
+     * The Mapped class is a stock snapshot mapped into memory, its columns are read
+     * in place through buffers
+     */
+    static final class Mapped {
+        final int rows;
+        final int scale;
+        final long bytes;
+        final IntBuffer epochDays;
+        final LongBuffer open;
+        final LongBuffer high;
+        final LongBuffer low;
+        final LongBuffer close;
+        final LongBuffer adjClose;
+        final LongBuffer volume;
+
+        private Mapped(MappedByteBuffer file, int rows, int scale) {
+            this.rows = rows;
+            this.scale = scale;
+            this.bytes = file.capacity();
+            epochDays = file.slice(HEADER_BYTES, 4 * rows).order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+            int position = HEADER_BYTES + (int) align(4L * rows);
+            LongBuffer[] columns = new LongBuffer[6];
+            for (int c = 0; c < columns.length; c++) {
+                columns[c] = file.slice(position, 8 * rows).order(ByteOrder.LITTLE_ENDIAN).asLongBuffer();
+                position += 8 * rows;
+            }
+            open = columns[0];
+            high = columns[1];
+            low = columns[2];
+            close = columns[3];
+            adjClose = columns[4];
+            volume = columns[5];
+        }
+    }
+
+
+    /**
+     * The Header class holds the first 64 bytes of a snapshot
+     */
+    private static final class Header {
+        final int kind;
+        final int scale;
+        final int rows;
+        final long sourceSize;
+        final long sourceModified;
+
+        Header(int kind, int scale, int rows, long sourceSize, long sourceModified) {
+            this.kind = kind;
+            this.scale = scale;
+            this.rows = rows;
+            this.sourceSize = sourceSize;
+            this.sourceModified = sourceModified;
+        }
+
+        static Header ofSource(Path csv, int kind) throws IOException {
+            return new Header(kind, 0, 0, Files.size(csv), Files.getLastModifiedTime(csv).toMillis());
+        }
+
+        static Header read(FileChannel channel, int kind) throws IOException {
+            ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                // read the whole header
+            }
+            buffer.flip();
+
+            if (buffer.remaining() < HEADER_BYTES || buffer.getInt() != MAGIC) {
+                throw new IOException("Not a snapshot file");
+            }
+            int version = buffer.getInt();
+            if (version != VERSION) throw new IOException("Snapshot version " + version + " is not " + VERSION);
+            int fileKind = buffer.getInt();
+            if (fileKind != kind) throw new IOException("Snapshot of kind " + fileKind + " is not " + kind);
+
+            int scale = buffer.getInt();
+            long rows = buffer.getLong();
+            if (rows < 0 || rows > Integer.MAX_VALUE - 8 || channel.size() != expectedSize(kind, rows)) {
+                throw new IOException("Snapshot is truncated");
+            }
+            return new Header(kind, scale, (int) rows, buffer.getLong(), buffer.getLong());
+        }
+
+        /** Tells whether a snapshot was made from the same csv file as this header */
+        boolean matches(Path snapshot) {
+            if (!Files.isRegularFile(snapshot)) return false;
+
+            try (FileChannel channel = FileChannel.open(snapshot, StandardOpenOption.READ)) {
+                Header header = read(channel, kind);
+                return header.sourceSize == sourceSize && header.sourceModified == sourceModified;
+            } catch (IOException e) {
+                return false;   // a broken or older snapshot is made again
+            }
+        }
+
+        void write(ByteBuffer buffer) {
+            buffer.putInt(MAGIC).putInt(VERSION).putInt(kind).putInt(scale)
+                    .putLong(rows).putLong(sourceSize).putLong(sourceModified);
+            while (buffer.position() < HEADER_BYTES) buffer.put((byte) 0);
+        }
+    }
+
+
+    /**
+     * The Writer class writes a snapshot into a temporary file through one buffer,
+     * then moves it over the snapshot, so a reader never sees half a snapshot
+     */
+    private static final class Writer implements AutoCloseable {
+        private final Path snapshot;
+        private final Path temporary;
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        private boolean committed;
+
+        Writer(Path snapshot, Header header) throws IOException {
+            Path directory = snapshot.toAbsolutePath().getParent();
+            this.snapshot = snapshot;
+            this.temporary = Files.createTempFile(directory, snapshot.getFileName().toString(), ".tmp");
+            this.channel = FileChannel.open(temporary, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+            header.write(buffer);
+        }
+
+        void putInts(int[] column, int rows) throws IOException {
+            for (int i = 0; i < rows; i++) {
+                if (buffer.remaining() < 4) flush();
+                buffer.putInt(column[i]);
+            }
+            if ((4L * rows) % 8 != 0) {
+                if (buffer.remaining() < 4) flush();
+                buffer.putInt(0);
+            }
+        }
+
+        void putLongs(long[] column, int rows) throws IOException {
+            for (int i = 0; i < rows; i++) {
+                if (buffer.remaining() < 8) flush();
+                buffer.putLong(column[i]);
+            }
+        }
+
+        void commit() throws IOException {
+            flush();
+            channel.force(false);
+            channel.close();
+            Files.move(temporary, snapshot, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            committed = true;
+        }
+
+        private void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) channel.write(buffer);
+            buffer.clear();
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (!committed) {
+                channel.close();
+                Files.deleteIfExists(temporary);
+            }
+        }
+    }
+}
@@ -0,0 +1,197 @@
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * The SeriesStore class shares one stock series between many reader threads while a
+ * feed appends new bars to it. A bar is written into the columns after the last
+ * published row, then a new PriceSeries covering it is published through a volatile
+ * field, so a reader takes snapshot() without a lock and gets a series that never
+ * changes under it. The columns grow by copying into larger arrays, the arrays of an
+ * older snapshot are never written below its size.
+ *
+ * The date index, the running totals of the close price and the trading calendar are
+ * kept up to date with every append, so a snapshot answers SMA, EMA and getIndex
+ * without rebuilding them.
+ * Appends are serialized with each other, which costs nothing with one feed thread,
+ * and never block the readers
+ *
+ * @author  Hussain Aljassim, Ahmed Baabdullah, Omar Mashhrawi
+ * @version 1.0
+ */
+public final class SeriesStore {
+
+    private static final int MIN_CAPACITY = 16;
+
+    // only written by the appending thread while holding the lock of the store
+    private int[] epochDays;
+    private long[] open;
+    private long[] high;
+    private long[] low;
+    private long[] close;
+    private long[] adjClose;
+    private long[] volume;
+    private long[] closeTotals;     // closeTotals[i] is the sum of the first i closes
+    private long overflow;          // negative once a total overflowed
+    private int[] sessions = new int[MIN_CAPACITY];     // the table of the TradingCalendar
+    private int sessionDays;        // the entries of sessions written so far
+    private int closeScale;
+
+    private volatile PriceSeries snapshot;
+
+    private SeriesStore(PriceSeries series, int capacity) {
+        int size = series.size();
+        epochDays = Arrays.copyOf(series.epochDays, capacity);
+        open = Arrays.copyOf(series.open, capacity);
+        high = Arrays.copyOf(series.high, capacity);
+        low = Arrays.copyOf(series.low, capacity);
+        close = Arrays.copyOf(series.close, capacity);
+        adjClose = Arrays.copyOf(series.adjClose, capacity);
+        volume = Arrays.copyOf(series.volume, capacity);
+        closeTotals = new long[capacity + 1];
+        closeScale = series.closeScale;
+
+        for (int i = 0; i < size; i++) {
+            if (i > 0 && epochDays[i] <= epochDays[i - 1]) {
+                throw new IllegalArgumentException("The dates of the series are not increasing at row " + i);
+            }
+            addTotal(i);
+            addSession(i);
+        }
+        publish(size);
+    }
+
+
+    /**
+     * This method aims to start a store from the rows of a series, the rows are copied
+     * @param series This is the only parameter, a series with increasing dates
+     * @return SeriesStore The method will return the store
+     * @exception IllegalArgumentException If two rows have the same date or go back in time
+     */
+    static SeriesStore of(PriceSeries series) {
+        return new SeriesStore(series, Math.max(MIN_CAPACITY, series.size() + series.size() / 2));
+    }
+
+
+    /**
+     * This method aims to start an empty store
+     * @return SeriesStore The method will return the store
+     */
+    static SeriesStore empty() {
+        return of(new PriceSeries.Builder(0).build());
+    }
+
+
+    /**
+     * This method aims to get the rows published so far, without taking a lock. The
+     * series does not change when bars are appended after the call
+     * @return PriceSeries The method will return the latest snapshot
+     */
+    PriceSeries snapshot() {
+        return snapshot;
+    }
+
+
+    /**
+     * This method aims to get the number of rows published so far, which grows by
+     * one with every append, so a reader can tell whether its snapshot is the latest
+     * @return long The method will return the sequence number of the latest snapshot
+     */
+    long sequence() {
+        return snapshot.size();
+    }
+
+
+    /**
+     * This method aims to append the next bar and publish it to the readers. The
+     * averages are rounded at the decimals the close prices need, like the ones of
+     * the same prices read from a csv file
+     * @param epochDay This is the first parameter, the date of the bar, after the last one
+     * @param open This is the second parameter, the open price in micros
+     * @param high This is the third parameter, the high price in micros
+     * @param low This is the forth parameter, the low price in micros
+     * @param close This is the fifth parameter, the close price in micros
+     * @param adjClose This is the sixth parameter, the adjusted close price in micros
+     * @param volume This is the seventh parameter, the volume
+     * @return PriceSeries The method will return the snapshot with the new bar
+     * @exception IllegalArgumentException If the bar is not after the last bar
+     */
+    synchronized PriceSeries append(int epochDay, long open, long high, long low, long close,
+                                    long adjClose, long volume) {
+        return appendBar(epochDay, open, high, low, close, adjClose, volume, FixedPoint.scaleOfMicros(close));
+    }
+
+
+    /**
+     * This method aims to append a row written like the rows of getDataFromCSV
+     * @param row This is the only parameter, the row as Date,Open,High,Low,Close,Adj Close,Volume
+     * @return PriceSeries The method will return the snapshot with the new bar
+     * @exception NumberFormatException If a price is not a number
+     * @exception IllegalArgumentException If the bar is not after the last bar
+     */
+    synchronized PriceSeries append(String[] row) {
+        return appendBar(EpochDays.parse(row[0]), FixedPoint.parseMicros(row[1]),
+                FixedPoint.parseMicros(row[2]), FixedPoint.parseMicros(row[3]), FixedPoint.parseMicros(row[4]),
+                FixedPoint.parseMicros(row[5]), Long.parseLong(row[6]), FixedPoint.scaleOf(row[4]));
+    }
+
+
+    private PriceSeries appendBar(int epochDay, long open, long high, long low, long close,
+                                  long adjClose, long volume, int scale) {
+        int size = snapshot.size();
+        if (size > 0 && epochDay <= epochDays[size - 1]) {
+            throw new IllegalArgumentException("The bar of " + LocalDate.ofEpochDay(epochDay) +
+                    " is not after the last bar");
+        }
+        if (size == epochDays.length) grow();
+
+        epochDays[size] = epochDay;
+        this.open[size] = open;
+        this.high[size] = high;
+        this.low[size] = low;
+        this.close[size] = close;
+        this.adjClose[size] = adjClose;
+        this.volume[size] = volume;
+        closeScale = Math.max(closeScale, scale);
+        addTotal(size);
+        addSession(size);
+        return publish(size + 1);
+    }
+
+
+    private void addTotal(int row) {
+        long total = closeTotals[row];
+        long next = total + close[row];
+        overflow |= (total ^ next) & (close[row] ^ next);
+        closeTotals[row + 1] = next;
+    }
+
+
+    /** The days after the previous bar up to this one resolve to this row, the older entries stay as they are */
+    private void addSession(int row) {
+        int offset = Math.toIntExact((long) epochDays[row] - epochDays[0]);
+        if (offset >= sessions.length) sessions = Arrays.copyOf(sessions, Math.max(offset + 1, sessions.length * 2));
+        while (sessionDays <= offset) sessions[sessionDays++] = row;
+    }
+
+
+    private PriceSeries publish(int size) {
+        PriceSeries series = new PriceSeries(epochDays, open, high, low, close, adjClose, volume, size, closeScale,
+                DateIndex.ofSorted(epochDays, size), PrefixSums.over(closeTotals, close, size, overflow >= 0),
+                TradingCalendar.over(epochDays, size, sessions, sessionDays));
+        snapshot = series;
+        return series;
+    }
+
+
+    private void grow() {
+        int capacity = epochDays.length + Math.max(MIN_CAPACITY, epochDays.length / 2);
+        epochDays = Arrays.copyOf(epochDays, capacity);
+        open = Arrays.copyOf(open, capacity);
+        high = Arrays.copyOf(high, capacity);
+        low = Arrays.copyOf(low, capacity);
+        close = Arrays.copyOf(close, capacity);
+        adjClose = Arrays.copyOf(adjClose, capacity);
+        volume = Arrays.copyOf(volume, capacity);
+        closeTotals = Arrays.copyOf(closeTotals, capacity + 1);
+    }
+}
@@ -0,0 +1,117 @@
+import java.time.LocalDate;
+
+/**
+ * The TotalReturn class joins the stock file with the dividends file: for every day
+ * of the stock file it holds the dividends paid in the trailing twelve months, their
+ * yield on the close price, and a total return index where every dividend is
+ * reinvested at the close of its day. Both files are sorted by date, so they are
+ * merged in one pass over the two date columns without looking any day up.
+ *
+ * The index uses the Close column, which is adjusted for splits but not for
+ * dividends, and is 1 on the first day: index[i] = index[i-1] x (close[i] + the
+ * dividends after day i-1 up to day i) / close[i-1]. A dividend dated on a day the
+ * market was closed is reinvested on the next trading day
+ *
+ * @author  Hussain Aljassim, Ahmed Baabdullah, Omar Mashhrawi
+ * @version 1.0
+ */
+public final class TotalReturn {
+
+    // a dividend is in the trailing twelve months of a day for the 365 days up to it
+    static final int TRAILING_DAYS = 365;
+
+    final int[] epochDays;      // the date column of the stock file, shared with it
+    final double[] index;
+    final long[] trailingDividends;     // in micros
+    final double[] trailingYield;       // NaN on a day the close is zero
+    final int size;
+    private final DateIndex dateIndex;
+
+    private TotalReturn(PriceSeries prices) {
+        epochDays = prices.epochDays;
+        size = prices.size;
+        dateIndex = prices.dateIndex();
+        index = new double[size];
+        trailingDividends = new long[size];
+        trailingYield = new double[size];
+    }
+
+
+    /**
+     * This method aims to merge a stock series with its dividends
+     * @param prices This is the first parameter, the stock series sorted by date
+     * @param dividends This is the second parameter, the dividends series sorted by date
+     * @return TotalReturn The method will return a total return and a yield per day of the stock series
+     * @exception IllegalArgumentException If one of the series is not sorted by date
+     */
+    static TotalReturn of(PriceSeries prices, DividendSeries dividends) {
+        if (!prices.dateIndex().isSorted() || !dividends.dateIndex().isSorted()) {
+            throw new IllegalArgumentException("The stock and dividends files must be sorted by date");
+        }
+
+        TotalReturn result = new TotalReturn(prices);
+        int[] days = prices.epochDays;
+        long[] close = prices.close;
+        int[] dividendDays = dividends.epochDays;
+        long[] amounts = dividends.amounts;
+        int dividendCount = dividends.size;
+
+        int paid = 0;       // the dividends dated up to the day
+        int expired = 0;    // the dividends dated before the trailing twelve months of the day
+        long trailing = 0;
+        double value = 1.0;
+
+        for (int i = 0; i < result.size; i++) {
+            int day = days[i];
+            long reinvested = 0;
+            while (paid < dividendCount && dividendDays[paid] <= day) {
+                trailing += amounts[paid];
+                reinvested += amounts[paid];    // dated after the previous day, or before the first day
+                paid++;
+            }
+            while (expired < paid && dividendDays[expired] <= day - TRAILING_DAYS) {
+                trailing -= amounts[expired];
+                expired++;
+            }
+
+            if (i > 0) value *= (double) (close[i] + reinvested) / close[i - 1];
+            result.index[i] = value;
+            result.trailingDividends[i] = trailing;
+            result.trailingYield[i] = close[i] != 0 ? (double) trailing / close[i] : Double.NaN;
+        }
+        return result;
+    }
+
+
+    /**
+     * This method aims to get the total return between two rows with the dividends reinvested
+     * @param from This is the first parameter, the row bought at its close
+     * @param to This is the second parameter, the row sold at its close
+     * @return double The method will return the return as a fraction, 0.1 for 10%
+     */
+    double totalReturn(int from, int to) {
+        return index[to] / index[from] - 1.0;
+    }
+
+
+    /**
+     * This method aims to get the total return between two dates with the dividends reinvested
+     * @param from This is the first parameter, bought at the close of the first day on or after it
+     * @param to This is the second parameter, sold at the close of the last day on or before it
+     * @return double The method will return the return as a fraction, or NaN if no day is between them
+     */
+    double totalReturn(LocalDate from, LocalDate to) {
+        int first = dateIndex.firstOnOrAfter((int) from.toEpochDay());
+        int last = dateIndex.endOfRange((int) to.toEpochDay()) - 1;
+        return first <= last ? totalReturn(first, last) : Double.NaN;
+    }
+
+
+    /**
+     * This method aims to get the number of days, the same as the stock series
+     * @return int The method will return the number of days
+     */
+    int size() {
+        return size;
+    }
+}
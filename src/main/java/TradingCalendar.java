@@ -0,0 +1,168 @@
+import java.util.Objects;
+
+/**
+ * The TradingCalendar class turns calendar dates into trading sessions, the rows of
+ * a stock series. It holds a table with an entry per calendar day from the first
+ * session to the last one, so a date that fell on a weekend or a holiday is moved to
+ * a session with one array read instead of a binary search over the date column.
+ * The table of a series of forty years is about 15,000 ints.
+ *
+ * The calendar is built from the date column of a sorted series, a date given more
+ * than once stands for the first of its rows
+ *
+ * @author  Hussain Aljassim, Ahmed Baabdullah, Omar Mashhrawi
+ * @version 1.0
+ */
+public final class TradingCalendar {
+
+    private final int[] epochDays;
+    private final int size;
+    private final int firstDay;
+    // the first session on or after firstDay + i, for every calendar day i up to the last session
+    private final int[] sessionOnOrAfter;
+    private final int days;
+
+    private TradingCalendar(int[] epochDays, int size, int[] sessionOnOrAfter, int days) {
+        this.epochDays = epochDays;
+        this.size = size;
+        this.firstDay = size > 0 ? epochDays[0] : 0;
+        this.sessionOnOrAfter = sessionOnOrAfter;
+        this.days = days;
+    }
+
+
+    /**
+     * This method aims to build the calendar of a date column in one pass over it
+     * @param epochDays This is the first parameter, the date column sorted by date
+     * @param size This is the second parameter, the number of rows in the column
+     * @return TradingCalendar The method will return the calendar of the column
+     * @exception IllegalStateException If the column is not sorted
+     */
+    static TradingCalendar of(int[] epochDays, int size) {
+        if (size == 0) return new TradingCalendar(epochDays, 0, new int[0], 0);
+
+        long days = (long) epochDays[size - 1] - epochDays[0] + 1;
+        if (days > Integer.MAX_VALUE - 8) throw new IllegalArgumentException("The dates span " + days + " days");
+
+        int[] table = new int[(int) days];
+        int day = 0;
+        for (int row = 0; row < size; row++) {
+            int offset = epochDays[row] - epochDays[0];
+            if (row > 0 && epochDays[row] < epochDays[row - 1]) throw new IllegalStateException("The dates are not sorted");
+            // the days after the previous session up to this one, and this one, resolve to this row
+            while (day <= offset) table[day++] = row;
+        }
+        return new TradingCalendar(epochDays, size, table, table.length);
+    }
+
+
+    /**
+     * This method aims to wrap a table that is kept up to date by the caller, such as
+     * the one of a SeriesStore, without building it again
+     * @param epochDays This is the first parameter, the date column sorted by date
+     * @param size This is the second parameter, the number of rows in the column
+     * @param sessionOnOrAfter This is the third parameter, the first row on or after every
+     * calendar day from the first row, the entries below days are never written again
+     * @param days This is the forth parameter, the calendar days from the first row to the row size - 1
+     * @return TradingCalendar The method will return the calendar of the column
+     */
+    static TradingCalendar over(int[] epochDays, int size, int[] sessionOnOrAfter, int days) {
+        return new TradingCalendar(epochDays, size, sessionOnOrAfter, days);
+    }
+
+
+    /**
+     * This method aims to find the first session on or after a date
+     * @param epochDay This is the only parameter, the date as an epoch day
+     * @return int The method will return the row of the session, or the number of sessions
+     * if the date is after the last one
+     */
+    int sessionOnOrAfter(int epochDay) {
+        long offset = (long) epochDay - firstDay;
+        if (offset <= 0) return 0;
+        if (offset >= days) return size;
+        return sessionOnOrAfter[(int) offset];
+    }
+
+
+    /**
+     * This method aims to find the last session on or before a date
+     * @param epochDay This is the only parameter, the date as an epoch day
+     * @return int The method will return the row of the session, or -1 if the date is before the first one
+     */
+    int sessionOnOrBefore(int epochDay) {
+        int row = sessionOnOrAfter(epochDay);
+        return row < size && epochDays[row] == epochDay ? row : row - 1;
+    }
+
+
+    /**
+     * This method aims to find the session closest to a date, a date as far from the
+     * session before it as from the one after it goes to the one after it
+     * @param epochDay This is the only parameter, the date as an epoch day
+     * @return int The method will return the row of the session, or -1 if there is no session
+     */
+    int nearestSession(int epochDay) {
+        int after = sessionOnOrAfter(epochDay);
+        int before = sessionOnOrBefore(epochDay);
+        if (after == size) return before;
+        if (before < 0 || before == after) return after;
+        return epochDay - epochDays[before] < epochDays[after] - epochDay ? before : after;
+    }
+
+
+    /**
+     * This method aims to tell whether the market was open on a date
+     * @param epochDay This is the only parameter, the date as an epoch day
+     * @return boolean The method will return true if a session is on the date
+     */
+    boolean isSession(int epochDay) {
+        int row = sessionOnOrAfter(epochDay);
+        return row < size && epochDays[row] == epochDay;
+    }
+
+
+    /**
+     * This method aims to count the sessions between two dates
+     * @param fromEpochDay This is the first parameter, the first date counted
+     * @param toEpochDay This is the second parameter, the first date not counted
+     * @return int The method will return the number of sessions in [from, to), negative if to is before from
+     */
+    int tradingDaysBetween(int fromEpochDay, int toEpochDay) {
+        return sessionOnOrAfter(toEpochDay) - sessionOnOrAfter(fromEpochDay);
+    }
+
+
+    /**
+     * This method aims to move a date by a number of sessions, starting from the
+     * first session on or after it
+     * @param epochDay This is the first parameter, the date as an epoch day
+     * @param sessions This is the second parameter, the number of sessions to move, negative to go back
+     * @return int The method will return the date of the session as an epoch day
+     * @exception IndexOutOfBoundsException If the session is before the first one or after the last one
+     */
+    int plusTradingDays(int epochDay, int sessions) {
+        long row = (long) sessionOnOrAfter(epochDay) + sessions;
+        return epochDayOf((int) Objects.checkIndex(row, (long) size));
+    }
+
+
+    /**
+     * This method aims to get the date of a session
+     * @param session This is the only parameter, the row of the session
+     * @return int The method will return the date as an epoch day
+     * @exception IndexOutOfBoundsException If there is no such session
+     */
+    int epochDayOf(int session) {
+        return epochDays[Objects.checkIndex(session, size)];
+    }
+
+
+    /**
+     * This method aims to get the number of sessions in the calendar
+     * @return int The method will return the number of sessions
+     */
+    int size() {
+        return size;
+    }
+}
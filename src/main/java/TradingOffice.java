@@ -4,10 +4,13 @@ import java.io.FileReader;
 import java.io.IOException;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.nio.file.Path;
 import java.time.LocalDate;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Supplier;
 
 /**
  * The TradingOffice class should implement all the functionalities in
@@ -18,6 +21,49 @@ import java.util.Collections;
  */
 public class TradingOffice {
 
+    private static final Metrics.Operation AVERAGE_DIVIDENDS = Metrics.operation("averageDividends");
+    private static final Metrics.Operation FREQUENCY_OF_DIVIDENDS = Metrics.operation("frequencyOfDividendsDistribution");
+    private static final Metrics.Operation DIVIDEND_CADENCE = Metrics.operation("dividendCadence");
+    private static final Metrics.Operation SMA = Metrics.operation("SMA");
+    private static final Metrics.Operation SMA_OF_SPECIFIC_PERIOD = Metrics.operation("SMAOfSpecificPeriod");
+    private static final Metrics.Operation SMA_OF_DATE_RANGE = Metrics.operation("SMAOfDateRange");
+    private static final Metrics.Operation SMA_YEAR = Metrics.operation("SMAYear");
+    private static final Metrics.Operation EXPONENTIAL_MOVING_AVERAGE = Metrics.operation("ExponentialMovingAverage");
+    private static final Metrics.Operation ROLLING_SMA = Metrics.operation("rollingSMA");
+    private static final Metrics.Operation ROLLING_EMA = Metrics.operation("rollingEMA");
+    private static final Metrics.Operation FUSED_INDICATORS = Metrics.operation("fusedIndicators");
+    private static final Metrics.Operation PRICE_RANGE = Metrics.operation("priceRange");
+    private static final Metrics.Operation RESAMPLE = Metrics.operation("resample");
+    private static final Metrics.Operation TOTAL_RETURN = Metrics.operation("totalReturn");
+    private static final Metrics.Operation ARCHIVE_SMA_OF_SPECIFIC_PERIOD = Metrics.operation("archive.SMAOfSpecificPeriod");
+    private static final Metrics.Operation ARCHIVE_SMA_YEAR = Metrics.operation("archive.SMAYear");
+    private static final Metrics.Operation BATCH = Metrics.operation("batch");
+    private static final Metrics.Operation GET_DATA_FROM_CSV = Metrics.operation("getDataFromCSV");
+    private static final Metrics.Operation GET_PRICE_SERIES_FROM_CSV = Metrics.operation("getPriceSeriesFromCSV");
+    private static final Metrics.Operation GET_DIVIDEND_SERIES_FROM_CSV = Metrics.operation("getDividendSeriesFromCSV");
+    private static final Metrics.Operation GET_PRICE_SERIES_FROM_SNAPSHOT = Metrics.operation("getPriceSeriesFromSnapshot");
+    private static final Metrics.Operation GET_DIVIDEND_SERIES_FROM_SNAPSHOT = Metrics.operation("getDividendSeriesFromSnapshot");
+    private static final Metrics.Operation YEARS_EXIST = Metrics.operation("yearsExist");
+    private static final Metrics.Operation GET_INDEX = Metrics.operation("getIndex");
+
+    /**
+     * The Arithmetic enum chooses how the averages and the EMA are calculated. Both
+     * give the same digits: FIXED_POINT adds the prices as longs in micros and falls back
+     * to BigDecimal when a value does not fit, BIG_DECIMAL adds a BigDecimal per row and
+     * is kept as the reference to compare with
+     */
+    enum Arithmetic { FIXED_POINT, BIG_DECIMAL }
+
+    private final Arithmetic arithmetic;
+
+    TradingOffice(Arithmetic arithmetic) {
+        this.arithmetic = arithmetic;
+    }
+
+    TradingOffice() {
+        this(Arithmetic.FIXED_POINT);
+    }
+
     /**
      * This method aims to calculate the average of dividends
      * during a specified period of time
@@ -31,22 +77,32 @@ public class TradingOffice {
      * @see RoundingMode
      */
      BigDecimal averageDividends(ArrayList<String[]> arrayList, int from, int to){
-        BigDecimal count = BigDecimal.ZERO;
-        BigDecimal dividends = BigDecimal.ZERO;
+        return averageDividends(DividendSeries.fromRows(arrayList), from, to);
+    }
 
-        if (!yearsExist(arrayList, from, to)) return BigDecimal.ZERO;
 
-        for (String[] row: arrayList) {
-            int year = LocalDate.parse(row[0]).getYear();
+    /**
+     * This method aims to calculate the average of dividends
+     * during a specified period of time over the columns of the dividends file
+     * @param dividends This is the first parameter, the dividends series
+     * @param from  This is the second parameter, the first year
+     * @param to  This is the third parameter, the second year
+     * @return BigDecimal The method will return the average value, it will return zero
+     * if one of the years does not exist in the file
+     * @see DividendSeries
+     * @see FixedPoint
+     */
+    BigDecimal averageDividends(DividendSeries dividends, int from, int to) {
+        long start = Metrics.start();
+        DateIndex index = dividends.dateIndex();
+        try {
+            if (!yearsExist(index, from, to)) return BigDecimal.ZERO;
 
-            if((year >= from) && (year <= to)){
-                dividends = dividends.add(new BigDecimal(row[1]));
-                count = count.add(BigDecimal.ONE);
-            }
+            return averageOfPeriod(index, dividends.amountSums(), dividends.epochDays, dividends.amounts,
+                    dividends.size, dividends.amountScale, EpochDays.yearStart(from), EpochDays.yearStart(to + 1));
+        } finally {
+            AVERAGE_DIVIDENDS.stop(start, rowsScanned(index, dividends::amountSums, dividends.size), 0);
         }
-        // safeguard to avoid dividing by zero exception
-        return count != BigDecimal.ZERO ?
-                dividends.divide(count, RoundingMode.HALF_UP) : BigDecimal.ZERO;
     }
 
 
@@ -58,22 +114,48 @@ public class TradingOffice {
      * @see LocalDate
      */
     int frequencyOfDividendsDistribution(ArrayList<String[]> dividends) {
-        int yearOfFirstMonth = 0;
-        int months = 0;
-        int counter = 0;
+        return frequencyOfDividendsDistribution(DividendSeries.fromRows(dividends));
+    }
 
-        for (int i = 0; i < dividends.size(); i++) {
 
-            yearOfFirstMonth = LocalDate.parse(dividends.get(i)[0]).getYear();
-            int firstMonth = LocalDate.parse(dividends.get(i)[0]).getMonthValue();
-            int secondMonth;    // this value will be determined if the consecutive months have the same year
+    /**
+     * This method aims to calculate the frequency of dividends distribution
+     * over the columns of the dividends file
+     * @param dividends This is the only parameter, the dividends series
+     * @return int The method will return the floored value of the average period
+     * @see DividendSeries
+     */
+    int frequencyOfDividendsDistribution(DividendSeries dividends) {
+        long start = Metrics.start();
+        int size = dividends.size;
 
-            for (int j = i+ 1; j < dividends.size(); j++) {
-                int yearOfSecondMonth = LocalDate.parse(dividends.get(j)[0]).getYear();
+        if (dividends.dateIndex().isSorted()) {
+            // the payouts of a year are next to each other, so the pairs are counted in one pass
+            LiveIndicators.DividendFrequency frequency = new LiveIndicators.DividendFrequency();
+            for (int i = 0; i < size; i++) {
+                frequency.onDividend(dividends.epochDays[i]);
+            }
+            FREQUENCY_OF_DIVIDENDS.stop(start, size, 0);
+            return frequency.value();
+        }
 
-                if ((yearOfFirstMonth == yearOfSecondMonth)
-                        && (i + 1 != dividends.size())) {
-                    secondMonth = LocalDate.parse(dividends.get(i + 1)[0]).getMonthValue();
+        int[] years = new int[size];
+        int[] monthsOfYear = new int[size];
+        for (int i = 0; i < size; i++) {
+            years[i] = EpochDays.year(dividends.epochDays[i]);
+            monthsOfYear[i] = EpochDays.month(dividends.epochDays[i]);
+        }
+
+        int months = 0;
+        int counter = 0;
+
+        for (int i = 0; i < size; i++) {
+            int firstMonth = monthsOfYear[i];
+
+            for (int j = i + 1; j < size; j++) {
+                if (years[i] == years[j]) {
+                    // this value is determined when the consecutive months have the same year
+                    int secondMonth = monthsOfYear[i + 1];
 
                     months += Math.abs(secondMonth - firstMonth);   // adding the difference between them
                     counter++;
@@ -81,11 +163,29 @@ public class TradingOffice {
             }
         }
 
+        FREQUENCY_OF_DIVIDENDS.stop(start, (long) size * size, 0);
+
         // safeguard to avoid dividing by zero exception
         return counter != 0 ? months / counter : 0;
     }
 
 
+    /**
+     * This method aims to describe the cadence of the dividends: the average, median
+     * and most common gap between payouts, the payouts of every year and the dates
+     * the cadence changed, in one pass over the dates
+     * @param dividends This is the only parameter, the dividends series
+     * @return DividendCadence The method will return the cadence of the payouts
+     * @see DividendCadence
+     */
+    DividendCadence dividendCadence(DividendSeries dividends) {
+        long start = Metrics.start();
+        DividendCadence cadence = DividendCadence.of(dividends);
+        DIVIDEND_CADENCE.stop(start, dividends.size, 0);
+        return cadence;
+    }
+
+
     /**
      * This method aims to calculate the simple moving average of the whole file,
      * without a specified period of time
@@ -98,13 +198,29 @@ public class TradingOffice {
      * @see RoundingMode
      */
     BigDecimal SMA(ArrayList<String[]> data) {
-        BigDecimal sumClose = BigDecimal.ZERO; // close price
+        return SMA(PriceSeries.fromRows(data));
+    }
 
-        for (int i = 0; i < data.size(); i++) {
-            sumClose = sumClose.add(new BigDecimal(data.get(i)[4]));
-        }
 
-        return sumClose.divide(new BigDecimal(data.size()), RoundingMode.HALF_UP);
+    /**
+     * This method aims to calculate the simple moving average of the whole series
+     * @param data This is the only parameter, the stock series
+     * @return BigDecimal The method will return the value of
+     * the simple moving average of the whole series
+     * @see PriceSeries
+     * @see FixedPoint
+     */
+    BigDecimal SMA(PriceSeries data) {
+        long start = Metrics.start();
+        // same as dividing the sum of no rows by zero rows
+        if (data.size == 0) throw new ArithmeticException("Division by zero");
+
+        BigDecimal average = arithmetic == Arithmetic.BIG_DECIMAL ?
+                bigDecimalAverage(data.close, 0, data.size, data.closeScale) :
+                data.closeSums().mean(0, data.size, data.closeScale);
+        // the running totals that overflowed fall back to adding a BigDecimal per row
+        SMA.stop(start, arithmetic == Arithmetic.BIG_DECIMAL || !data.closeSums().isExact() ? data.size : 0, 0);
+        return average;
     }
 
 
@@ -124,20 +240,50 @@ public class TradingOffice {
      * @see LocalDate
      */
     BigDecimal SMAOfSpecificPeriod(ArrayList<String[]> data, int from, int to) {
-        if (!yearsExist(data, from, to)) return BigDecimal.ZERO;
+        return SMAOfSpecificPeriod(PriceSeries.fromRows(data), from, to);
+    }
 
-        BigDecimal sumClose = BigDecimal.ZERO; // close
-        BigDecimal days = BigDecimal.ZERO;
 
-        for (int i = 0; i < data.size(); i++) {
-            int yearOfRow = LocalDate.parse(data.get(i)[0]).getYear();
-            if (yearOfRow >= from || yearOfRow <= to){
-                sumClose = sumClose.add(new BigDecimal(data.get(i)[4]));
-                days = days.add(BigDecimal.ONE);
-            }
+    /**
+     * This method aims to calculate the simple moving average of
+     * a specified period of time over the columns of the stock file
+     * @param data This is the first parameter, the stock series
+     * @param from This is the second parameter, the first year in the period
+     * @param to This is the third parameter, the second year in the period
+     * @return BigDecimal The method will return the value of
+     * the simple moving average of the specified period. it will return zero
+     * if one of the years does not exist in the file
+     * @see PriceSeries
+     */
+    BigDecimal SMAOfSpecificPeriod(PriceSeries data, int from, int to) {
+        long start = Metrics.start();
+        try {
+            if (!yearsExist(data.dateIndex(), from, to)) return BigDecimal.ZERO;
+
+            return averageClose(data, EpochDays.yearStart(from), EpochDays.yearStart(to + 1));
+        } finally {
+            SMA_OF_SPECIFIC_PERIOD.stop(start, rowsScanned(data.dateIndex(), data::closeSums, data.size), 0);
         }
+    }
 
-        return sumClose.divide(days, RoundingMode.HALF_UP);
+
+    /**
+     * This method aims to calculate the simple moving average of the close
+     * price between two dates, both included
+     * @param data This is the first parameter, the stock series
+     * @param from This is the second parameter, the first date of the period
+     * @param to This is the third parameter, the last date of the period
+     * @return BigDecimal The method will return the value of the simple moving
+     * average of the period, it will return zero if no row is in the period
+     * @see PriceSeries
+     * @see LocalDate
+     */
+    BigDecimal SMAOfDateRange(PriceSeries data, LocalDate from, LocalDate to) {
+        long start = Metrics.start();
+        long endDay = to.toEpochDay() + 1;
+        BigDecimal average = averageClose(data, (int) from.toEpochDay(), (int) Math.min(endDay, Integer.MAX_VALUE));
+        SMA_OF_DATE_RANGE.stop(start, rowsScanned(data.dateIndex(), data::closeSums, data.size), 0);
+        return average;
     }
 
 
@@ -155,20 +301,74 @@ public class TradingOffice {
      * @see RoundingMode
      */
     BigDecimal SMAYear(ArrayList<String[]> data, String year) {
-        int intValueOfYear = Integer.parseInt(year);
-        if (!yearsExist(data, intValueOfYear, intValueOfYear)) return BigDecimal.ZERO;
+        return SMAYear(PriceSeries.fromRows(data), year);
+    }
 
-        BigDecimal sumClose = BigDecimal.ZERO; // close
-        BigDecimal days = BigDecimal.ZERO;
 
-        for (int i = 0; i < data.size(); i++) {
-            if (data.get(i)[0].contains(year)) {
-                sumClose = sumClose.add(new BigDecimal(data.get(i)[4]));
-                days = days.add(BigDecimal.ONE);
-            }
+    /**
+     * This method aims to calculate the simple moving average of
+     * a specified year over the columns of the stock file
+     * @param data This is the first parameter, the stock series
+     * @param year This is the second parameter, the target year we want to
+     * calculate the SMA in
+     * @return BigDecimal The method will return the value of
+     * the simple moving average of the choosing year
+     * @see PriceSeries
+     */
+    BigDecimal SMAYear(PriceSeries data, String year) {
+        long start = Metrics.start();
+        try {
+            int intValueOfYear = Integer.parseInt(year);
+            if (!yearsExist(data.dateIndex(), intValueOfYear, intValueOfYear)) return BigDecimal.ZERO;
+
+            return averageClose(data, EpochDays.yearStart(intValueOfYear),
+                    EpochDays.yearStart(intValueOfYear + 1));
+        } finally {
+            SMA_YEAR.stop(start, rowsScanned(data.dateIndex(), data::closeSums, data.size), 0);
         }
+    }
+
+
+    /**
+     * This method aims to calculate the simple moving average of a specified period
+     * of time over a ticker of an archive, only the partitions of the years of the
+     * period are opened
+     * @param archive This is the first parameter, the archive of the stock files
+     * @param ticker This is the second parameter, the name of the ticker
+     * @param from This is the third parameter, the first year in the period
+     * @param to This is the forth parameter, the second year in the period
+     * @exception IOException If a partition can not be read
+     * @return BigDecimal The method will return the value of
+     * the simple moving average of the specified period. it will return zero
+     * if one of the years does not exist in the archive
+     * @see SeriesArchive
+     */
+    BigDecimal SMAOfSpecificPeriod(SeriesArchive archive, String ticker, int from, int to) throws IOException {
+        long start = Metrics.start();
+        SeriesArchive.Average average = archive.averageClose(ticker, from, to);
+        ARCHIVE_SMA_OF_SPECIFIC_PERIOD.stop(start, average.rows, average.bytes);
+        return average.value;
+    }
+
 
-        return sumClose.divide(days, RoundingMode.HALF_UP);
+    /**
+     * This method aims to calculate the simple moving average of a specified year
+     * over a ticker of an archive, only the partition of the year is opened
+     * @param archive This is the first parameter, the archive of the stock files
+     * @param ticker This is the second parameter, the name of the ticker
+     * @param year This is the third parameter, the target year we want to
+     * calculate the SMA in
+     * @exception IOException If the partition can not be read
+     * @return BigDecimal The method will return the value of
+     * the simple moving average of the choosing year
+     * @see SeriesArchive
+     */
+    BigDecimal SMAYear(SeriesArchive archive, String ticker, String year) throws IOException {
+        long start = Metrics.start();
+        int intValueOfYear = Integer.parseInt(year);
+        SeriesArchive.Average average = archive.averageClose(ticker, intValueOfYear, intValueOfYear);
+        ARCHIVE_SMA_YEAR.stop(start, average.rows, average.bytes);
+        return average.value;
     }
 
 
@@ -190,24 +390,379 @@ public class TradingOffice {
                                         int month,
                                         int dayOfMonth,
                                         int days){
+        return ExponentialMovingAverage(PriceSeries.fromRows(data), startingYear, month, dayOfMonth, days);
+    }
+
+
+    /**
+     * This method will calculate the Exponential Moving Average over the columns
+     * of the stock file, using the same formula and rounding as the method above.
+     * A starting date the market was closed on starts from the next session, and a date
+     * after the last session gives zero like a year that does not exist
+     * @param data This is the first parameter, the stock series
+     * @param startingYear This is the second parameter, The starting year
+     * @param month This is the third parameter, the month of the year chosen
+     * @param dayOfMonth This is the forth parameter, the day of month
+     * @param days This is the fifth parameter, the number of days to calculate EMA
+     * @exception IndexOutOfBoundsException If there are fewer than days sessions from the starting date
+     * @return BigDecimal The method will return the EMA
+     * @see PriceSeries
+     * @see TradingCalendar
+     */
+    BigDecimal ExponentialMovingAverage(PriceSeries data,
+                                        int startingYear,
+                                        int month,
+                                        int dayOfMonth,
+                                        int days){
 
-        if (!yearsExist(data, startingYear, startingYear)) return BigDecimal.ZERO;
+        long start = Metrics.start();
+        if (!yearsExist(data.dateIndex(), startingYear, startingYear)) {
+            EXPONENTIAL_MOVING_AVERAGE.stop(start, 0, 0);
+            return BigDecimal.ZERO;
+        }
+
+        int index = startOfEMA(data, EpochDays.of(startingYear, month, dayOfMonth));
+        if (index == data.size) {
+            // the year exists but has no session on or after the date, like a year that does not exist
+            EXPONENTIAL_MOVING_AVERAGE.stop(start, 0, 0);
+            return BigDecimal.ZERO;
+        }
+        Objects.checkFromIndexSize(index, Math.max(days, 1), data.size);
+        if (arithmetic == Arithmetic.FIXED_POINT && days > 0) {
+            long micros = FixedPoint.emaHalfUp(data.close, index, days);
+            if (micros != FixedPoint.INEXACT) {
+                EXPONENTIAL_MOVING_AVERAGE.stop(start, days, 0);
+                return FixedPoint.toBigDecimal(micros);
+            }
+        }
 
         BigDecimal smoothingFactor = new BigDecimal("2.00")
                 .divide(BigDecimal.valueOf(days + 1), RoundingMode.HALF_UP);
 
-        int index = getIndex(data, startingYear, month, dayOfMonth);
-        BigDecimal EMA = new BigDecimal(data.get(index)[4]);
+        BigDecimal EMA = FixedPoint.toBigDecimal(data.close[index]);
 
         for (int i = index; i < index + days; i++) {
             EMA = (EMA.multiply(BigDecimal.ONE.subtract(smoothingFactor)))
-                    .add(smoothingFactor.multiply(new BigDecimal(data.get(i)[4])));
+                    .add(smoothingFactor.multiply(FixedPoint.toBigDecimal(data.close[i])));
         }
 
+        EXPONENTIAL_MOVING_AVERAGE.stop(start, days, 0);
         return EMA.setScale(6, RoundingMode.HALF_UP);
     }
 
 
+    /**
+     * This method aims to calculate the simple moving average of the last window days
+     * for every day between two dates, in one pass over the close column
+     * @param data This is the first parameter, the stock series
+     * @param window This is the second parameter, the number of days averaged
+     * @param from This is the third parameter, the first date of the period
+     * @param to This is the forth parameter, the last date of the period
+     * @param out This is the fifth parameter, the array the averages are written into,
+     * a day with fewer than window days before it gets NaN
+     * @return int The method will return the number of days written
+     * @see RollingIndicators
+     */
+    int rollingSMA(PriceSeries data, int window, LocalDate from, LocalDate to, double[] out) {
+        long start = Metrics.start();
+        int first = firstRowOf(data, from);
+        int end = Math.max(first, endRowOf(data, to));
+
+        RollingIndicators.sma(data.close, window, first, end, out, 0);
+        ROLLING_SMA.stop(start, end - first + Math.min(first, window), 0);
+        return end - first;
+    }
+
+
+    /**
+     * This method aims to calculate the simple moving average of the last window days
+     * for every day between two dates
+     * @param data This is the first parameter, the stock series
+     * @param window This is the second parameter, the number of days averaged
+     * @param from This is the third parameter, the first date of the period
+     * @param to This is the forth parameter, the last date of the period
+     * @return double[] The method will return an average per day of the period
+     * @see RollingIndicators
+     */
+    double[] rollingSMA(PriceSeries data, int window, LocalDate from, LocalDate to) {
+        double[] out = new double[rowsBetween(data, from, to)];
+        rollingSMA(data, window, from, to, out);
+        return out;
+    }
+
+
+    /**
+     * This method aims to calculate the exponential moving average of window days
+     * for every day between two dates, in one pass over the close column. The average
+     * starts from the first window days of the series
+     * @param data This is the first parameter, the stock series
+     * @param window This is the second parameter, the number of days of the average
+     * @param from This is the third parameter, the first date of the period
+     * @param to This is the forth parameter, the last date of the period
+     * @param out This is the fifth parameter, the array the averages are written into,
+     * a day before the first window days of the series gets NaN
+     * @return int The method will return the number of days written
+     * @see RollingIndicators
+     */
+    int rollingEMA(PriceSeries data, int window, LocalDate from, LocalDate to, double[] out) {
+        long start = Metrics.start();
+        int first = firstRowOf(data, from);
+        int end = Math.max(first, endRowOf(data, to));
+
+        RollingIndicators.ema(data.close, window, first, end, out, 0);
+        ROLLING_EMA.stop(start, end, 0);
+        return end - first;
+    }
+
+
+    /**
+     * This method aims to calculate the exponential moving average of window days
+     * for every day between two dates
+     * @param data This is the first parameter, the stock series
+     * @param window This is the second parameter, the number of days of the average
+     * @param from This is the third parameter, the first date of the period
+     * @param to This is the forth parameter, the last date of the period
+     * @return double[] The method will return an average per day of the period
+     * @see RollingIndicators
+     */
+    double[] rollingEMA(PriceSeries data, int window, LocalDate from, LocalDate to) {
+        double[] out = new double[rowsBetween(data, from, to)];
+        rollingEMA(data, window, from, to, out);
+        return out;
+    }
+
+
+    /**
+     * This method aims to calculate the rolling standard deviation, the Bollinger Bands,
+     * the VWAP, the ATR and the RSI of window days for every day between two dates,
+     * in one pass over the high, low, close and volume columns
+     * @param data This is the first parameter, the stock series
+     * @param window This is the second parameter, the number of days of every indicator
+     * @param bandWidth This is the third parameter, the standard deviations between the bands
+     * @param from This is the forth parameter, the first date of the period
+     * @param to This is the fifth parameter, the last date of the period
+     * @param out This is the sixth parameter, the columns the indicators are written into,
+     * a day with too few days before it gets NaN
+     * @return int The method will return the number of days written
+     * @see FusedIndicators
+     */
+    int fusedIndicators(PriceSeries data, int window, double bandWidth, LocalDate from, LocalDate to,
+                        FusedIndicators.Output out) {
+        long start = Metrics.start();
+        int first = firstRowOf(data, from);
+        int end = Math.max(first, endRowOf(data, to));
+
+        FusedIndicators.compute(data, window, bandWidth, first, end, out);
+        FUSED_INDICATORS.stop(start, end, 0);
+        return end - first;
+    }
+
+
+    /**
+     * This method aims to calculate the fused indicators of window days for every day
+     * between two dates, see the method above
+     * @param data This is the first parameter, the stock series
+     * @param window This is the second parameter, the number of days of every indicator
+     * @param bandWidth This is the third parameter, the standard deviations between the bands
+     * @param from This is the forth parameter, the first date of the period
+     * @param to This is the fifth parameter, the last date of the period
+     * @return FusedIndicators.Output The method will return a column per indicator with a row per day
+     * @see FusedIndicators
+     */
+    FusedIndicators.Output fusedIndicators(PriceSeries data, int window, double bandWidth,
+                                           LocalDate from, LocalDate to) {
+        FusedIndicators.Output out = new FusedIndicators.Output(rowsBetween(data, from, to));
+        fusedIndicators(data, window, bandWidth, from, to, out);
+        return out;
+    }
+
+
+    /**
+     * This method aims to get the statistics of the prices between two dates, both
+     * included: the average close, the lowest low, the highest high, the range between
+     * them and the average daily range, reading the high and low columns once
+     * @param data This is the first parameter, the stock series
+     * @param from This is the second parameter, the first date of the period
+     * @param to This is the third parameter, the last date of the period
+     * @return PriceRange The method will return the statistics of the period
+     * @see PriceRange
+     * @see ColumnKernels
+     */
+    PriceRange priceRange(PriceSeries data, LocalDate from, LocalDate to) {
+        long start = Metrics.start();
+        int first = firstRowOf(data, from);
+        int end = Math.max(first, endRowOf(data, to));
+
+        PriceRange range = PriceRange.of(data, first, end, ColumnKernels.best());
+        PRICE_RANGE.stop(start, end - first, 0);
+        return range;
+    }
+
+
+    /**
+     * This method aims to join the stock file with the dividends file into a total
+     * return index with the dividends reinvested and the trailing twelve months yield
+     * of every day, in one pass over the two sorted date columns
+     * @param data This is the first parameter, an array of the stock info
+     * @param dividends This is the second parameter, an array of the dividends info
+     * @return TotalReturn The method will return the total return and the yield per day
+     * @see TotalReturn
+     */
+    TotalReturn totalReturn(ArrayList<String[]> data, ArrayList<String[]> dividends) {
+        return totalReturn(PriceSeries.fromRows(data), DividendSeries.fromRows(dividends));
+    }
+
+
+    /**
+     * This method aims to join the columns of the stock file with the columns of the
+     * dividends file, see the method above
+     * @param data This is the first parameter, the stock series sorted by date
+     * @param dividends This is the second parameter, the dividends series sorted by date
+     * @return TotalReturn The method will return the total return and the yield per day
+     * @exception IllegalArgumentException If one of the series is not sorted by date
+     * @see TotalReturn
+     */
+    TotalReturn totalReturn(PriceSeries data, DividendSeries dividends) {
+        long start = Metrics.start();
+        TotalReturn totalReturn = TotalReturn.of(data, dividends);
+        TOTAL_RETURN.stop(start, (long) data.size + dividends.size, 0);
+        return totalReturn;
+    }
+
+
+    /**
+     * This method aims to turn the daily bars into weekly, monthly, quarterly or yearly
+     * bars, so the other methods can run on a coarser timeframe
+     * @param daily This is the first parameter, the daily stock series
+     * @param timeframe This is the second parameter, the timeframe of the new bars
+     * @return PriceSeries The method will return a bar per period dated with its first day
+     * @see Resampler
+     */
+    PriceSeries resample(PriceSeries daily, Resampler.Timeframe timeframe) {
+        long start = Metrics.start();
+        PriceSeries bars = Resampler.resample(daily, timeframe);
+        RESAMPLE.stop(start, daily.size, 0);
+        return bars;
+    }
+
+
+    /**
+     * This method aims to answer many queries over the same stock and dividends files
+     * at once. The date index and the running totals are built once for the batch, and
+     * the files are sorted once if their dates are not, so every window is then two
+     * binary searches and N queries cost about one pass over the rows instead of N
+     * @param data This is the first parameter, an array of the stock info
+     * @param dividends This is the second parameter, an array of the dividends info,
+     * it may be null when no query asks for dividends
+     * @param queries This is the third parameter, the queries in any order
+     * @return List<BigDecimal> The method will return the answer of every query in the
+     * order of the queries, the same as calling the method of each query
+     * @see BatchQuery
+     */
+    List<BigDecimal> batch(ArrayList<String[]> data, ArrayList<String[]> dividends, List<BatchQuery> queries) {
+        return batch(PriceSeries.fromRows(data), dividends == null ? null : DividendSeries.fromRows(dividends),
+                queries);
+    }
+
+
+    /**
+     * This method aims to answer many queries over the columns of the same stock and
+     * dividends files at once, see the method above
+     * @param data This is the first parameter, the stock series
+     * @param dividends This is the second parameter, the dividends series,
+     * it may be null when no query asks for dividends
+     * @param queries This is the third parameter, the queries in any order
+     * @return List<BigDecimal> The method will return the answer of every query in the
+     * order of the queries, the same as calling the method of each query
+     * @exception IllegalArgumentException If a query asks for dividends and there are none
+     * @see BatchQuery
+     */
+    List<BigDecimal> batch(PriceSeries data, DividendSeries dividends, List<BatchQuery> queries) {
+        long start = Metrics.start();
+        List<BigDecimal> answers = new ArrayList<>(queries.size());
+        BatchQuery.SortedColumn closes = null;
+        BatchQuery.SortedColumn amounts = null;
+        long rows = 0;
+
+        for (BatchQuery query : queries) {
+            if (query.kind == BatchQuery.Kind.AVERAGE_DIVIDENDS && dividends == null) {
+                throw new IllegalArgumentException("No dividends were given for " + query);
+            }
+            if (arithmetic == Arithmetic.BIG_DECIMAL) {
+                // the reference arithmetic adds a BigDecimal per row, so there is nothing to share
+                answers.add(answer(data, dividends, query));
+                continue;
+            }
+
+            switch (query.kind) {
+                case SMA_OF_SPECIFIC_PERIOD:
+                case SMA_YEAR:
+                case SMA_OF_DATE_RANGE:
+                    if (closes == null) {
+                        closes = BatchQuery.SortedColumn.of(data.dateIndex(), data::closeSums,
+                                data.epochDays, data.close, data.size, data.closeScale);
+                        rows += closes.rowsScanned;
+                    }
+                    answers.add(query.kind == BatchQuery.Kind.SMA_OF_DATE_RANGE ?
+                            closes.average(query.first, query.second) :
+                            closes.averageOfYears(query.first, query.second));
+                    break;
+                case AVERAGE_DIVIDENDS:
+                    if (amounts == null) {
+                        amounts = BatchQuery.SortedColumn.of(dividends.dateIndex(), dividends::amountSums,
+                                dividends.epochDays, dividends.amounts, dividends.size, dividends.amountScale);
+                        rows += amounts.rowsScanned;
+                    }
+                    answers.add(amounts.averageOfYears(query.first, query.second));
+                    break;
+                default:
+                    // the EMA walks the rows in file order from the row of its date
+                    answers.add(answer(data, dividends, query));
+                    break;
+            }
+        }
+
+        BATCH.stop(start, rows, 0);
+        return answers;
+    }
+
+
+    /**
+     * This method aims to answer a query of a batch with the method it stands for
+     * @param data This is the first parameter, the stock series
+     * @param dividends This is the second parameter, the dividends series
+     * @param query This is the third parameter, the query
+     * @return BigDecimal The method will return the answer of the query
+     */
+    private BigDecimal answer(PriceSeries data, DividendSeries dividends, BatchQuery query) {
+        switch (query.kind) {
+            case SMA_OF_SPECIFIC_PERIOD:
+                return SMAOfSpecificPeriod(data, query.first, query.second);
+            case SMA_OF_DATE_RANGE:
+                return averageClose(data, query.first, query.second);
+            case SMA_YEAR:
+                return SMAYear(data, Integer.toString(query.first));
+            case EXPONENTIAL_MOVING_AVERAGE:
+                return ExponentialMovingAverage(data, query.first, query.second, query.third, query.fourth);
+            default:
+                return averageDividends(dividends, query.first, query.second);
+        }
+    }
+
+
+    /**
+     * This method aims to count the days of the series between two dates, both included,
+     * which is the size of the array the rolling methods need
+     * @param data This is the first parameter, the stock series
+     * @param from This is the second parameter, the first date of the period
+     * @param to This is the third parameter, the last date of the period
+     * @return int The method will return the number of days
+     */
+    int rowsBetween(PriceSeries data, LocalDate from, LocalDate to) {
+        return Math.max(0, endRowOf(data, to) - firstRowOf(data, from));
+    }
+
+
     //------------------------------Helping Methods---------------------------
 
     /**
@@ -219,39 +774,140 @@ public class TradingOffice {
      * @see ArrayList
      */
     ArrayList<String[]> getDataFromCSV(File file) throws IOException {
+        long start = Metrics.start();
         String line = "";
         ArrayList<String[]> data = new ArrayList();
 
-        BufferedReader br = new BufferedReader(new FileReader(file.getName()));
-        br.readLine();  // To skip the first row (columns names)
+        try (BufferedReader br = new BufferedReader(new FileReader(file))) {
+            br.readLine();  // To skip the first row (columns names)
 
-        while ((line = br.readLine()) != null) {
-            String[] row = line.split(",");
-            data.add(row);
+            while ((line = br.readLine()) != null) {
+                String[] row = line.split(",");
+                data.add(row);
+            }
         }
 
+        if (start != 0) GET_DATA_FROM_CSV.stop(start, data.size(), file.length());
         return data;
     }
 
 
+    /**
+     * This method aims to read a stock csv file into columns, parsing the bytes
+     * of the file directly instead of splitting every line into strings
+     * @param file This is the only parameter, the csv file to extract data from
+     * @exception IOException On input error
+     * @return PriceSeries The method will return the data as a column per field
+     * @see PriceSeries
+     * @see CsvSeriesReader
+     */
+    PriceSeries getPriceSeriesFromCSV(File file) throws IOException {
+        long start = Metrics.start();
+        PriceSeries series = CsvSeriesReader.readPrices(file.toPath());
+        if (start != 0) GET_PRICE_SERIES_FROM_CSV.stop(start, series.size(), file.length());
+        return series;
+    }
+
+
+    /**
+     * This method aims to read a dividends csv file into columns
+     * @param file This is the only parameter, the csv file to extract data from
+     * @exception IOException On input error
+     * @return DividendSeries The method will return the data as a column per field
+     * @see DividendSeries
+     * @see CsvSeriesReader
+     */
+    DividendSeries getDividendSeriesFromCSV(File file) throws IOException {
+        long start = Metrics.start();
+        DividendSeries series = CsvSeriesReader.readDividends(file.toPath());
+        if (start != 0) GET_DIVIDEND_SERIES_FROM_CSV.stop(start, series.size(), file.length());
+        return series;
+    }
+
+
+    /**
+     * This method aims to read a stock csv file into columns while checking its rows, so
+     * the queries over the series never meet a row they can not read. The rows that are
+     * null, malformed or a second row of a date are left out and rows out of order are
+     * sorted, each of them is added to the report
+     * @param file This is the first parameter, the csv file to extract data from
+     * @param report This is the second parameter, the report the bad rows are added to
+     * @exception IOException On input error
+     * @return PriceSeries The method will return the good rows as a column per field, sorted by date
+     * @see ValidationReport
+     */
+    PriceSeries getPriceSeriesFromCSV(File file, ValidationReport report) throws IOException {
+        long start = Metrics.start();
+        PriceSeries series = CsvSeriesReader.readPrices(file.toPath(), report);
+        if (start != 0) GET_PRICE_SERIES_FROM_CSV.stop(start, series.size(), file.length());
+        return series;
+    }
+
+
+    /**
+     * This method aims to read a dividends csv file into columns while checking its rows
+     * @param file This is the first parameter, the csv file to extract data from
+     * @param report This is the second parameter, the report the bad rows are added to
+     * @exception IOException On input error
+     * @return DividendSeries The method will return the good rows as a column per field, sorted by date
+     * @see ValidationReport
+     */
+    DividendSeries getDividendSeriesFromCSV(File file, ValidationReport report) throws IOException {
+        long start = Metrics.start();
+        DividendSeries series = CsvSeriesReader.readDividends(file.toPath(), report);
+        if (start != 0) GET_DIVIDEND_SERIES_FROM_CSV.stop(start, series.size(), file.length());
+        return series;
+    }
+
+
+    /**
+     * This method aims to read a stock csv file through a binary snapshot saved next to it
+     * (AAPL.csv.snap for AAPL.csv). The snapshot is mapped back without parsing the rows,
+     * and the csv file is read again when it changed since the snapshot was written
+     * @param file This is the only parameter, the csv file to extract data from
+     * @exception IOException On input error
+     * @return PriceSeries The method will return the data as a column per field
+     * @see SeriesSnapshot
+     */
+    PriceSeries getPriceSeriesFromSnapshot(File file) throws IOException {
+        long start = Metrics.start();
+        Path snapshot = snapshotOf(file);
+        PriceSeries series = SeriesSnapshot.loadPrices(file.toPath(), snapshot);
+        if (start != 0) GET_PRICE_SERIES_FROM_SNAPSHOT.stop(start, series.size(), snapshot.toFile().length());
+        return series;
+    }
+
+
+    /**
+     * This method aims to read a dividends csv file through a binary snapshot saved next to it
+     * @param file This is the only parameter, the csv file to extract data from
+     * @exception IOException On input error
+     * @return DividendSeries The method will return the data as a column per field
+     * @see SeriesSnapshot
+     */
+    DividendSeries getDividendSeriesFromSnapshot(File file) throws IOException {
+        long start = Metrics.start();
+        Path snapshot = snapshotOf(file);
+        DividendSeries series = SeriesSnapshot.loadDividends(file.toPath(), snapshot);
+        if (start != 0) GET_DIVIDEND_SERIES_FROM_SNAPSHOT.stop(start, series.size(), snapshot.toFile().length());
+        return series;
+    }
+
+
     /**
      * This method is a safeguard in case a year does not exist
      * @param arrayList This is the first parameter, an array of the stock info
      * @param from This is the second parameter, the first year in the period
      * @param to This is the third parameter, the second year in the period
-     * @return boolean The method will return false if one of the years does not exist
+     * @return boolean The method will return false if none of the years has a row
      * @see ArrayList
-     * @see Arrays
+     * @see DateIndex
      */
     boolean yearsExist(ArrayList<String[]> arrayList, int from, int to) {
-        for (String[] row: arrayList){
-            if (Arrays.toString(row).contains(String.valueOf(from)) ||
-                    Arrays.toString(row).contains(String.valueOf(to))) {
-                return true;
-            }
-        }
-
-        return false;
+        long start = Metrics.start();
+        boolean exist = yearsExist(DateIndex.of(epochDaysOf(arrayList), arrayList.size()), from, to);
+        YEARS_EXIST.stop(start, arrayList.size(), 0);
+        return exist;
     }
 
 
@@ -264,21 +920,204 @@ public class TradingOffice {
      * @param dayOfMonth This is the forth parameter, the day of month
      * @return int The method will return the index of the specified data
      * @see ArrayList
-     * @see LocalDate
+     * @see DateIndex
      */
     int getIndex(ArrayList<String[]> arrayList, int startingYear, int month, int dayOfMonth){
-        int index = 0;
-
-        for (int i = 0; i < arrayList.size(); i++) {
-            if (LocalDate.parse(arrayList.get(i)[0]).getYear() == startingYear &&
-                    LocalDate.parse(arrayList.get(i)[0]).getMonthValue() == month &&
-                    LocalDate.parse(arrayList.get(i)[0]).getDayOfMonth() == dayOfMonth) {
-                index = i;
-                break;
+        long start = Metrics.start();
+        DateIndex index = DateIndex.of(epochDaysOf(arrayList), arrayList.size());
+
+        int row = Math.max(index.indexOf(EpochDays.of(startingYear, month, dayOfMonth)), 0);
+        GET_INDEX.stop(start, arrayList.size(), 0);
+        return row;
+    }
+
+
+    /**
+     * This method is a safeguard in case a year does not exist in a date column
+     * @param index This is the first parameter, the index of the date column
+     * @param from This is the second parameter, the first year in the period
+     * @param to This is the third parameter, the second year in the period
+     * @return boolean The method will return false if none of the years exist
+     */
+    private boolean yearsExist(DateIndex index, int from, int to) {
+        return index.yearExists(from) || index.yearExists(to);
+    }
+
+
+    /**
+     * This method aims to average the close price of the rows between two dates
+     * @param data This is the first parameter, the stock series
+     * @param firstDay This is the second parameter, the first epoch day included
+     * @param endDay This is the third parameter, the first epoch day excluded
+     * @return BigDecimal The method will return the average, or zero if no row is in the window
+     */
+    private BigDecimal averageClose(PriceSeries data, int firstDay, int endDay) {
+        return averageOfPeriod(data.dateIndex(), data.closeSums(), data.epochDays, data.close,
+                data.size, data.closeScale, firstDay, endDay);
+    }
+
+
+    /**
+     * This method aims to average a column over the rows between two dates. When the
+     * dates are sorted the average comes from the running totals of the column
+     * @param index This is the first parameter, the index of the date column
+     * @param sums This is the second parameter, the running totals of the column
+     * @param epochDays This is the third parameter, the date column
+     * @param column This is the forth parameter, the column to average in micros
+     * @param size This is the fifth parameter, the number of rows
+     * @param scale This is the sixth parameter, the scale to round the average at
+     * @param firstDay This is the seventh parameter, the first epoch day included
+     * @param endDay This is the eighth parameter, the first epoch day excluded
+     * @return BigDecimal The method will return the average, or zero if no row is in the window
+     */
+    private BigDecimal averageOfPeriod(DateIndex index, PrefixSums sums, int[] epochDays, long[] column,
+                                       int size, int scale, int firstDay, int endDay) {
+        if (arithmetic == Arithmetic.BIG_DECIMAL) {
+            return bigDecimalAverage(epochDays, column, size, scale, firstDay, endDay);
+        }
+        if (index.isSorted()) {
+            return sums.mean(index.firstOnOrAfter(firstDay), index.firstOnOrAfter(endDay), scale);
+        }
+
+        long sum = 0; // in micros
+        int count = 0;
+
+        try {
+            for (int i = 0; i < size; i++) {
+                int day = epochDays[i];
+                if (day >= firstDay && day < endDay) {
+                    sum = Math.addExact(sum, column[i]);
+                    count++;
+                }
+            }
+        } catch (ArithmeticException e) {
+            return bigDecimalAverage(epochDays, column, size, scale, firstDay, endDay);
+        }
+
+        // safeguard to avoid dividing by zero exception
+        return count != 0 ? FixedPoint.meanHalfUp(sum, count, scale) : BigDecimal.ZERO;
+    }
+
+
+    /**
+     * This method aims to average a column over the rows between two dates by adding a
+     * BigDecimal per row, the reference the fixed-point averages give the same digits as
+     * @param epochDays This is the first parameter, the date column
+     * @param column This is the second parameter, the column to average in micros
+     * @param size This is the third parameter, the number of rows
+     * @param scale This is the forth parameter, the scale to round the average at
+     * @param firstDay This is the fifth parameter, the first epoch day included
+     * @param endDay This is the sixth parameter, the first epoch day excluded
+     * @return BigDecimal The method will return the average, or zero if no row is in the window
+     */
+    private static BigDecimal bigDecimalAverage(int[] epochDays, long[] column, int size, int scale,
+                                                int firstDay, int endDay) {
+        BigDecimal sum = BigDecimal.ZERO;
+        int count = 0;
+
+        for (int i = 0; i < size; i++) {
+            int day = epochDays[i];
+            if (day >= firstDay && day < endDay) {
+                sum = sum.add(FixedPoint.toBigDecimal(column[i]));
+                count++;
             }
         }
+        return count != 0 ? sum.divide(BigDecimal.valueOf(count), scale, RoundingMode.HALF_UP) : BigDecimal.ZERO;
+    }
+
+
+    private static BigDecimal bigDecimalAverage(long[] column, int from, int to, int scale) {
+        BigDecimal sum = BigDecimal.ZERO;
+        for (int i = from; i < to; i++) {
+            sum = sum.add(FixedPoint.toBigDecimal(column[i]));
+        }
+        return sum.divide(BigDecimal.valueOf(to - from), scale, RoundingMode.HALF_UP);
+    }
+
+
+    /**
+     * This method aims to tell the metrics how many rows a query over a date column
+     * read one at a time, the running totals and the binary searches read none unless
+     * the totals overflowed and the average was added up one row at a time
+     * @param index This is the first parameter, the index of the date column
+     * @param sums This is the second parameter, the running totals of the column, only
+     * built when the fixed-point path used them
+     * @param size This is the third parameter, the number of rows
+     * @return int The method will return the rows scanned
+     */
+    private int rowsScanned(DateIndex index, Supplier<PrefixSums> sums, int size) {
+        return index.isSorted() && arithmetic == Arithmetic.FIXED_POINT && sums.get().isExact() ? 0 : size;
+    }
+
+
+    /**
+     * This method aims to find the row the EMA starts from. A date the market was closed
+     * on starts from the next session, through the trading calendar, instead of the
+     * first row of the file; a file that is not sorted is still searched row by row
+     * @param data This is the first parameter, the stock series
+     * @param epochDay This is the second parameter, the starting date as an epoch day
+     * @return int The method will return the row, the number of rows if no session is on or after the date
+     */
+    private static int startOfEMA(PriceSeries data, int epochDay) {
+        if (!data.dateIndex().isSorted()) return data.indexOf(epochDay);
+        return data.tradingCalendar().sessionOnOrAfter(epochDay);
+    }
+
+
+    /**
+     * This method aims to find the first row of a period through the trading calendar.
+     * The calendar and the binary searches of the date index need sorted dates, so a
+     * file that is not sorted is searched row by row, like startOfEMA does
+     * @param data This is the first parameter, the stock series
+     * @param from This is the second parameter, the first date of the period
+     * @return int The method will return the first row dated on or after from, in the order of the file
+     */
+    private static int firstRowOf(PriceSeries data, LocalDate from) {
+        int day = (int) from.toEpochDay();
+        if (data.dateIndex().isSorted()) return data.tradingCalendar().sessionOnOrAfter(day);
+
+        for (int i = 0; i < data.size; i++) {
+            if (data.epochDays[i] >= day) return i;
+        }
+        return data.size;
+    }
 
-        return index;
+
+    /**
+     * This method aims to find the row after the last row of a period
+     * @param data This is the first parameter, the stock series
+     * @param to This is the second parameter, the last date of the period
+     * @return int The method will return the row after the last row dated on or before to,
+     * in the order of the file
+     */
+    private static int endRowOf(PriceSeries data, LocalDate to) {
+        int day = (int) to.toEpochDay();
+        if (day == Integer.MAX_VALUE) return data.size;
+        if (data.dateIndex().isSorted()) return data.tradingCalendar().sessionOnOrAfter(day + 1);
+
+        for (int i = data.size - 1; i >= 0; i--) {
+            if (data.epochDays[i] <= day) return i + 1;
+        }
+        return 0;
+    }
+
+
+    private static Path snapshotOf(File file) {
+        return file.toPath().resolveSibling(file.getName() + SeriesSnapshot.EXTENSION);
+    }
+
+
+    /**
+     * This method aims to parse the date column of rows returned by getDataFromCSV
+     * @param rows This is the only parameter, the rows with the date in the first field
+     * @return int[] The method will return the dates as epoch days
+     */
+    private static int[] epochDaysOf(ArrayList<String[]> rows) {
+        int[] epochDays = new int[rows.size()];
+        for (int i = 0; i < epochDays.length; i++) {
+            epochDays[i] = EpochDays.parse(rows.get(i)[0]);
+        }
+        return epochDays;
     }
 
 }
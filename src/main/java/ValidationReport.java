@@ -0,0 +1,186 @@
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The ValidationReport class collects the rows of a csv file that were rejected or
+ * repaired while the file was read, so a bad row is reported once when the file is
+ * loaded instead of failing a query later. It is filled by CsvSeriesReader in the
+ * same pass that parses the rows, and can be written as a csv file of its own
+ *
+ * @author  Hussain Aljassim, Ahmed Baabdullah, Omar Mashhrawi
+ * @version 1.0
+ */
+public final class ValidationReport {
+
+    static final String HEADER = "Line,Problem,Action,Detail";
+
+    private final List<Issue> issues = new ArrayList<>();
+    private final Map<Problem, Integer> counts = new EnumMap<>(Problem.class);
+    private long rowsRead;
+
+
+    /**
+     * This method aims to record a row that was left out of the series
+     * @param line This is the first parameter, the line number of the row in the file
+     * @param problem This is the second parameter, what is wrong with the row
+     * @param detail This is the third parameter, a message saying what was found
+     */
+    void reject(long line, Problem problem, String detail) {
+        add(new Issue(line, problem, Action.REJECTED, detail));
+    }
+
+
+    /**
+     * This method aims to record a row that was kept after it was repaired
+     * @param line This is the first parameter, the line number of the row in the file
+     * @param problem This is the second parameter, what was wrong with the row
+     * @param detail This is the third parameter, a message saying what was repaired
+     */
+    void repair(long line, Problem problem, String detail) {
+        add(new Issue(line, problem, Action.REPAIRED, detail));
+    }
+
+
+    void rowRead() {
+        rowsRead++;
+    }
+
+
+    /**
+     * This method aims to get every issue in the order they were found
+     * @return List<Issue> The method will return the issues, it can not be modified
+     */
+    List<Issue> issues() {
+        return Collections.unmodifiableList(issues);
+    }
+
+
+    /**
+     * This method aims to count the issues of one kind
+     * @param problem This is the only parameter, the kind of issue
+     * @return int The method will return the number of rows with that problem
+     */
+    int count(Problem problem) {
+        return counts.getOrDefault(problem, 0);
+    }
+
+
+    /**
+     * This method aims to count the rows left out of the series
+     * @return int The method will return the number of rejected rows
+     */
+    int rejected() {
+        int rejected = 0;
+        for (Issue issue : issues) {
+            if (issue.action == Action.REJECTED) rejected++;
+        }
+        return rejected;
+    }
+
+
+    /**
+     * This method aims to get the number of rows read from the file, the header excluded
+     * @return long The method will return the rows read, good or bad
+     */
+    long rowsRead() {
+        return rowsRead;
+    }
+
+
+    /**
+     * This method aims to tell whether every row of the file was good
+     * @return boolean The method will return true if nothing was rejected or repaired
+     */
+    boolean isClean() {
+        return issues.isEmpty();
+    }
+
+
+    /**
+     * This method aims to write the issues as a csv file
+     * @param path This is the only parameter, the path of the csv file
+     * @exception IOException On output error
+     */
+    void write(Path path) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(path)) {
+            writer.write(HEADER);
+            writer.newLine();
+            for (Issue issue : issues) {
+                writer.write(issue.toCsv());
+                writer.newLine();
+            }
+        }
+    }
+
+
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder();
+        text.append(rowsRead).append(" rows read, ").append(rejected()).append(" rejected, ")
+                .append(issues.size() - rejected()).append(" repaired");
+        for (Map.Entry<Problem, Integer> count : counts.entrySet()) {
+            text.append(", ").append(count.getValue()).append(' ').append(count.getKey());
+        }
+        return text.toString();
+    }
+
+
+    private void add(Issue issue) {
+        issues.add(issue);
+        counts.merge(issue.problem, 1, Integer::sum);
+    }
+
+
+    /**
+     * The Problem enum is what can be wrong with a row
+     */
+    enum Problem {
+        NULL_ROW,           // a row written as null, Yahoo writes them for days without trading
+        MALFORMED,          // a date or number that can not be read, or a negative price
+        DUPLICATE_DATE,     // a second row with the date of an earlier row, the first one is kept
+        OUT_OF_ORDER        // a row dated before the row above it, the rows are sorted once read
+    }
+
+
+    /**
+     * The Action enum is what was done with a row
+     */
+    enum Action {
+        REJECTED,
+        REPAIRED
+    }
+
+
+    /**
+     * The Issue class is one row of the report
+     */
+    static final class Issue {
+        final long line;
+        final Problem problem;
+        final Action action;
+        final String detail;
+
+        Issue(long line, Problem problem, Action action, String detail) {
+            this.line = line;
+            this.problem = problem;
+            this.action = action;
+            this.detail = detail;
+        }
+
+        String toCsv() {
+            return line + "," + problem + "," + action + "," + detail.replace(',', ';');
+        }
+
+        @Override
+        public String toString() {
+            return "line " + line + ": " + problem + " " + action + " (" + detail + ")";
+        }
+    }
+}
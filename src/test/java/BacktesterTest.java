@@ -0,0 +1,68 @@
+import org.junit.jupiter.api.Test;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class BacktesterTest {
+
+    TradingOffice tradingOffice = new TradingOffice();
+
+    @Test
+    void itShouldTradeTheCrossesOfTheAverages() throws InterruptedException {
+        // given
+        ArrayList<String[]> data = new ArrayList<>();
+        String[] closes = {"10", "11", "12", "11", "13"};
+        for (int i = 0; i < closes.length; i++) {
+            data.add(new String[]{"2020-01-0" + (i + 1), closes[i], closes[i], closes[i], closes[i], closes[i], "1"});
+        }
+
+        // when
+        List<Backtester.Result> results = new Backtester(1).run(Map.of("TEST", PriceSeries.fromRows(data)),
+                List.of(new Backtester.Strategy(Backtester.Average.SMA, 1, 2)));
+
+        // then
+        Backtester.Result result = results.get(0);
+        assertThat(result.trades).isEqualTo(2);     // bought on the 2nd and the 5th
+        assertThat(result.totalReturn).isCloseTo(0.0, within(1e-12));
+        assertThat(result.maxDrawdown).isCloseTo(1.0 / 12, within(1e-12));
+    }
+
+    @Test
+    void itShouldGiveTheSameResultsOnManyThreadsAsOneStrategyAtATime() throws IOException, InterruptedException {
+        // given
+        PriceSeries series = tradingOffice.getPriceSeriesFromCSV(new File("AAPL.csv"));
+        List<Backtester.Strategy> strategies = new ArrayList<>(Backtester.grid(Backtester.Average.SMA, 2, 20, 60));
+        strategies.addAll(Backtester.grid(Backtester.Average.EMA, 5, 10, 30));
+
+        // when
+        List<Backtester.Result> results = new Backtester(4).run(Map.of("AAPL", series), strategies);
+
+        // then
+        assertThat(results).hasSize(strategies.size());
+        for (int i = 0; i < strategies.size(); i += 37) {
+            Backtester.Strategy strategy = strategies.get(i);
+            Backtester.Result expected = Backtester.backtest("AAPL", Backtester.growthOf(series),
+                    strategy.average.calculate(series, strategy.fast, new double[series.size()]),
+                    strategy.average.calculate(series, strategy.slow, new double[series.size()]), strategy);
+            Backtester.Result result = results.get(i);
+            assertThat(result.strategy).isEqualTo(strategy);
+            assertThat(result.trades).isEqualTo(expected.trades).isPositive();
+            assertThat(result.totalReturn).isEqualTo(expected.totalReturn);
+            assertThat(result.maxDrawdown).isEqualTo(expected.maxDrawdown).isBetween(0.0, 1.0);
+        }
+    }
+
+    @Test
+    void itShouldMakeAGridOfFastAndSlowerWindows() {
+        // when
+        List<Backtester.Strategy> grid = Backtester.grid(Backtester.Average.EMA, 2, 4, 5);
+
+        // then
+        assertThat(grid).extracting(Backtester.Strategy::toString).containsExactly(
+                "EMA(2, 3)", "EMA(2, 4)", "EMA(2, 5)", "EMA(3, 4)", "EMA(3, 5)", "EMA(4, 5)");
+    }
+}
@@ -0,0 +1,113 @@
+import org.junit.jupiter.api.Test;
+import java.io.File;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+class BatchQueryTest {
+
+    TradingOffice underTest = new TradingOffice();
+
+    @Test
+    void itShouldAnswerEveryQueryLikeItsMethod() throws IOException {
+        // given
+        PriceSeries data = underTest.getPriceSeriesFromCSV(new File("AAPL.csv"));
+        DividendSeries dividends = underTest.getDividendSeriesFromCSV(new File("AAPL-Dividends.csv"));
+        List<BatchQuery> queries = queries();
+
+        // when
+        List<BigDecimal> result = underTest.batch(data, dividends, queries);
+
+        // then
+        assertThat(result).containsExactlyElementsOf(oneByOne(data, dividends, queries));
+    }
+
+    @Test
+    void itShouldAnswerQueriesOverFilesThatAreNotSorted() throws IOException {
+        // given
+        ArrayList<String[]> rows = underTest.getDataFromCSV(new File("AAPL.csv"));
+        ArrayList<String[]> dividendRows = underTest.getDataFromCSV(new File("AAPL-Dividends.csv"));
+        Collections.reverse(rows);
+        Collections.swap(dividendRows, 0, dividendRows.size() - 1);
+        PriceSeries data = PriceSeries.fromRows(rows);
+        DividendSeries dividends = DividendSeries.fromRows(dividendRows);
+        List<BatchQuery> queries = queries();
+
+        // when
+        List<BigDecimal> result = underTest.batch(rows, dividendRows, queries);
+
+        // then
+        assertThat(data.dateIndex().isSorted()).isFalse();
+        assertThat(result).containsExactlyElementsOf(oneByOne(data, dividends, queries));
+    }
+
+    @Test
+    void itShouldGiveTheSameAnswersWithBigDecimal() throws IOException {
+        // given
+        PriceSeries data = underTest.getPriceSeriesFromCSV(new File("AAPL.csv"));
+        DividendSeries dividends = underTest.getDividendSeriesFromCSV(new File("AAPL-Dividends.csv"));
+        TradingOffice bigDecimal = new TradingOffice(TradingOffice.Arithmetic.BIG_DECIMAL);
+
+        // when
+        List<BigDecimal> result = bigDecimal.batch(data, dividends, queries());
+
+        // then
+        assertThat(result).containsExactlyElementsOf(underTest.batch(data, dividends, queries()));
+    }
+
+    @Test
+    void itShouldRejectADividendsQueryWithoutDividends() throws IOException {
+        // given
+        PriceSeries data = underTest.getPriceSeriesFromCSV(new File("AAPL.csv"));
+
+        // then
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> underTest.batch(data, null, List.of(BatchQuery.averageDividends(2019, 2020))));
+    }
+
+    private static List<BatchQuery> queries() {
+        List<BatchQuery> queries = new ArrayList<>();
+        for (int from = 1978; from <= 2024; from++) {
+            queries.add(BatchQuery.smaYear(from));
+            queries.add(BatchQuery.averageDividends(from, from + 3));
+            for (int to = from; to <= from + 5; to += 5) {
+                queries.add(BatchQuery.smaOfSpecificPeriod(from, to));
+            }
+        }
+        queries.add(BatchQuery.smaOfDateRange(LocalDate.of(2020, 3, 1), LocalDate.of(2020, 3, 31)));
+        queries.add(BatchQuery.smaOfDateRange(LocalDate.of(1900, 1, 1), LocalDate.of(1900, 12, 31)));
+        queries.add(BatchQuery.exponentialMovingAverage(2020, 7, 16, 10));
+        queries.add(BatchQuery.exponentialMovingAverage(2019, 1, 2, 30));
+        return queries;
+    }
+
+    private List<BigDecimal> oneByOne(PriceSeries data, DividendSeries dividends, List<BatchQuery> queries) {
+        List<BigDecimal> answers = new ArrayList<>();
+        for (BatchQuery query : queries) {
+            switch (query.kind) {
+                case SMA_OF_SPECIFIC_PERIOD:
+                    answers.add(underTest.SMAOfSpecificPeriod(data, query.first, query.second));
+                    break;
+                case SMA_OF_DATE_RANGE:
+                    answers.add(underTest.SMAOfDateRange(data, LocalDate.ofEpochDay(query.first),
+                            LocalDate.ofEpochDay(query.second - 1L)));
+                    break;
+                case SMA_YEAR:
+                    answers.add(underTest.SMAYear(data, Integer.toString(query.first)));
+                    break;
+                case EXPONENTIAL_MOVING_AVERAGE:
+                    answers.add(underTest.ExponentialMovingAverage(data, query.first, query.second,
+                            query.third, query.fourth));
+                    break;
+                default:
+                    answers.add(underTest.averageDividends(dividends, query.first, query.second));
+            }
+        }
+        return answers;
+    }
+}
@@ -0,0 +1,58 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BatchRunnerTest {
+
+    BatchRunner underTest = new BatchRunner(20);
+
+    @Test
+    void itShouldAnalyzeEveryTickerOfTheDirectoryInParallel(@TempDir Path directory) throws Exception {
+        // given
+        Files.copy(Path.of("AAPL.csv"), directory.resolve("AAPL.csv"));
+        Files.copy(Path.of("AAPL-Dividends.csv"), directory.resolve("AAPL-Dividends.csv"));
+        Files.copy(Path.of("testingData.csv"), directory.resolve("TEST.csv"));
+        Files.writeString(directory.resolve("BAD.csv"), "Date,Open,High,Low,Close,Adj Close,Volume\nnot a row\n");
+        List<String> tickers = BatchRunner.findTickers(directory);
+
+        // when
+        List<BatchRunner.TickerResult> sequential = underTest.run(directory, tickers, 1);
+        List<BatchRunner.TickerResult> parallel = underTest.run(directory, tickers, 4);
+
+        // then
+        assertThat(tickers).containsExactly("AAPL", "BAD", "TEST");
+        assertThat(parallel).extracting(BatchRunner.TickerResult::toCsv)
+                .containsExactlyElementsOf(sequential.stream().map(BatchRunner.TickerResult::toCsv).toList());
+
+        BatchRunner.TickerResult apple = parallel.get(0);
+        assertThat(apple.error).isNull();
+        assertThat(apple.frequencyOfDividends).isEqualTo(3);
+        assertThat(apple.averageDividends).isGreaterThan(BigDecimal.ZERO);
+        assertThat(parallel.get(1).error).contains("line 2");
+        assertThat(parallel.get(2).rows).isEqualTo(2);
+    }
+
+    @Test
+    void itShouldWriteOneRowPerTicker(@TempDir Path directory) throws IOException {
+        // given
+        Path output = directory.resolve("results.csv");
+        List<BatchRunner.TickerResult> results = List.of(
+                new BatchRunner.TickerResult("AAPL", 2, new BigDecimal("1.500000"), 1.25,
+                        new BigDecimal("0.205000"), 3, null),
+                BatchRunner.TickerResult.failed("BAD", "no rows"));
+
+        // when
+        BatchRunner.write(results, output);
+
+        // then
+        assertThat(Files.readAllLines(output)).containsExactly(
+                BatchRunner.HEADER,
+                "AAPL,2,1.500000,1.250000,0.205000,3,",
+                "BAD,0,0,,0,0,\"no rows\"");
+    }
+}
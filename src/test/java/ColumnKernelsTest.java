@@ -0,0 +1,92 @@
+import org.junit.jupiter.api.Test;
+import java.io.File;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.Random;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ColumnKernelsTest {
+
+    TradingOffice tradingOffice = new TradingOffice();
+
+    @Test
+    void itShouldGiveTheSameResultsAsTheScalarKernels() {
+        // given
+        ColumnKernels scalar = ColumnKernels.scalar();
+        ColumnKernels best = ColumnKernels.best();
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()) {
+            assertThat(ColumnKernels.vector()).isNotNull();     // the vector profile
+        }
+        Random random = new Random(311);
+        long[] high = new long[1_003];
+        long[] low = new long[high.length];
+        for (int i = 0; i < high.length; i++) {
+            low[i] = random.nextLong() >> 4;
+            high[i] = low[i] + (random.nextLong() >>> 8);
+        }
+
+        for (int[] run : new int[][]{{0, 0}, {0, 1}, {3, 11}, {1, 1_000}, {0, 1_003}}) {
+            long[] expected = new long[ColumnKernels.HIGH_LOW_SLOTS];
+            long[] result = new long[ColumnKernels.HIGH_LOW_SLOTS];
+
+            // when
+            scalar.highLow(high, low, run[0], run[1], expected);
+            best.highLow(high, low, run[0], run[1], result);
+
+            // then
+            assertThat(result).containsExactly(expected);
+            assertThat(best.sum(high, run[0], run[1])).isEqualTo(scalar.sum(high, run[0], run[1]));
+            assertThat(best.min(low, run[0], run[1])).isEqualTo(scalar.min(low, run[0], run[1]));
+            assertThat(best.max(high, run[0], run[1])).isEqualTo(scalar.max(high, run[0], run[1]));
+        }
+    }
+
+    @Test
+    void itShouldCalculateThePriceRangeOfAYear() throws IOException {
+        // given
+        PriceSeries prices = tradingOffice.getPriceSeriesFromCSV(new File("AAPL.csv"));
+        int first = prices.dateIndex().firstOnOrAfter(EpochDays.of(2020, 1, 1));
+        int end = prices.dateIndex().firstOnOrAfter(EpochDays.of(2021, 1, 1));
+
+        BigDecimal lowest = null;
+        BigDecimal highest = null;
+        BigDecimal dailyRanges = BigDecimal.ZERO;
+        for (int i = first; i < end; i++) {
+            BigDecimal high = FixedPoint.toBigDecimal(prices.high[i]);
+            BigDecimal low = FixedPoint.toBigDecimal(prices.low[i]);
+            lowest = lowest == null ? low : lowest.min(low);
+            highest = highest == null ? high : highest.max(high);
+            dailyRanges = dailyRanges.add(high.subtract(low));
+        }
+
+        // when
+        PriceRange result = tradingOffice.priceRange(prices, LocalDate.of(2020, 1, 1), LocalDate.of(2020, 12, 31));
+
+        // then
+        assertThat(result.rows).isEqualTo(end - first);
+        assertThat(result.averageClose).isEqualTo(tradingOffice.SMAYear(prices, "2020"));
+        assertThat(result.lowest).isEqualTo(lowest);
+        assertThat(result.highest).isEqualTo(highest);
+        assertThat(result.range).isEqualTo(highest.subtract(lowest));
+        assertThat(result.averageDailyRange)
+                .isEqualTo(dailyRanges.divide(BigDecimal.valueOf(end - first), 6, RoundingMode.HALF_UP));
+    }
+
+    @Test
+    void itShouldAddTheDailyRangesAsBigDecimalWhenTheSumsOverflow() {
+        // given
+        PriceSeries.Builder builder = new PriceSeries.Builder(3);
+        long huge = Long.MAX_VALUE / 2;
+        for (int i = 0; i < 3; i++) {
+            builder.add(EpochDays.of(2020, 1, 2 + i), 0, huge, huge - 1_000000L * (i + 1), 0, 0, 1);
+        }
+
+        // when
+        PriceRange result = PriceRange.of(builder.build(), 0, 3, ColumnKernels.best());
+
+        // then
+        assertThat(result.averageDailyRange).isEqualTo(new BigDecimal("2.000000"));
+    }
+}
@@ -0,0 +1,197 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CsvSeriesReaderTest {
+
+    TradingOffice tradingOffice = new TradingOffice();
+
+    @Test
+    void itShouldReadTheSameColumnsAsTheLineReader() throws IOException {
+        // given
+        PriceSeries expected = PriceSeries.fromRows(tradingOffice.getDataFromCSV(new File("AAPL.csv")));
+
+        // when
+        PriceSeries result = CsvSeriesReader.readPrices(Path.of("AAPL.csv"));
+
+        // then
+        assertThat(result.size()).isEqualTo(expected.size());
+        assertThat(result.closeScale).isEqualTo(expected.closeScale);
+        assertThat(Arrays.copyOf(result.epochDays, result.size()))
+                .isEqualTo(Arrays.copyOf(expected.epochDays, expected.size()));
+        assertThat(Arrays.copyOf(result.close, result.size()))
+                .isEqualTo(Arrays.copyOf(expected.close, expected.size()));
+        assertThat(Arrays.copyOf(result.volume, result.size()))
+                .isEqualTo(Arrays.copyOf(expected.volume, expected.size()));
+    }
+
+    @Test
+    void itShouldReadAFileOutsideTheWorkingDirectory(@TempDir Path directory) throws IOException {
+        // given
+        Path file = directory.resolve("AAPL-Dividends.csv");
+        Files.writeString(file, "Date,Dividends\r\n2020-02-07,0.1925\r\n2020-05-08,0.205000\r\n");
+
+        // when
+        DividendSeries result = tradingOffice.getDividendSeriesFromCSV(file.toFile());
+        ArrayList<String[]> rows = tradingOffice.getDataFromCSV(file.toFile());
+
+        // then
+        assertThat(result.size()).isEqualTo(2);
+        assertThat(result.amounts[0]).isEqualTo(192_500L);
+        assertThat(result.amountScale).isEqualTo(6);
+        assertThat(result.epochDays[1]).isEqualTo(EpochDays.of(2020, 5, 8));
+        assertThat(rows).hasSize(2);
+    }
+
+    @Test
+    void itShouldStreamTheFileInChunksAcrossSmallWindows() throws IOException {
+        // given
+        PriceSeries whole = CsvSeriesReader.readPrices(Path.of("AAPL.csv"));
+        long expectedSum = 0;
+        for (int i = 0; i < whole.size(); i++) expectedSum += whole.close[i];
+
+        long[] sum = new long[1];
+        int[] lastDay = new int[1];
+
+        // when
+        long rows = CsvSeriesReader.streamPrices(Path.of("AAPL.csv"), 1000, 4096, chunk -> {
+            assertThat(chunk.size()).isLessThanOrEqualTo(1000);
+            for (int i = 0; i < chunk.size(); i++) {
+                assertThat(chunk.epochDays[i]).isGreaterThan(lastDay[0]);
+                lastDay[0] = chunk.epochDays[i];
+                sum[0] += chunk.close[i];
+            }
+        });
+
+        // then
+        assertThat(rows).isEqualTo(whole.size());
+        assertThat(sum[0]).isEqualTo(expectedSum);
+    }
+
+    @Test
+    void itShouldRejectAMalformedRowWithItsLineNumber(@TempDir Path directory) throws IOException {
+        // given
+        Path file = directory.resolve("bad.csv");
+        Files.writeString(file, "Date,Open,High,Low,Close,Adj Close,Volume\n" +
+                "1980-12-12,0.128348,0.128906,0.128348,0.128348,0.100453,469033600\n" +
+                "1980-12-15,null,null,null,null,null,null\n");
+
+        // then
+        assertThatThrownBy(() -> CsvSeriesReader.readPrices(file))
+                .isInstanceOf(NumberFormatException.class)
+                .hasMessageContaining("line 3");
+    }
+
+    @Test
+    void itShouldReportTheBadRowsAndKeepTheGoodOnes(@TempDir Path directory) throws IOException {
+        // given
+        Path file = directory.resolve("bad.csv");
+        Files.writeString(file, "Date,Open,High,Low,Close,Adj Close,Volume\n" +
+                "1980-12-12,0.128348,0.128906,0.128348,0.128348,0.100453,469033600\n" +
+                "1980-12-15,null,null,null,null,null,null\n" +
+                "1980-12-16,0.113281,0.113281,0.112723,0.112723,0.08823,26432000\n" +
+                "1980-12-16,0.2,0.2,0.2,0.2,0.2,1\n" +
+                "1980-12-17,0.11,abc,0.11,0.11,0.11,100\n" +
+                "1980-12-18,0.118862,0.119420,0.118862,0.118862,0.093037,18362400\n");
+        ValidationReport report = new ValidationReport();
+
+        // when
+        PriceSeries result = CsvSeriesReader.readPrices(file, report);
+
+        // then
+        assertThat(result.size()).isEqualTo(3);
+        assertThat(Arrays.copyOf(result.epochDays, result.size()))
+                .containsExactly(EpochDays.of(1980, 12, 12), EpochDays.of(1980, 12, 16), EpochDays.of(1980, 12, 18));
+        assertThat(result.close[1]).isEqualTo(112_723L);
+        assertThat(result.dateIndex().isSorted()).isTrue();
+        assertThat(report.rowsRead()).isEqualTo(6);
+        assertThat(report.rejected()).isEqualTo(3);
+        assertThat(report.issues()).extracting(issue -> issue.line).containsExactly(3L, 5L, 6L);
+        assertThat(report.count(ValidationReport.Problem.NULL_ROW)).isEqualTo(1);
+        assertThat(report.count(ValidationReport.Problem.DUPLICATE_DATE)).isEqualTo(1);
+        assertThat(report.count(ValidationReport.Problem.MALFORMED)).isEqualTo(1);
+    }
+
+    @Test
+    void itShouldSortRowsOutOfOrderAndDropTheLaterRowOfADate(@TempDir Path directory) throws IOException {
+        // given
+        Path file = directory.resolve("AAPL-Dividends.csv");
+        Files.writeString(file, "Date,Dividends\n" +
+                "2020-05-08,0.82\n" +
+                "2020-02-07,0.77\n" +
+                "2020-08-07,0.82\n" +
+                "2020-02-07,0.5\n" +
+                "2020-11-06,-0.205\n");
+        ValidationReport report = new ValidationReport();
+
+        // when
+        DividendSeries result = tradingOffice.getDividendSeriesFromCSV(file.toFile(), report);
+        report.write(directory.resolve("report.csv"));
+
+        // then
+        assertThat(Arrays.copyOf(result.epochDays, result.size()))
+                .containsExactly(EpochDays.of(2020, 2, 7), EpochDays.of(2020, 5, 8), EpochDays.of(2020, 8, 7));
+        assertThat(Arrays.copyOf(result.amounts, result.size())).containsExactly(770_000L, 820_000L, 820_000L);
+        assertThat(result.dateIndex().isSorted()).isTrue();
+        // the second 2020-02-07 is out of order too, but it is dropped so it is only rejected
+        assertThat(report.count(ValidationReport.Problem.OUT_OF_ORDER)).isEqualTo(1);
+        assertThat(report.count(ValidationReport.Problem.DUPLICATE_DATE)).isEqualTo(1);
+        assertThat(report.count(ValidationReport.Problem.MALFORMED)).isEqualTo(1);
+        assertThat(report.rejected()).isEqualTo(2);
+        assertThat(report.issues()).filteredOn(issue -> issue.line == 5L).hasSize(1);
+        assertThat(Files.readAllLines(directory.resolve("report.csv")))
+                .first().isEqualTo(ValidationReport.HEADER);
+        assertThat(Files.readAllLines(directory.resolve("report.csv"))).hasSize(4);
+    }
+
+    @Test
+    void itShouldReadAGoodFileTheSameWayWithAReport() throws IOException {
+        // given
+        PriceSeries expected = CsvSeriesReader.readPrices(Path.of("AAPL.csv"));
+        ValidationReport report = new ValidationReport();
+
+        // when
+        PriceSeries result = CsvSeriesReader.readPrices(Path.of("AAPL.csv"), report);
+
+        // then
+        assertThat(report.isClean()).isTrue();
+        assertThat(report.rowsRead()).isEqualTo(expected.size());
+        assertThat(result.dateIndex().isSorted()).isTrue();
+        assertThat(Arrays.copyOf(result.close, result.size()))
+                .isEqualTo(Arrays.copyOf(expected.close, expected.size()));
+    }
+
+    @Test
+    void itShouldRejectDatesThatDoNotExistAndTrailingSeparators(@TempDir Path directory) throws IOException {
+        // given
+        Path file = directory.resolve("AAPL-Dividends.csv");
+        Files.writeString(file, "Date,Dividends\n" +
+                "2020-02-29,0.1\n" +
+                "2021-02-29,0.2\n" +
+                "2021-02-30,0.3\n" +
+                "2021-04-31,0.4\n" +
+                "2021-05-07,0.5,\n" +
+                "2021-08-06,0.6\n");
+        ValidationReport report = new ValidationReport();
+
+        // when
+        DividendSeries result = CsvSeriesReader.readDividends(file, report);
+
+        // then
+        assertThat(Arrays.copyOf(result.epochDays, result.size()))
+                .containsExactly(EpochDays.of(2020, 2, 29), EpochDays.of(2021, 8, 6));
+        assertThat(report.count(ValidationReport.Problem.MALFORMED)).isEqualTo(4);
+        assertThat(report.issues()).extracting(issue -> issue.line).containsExactly(3L, 4L, 5L, 6L);
+        assertThat(report.rejected()).isEqualTo(4);
+        assertThatThrownBy(() -> CsvSeriesReader.readDividends(file))
+                .isInstanceOf(NumberFormatException.class)
+                .hasMessageContaining("line 3");
+    }
+}
@@ -0,0 +1,57 @@
+import org.junit.jupiter.api.Test;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+class DateIndexTest {
+
+    int[] dates = {
+            EpochDays.of(2019, 12, 31),
+            EpochDays.of(2020, 7, 22),
+            EpochDays.of(2020, 7, 24),
+            EpochDays.of(2020, 7, 27),
+            EpochDays.of(2021, 7, 27)
+    };
+
+    DateIndex underTest = DateIndex.of(dates, dates.length);
+
+    @Test
+    void itShouldFindTheFirstRowOnOrAfterADate() {
+        assertThat(underTest.firstOnOrAfter(EpochDays.of(2020, 7, 24))).isEqualTo(2);
+        assertThat(underTest.firstOnOrAfter(EpochDays.of(2020, 7, 25))).isEqualTo(3);
+        assertThat(underTest.firstOnOrAfter(EpochDays.of(1980, 1, 1))).isEqualTo(0);
+        assertThat(underTest.firstOnOrAfter(EpochDays.of(2022, 1, 1))).isEqualTo(5);
+    }
+
+    @Test
+    void itShouldGiveTheRowsOfAPeriod() {
+        // when
+        int first = underTest.firstOnOrAfter(EpochDays.of(2020, 1, 1));
+        int end = underTest.endOfRange(EpochDays.of(2020, 12, 31));
+
+        // then
+        assertThat(first).isEqualTo(1);
+        assertThat(end).isEqualTo(4);
+    }
+
+    @Test
+    void itShouldTellWhetherAYearHasARow() {
+        assertThat(underTest.yearExists(2020)).isTrue();
+        assertThat(underTest.yearExists(2019)).isTrue();
+        assertThat(underTest.yearExists(2018)).isFalse();
+        assertThat(underTest.yearExists(2022)).isFalse();
+    }
+
+    @Test
+    void itShouldStillFindDatesWhenTheColumnIsNotSorted() {
+        // given
+        int[] unsorted = {dates[3], dates[0], dates[4]};
+        DateIndex index = DateIndex.of(unsorted, unsorted.length);
+
+        // then
+        assertThat(index.isSorted()).isFalse();
+        assertThat(index.indexOf(dates[4])).isEqualTo(2);
+        assertThat(index.indexOf(dates[1])).isEqualTo(-1);
+        assertThat(index.yearExists(2019)).isTrue();
+        assertThatIllegalStateException().isThrownBy(() -> index.firstOnOrAfter(dates[0]));
+    }
+}
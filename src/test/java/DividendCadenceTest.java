@@ -0,0 +1,116 @@
+import org.junit.jupiter.api.Test;
+import java.io.File;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DividendCadenceTest {
+
+    TradingOffice tradingOffice = new TradingOffice();
+
+    @Test
+    void itShouldDescribeAQuarterlyCadence() {
+        // given
+        ArrayList<String[]> data = new ArrayList<>(){
+            {
+                add(new String[]{"2020-02-07", "0.192500"});
+                add(new String[]{"2020-05-08", "0.205000"});
+                add(new String[]{"2020-08-07", "0.205000"});
+                add(new String[]{"2020-11-06", "0.205000"});
+                add(new String[]{"2021-02-05", "0.205000"});
+            }
+        };
+
+        // when
+        DividendCadence result = tradingOffice.dividendCadence(DividendSeries.fromRows(data));
+
+        // then
+        assertThat(result.payouts).isEqualTo(5);
+        assertThat(result.averageGapDays).isEqualTo(91.0);
+        assertThat(result.medianGapDays).isEqualTo(91.0);
+        assertThat(result.modalGapDays).isEqualTo(91);
+        assertThat(result.medianGapMonths).isEqualTo(3.0);
+        assertThat(result.modalGapMonths).isEqualTo(3);
+        assertThat(result.payoutsOf(2020)).isEqualTo(4);
+        assertThat(result.payoutsOf(2021)).isEqualTo(1);
+        assertThat(result.cadence).isEqualTo(DividendCadence.Cadence.QUARTERLY);
+        assertThat(result.changes).isEmpty();
+    }
+
+    @Test
+    void itShouldCountGapsLongerThanTheHistogram() {
+        // given a payout, fifteen years without one, then gaps of 12 years
+        ArrayList<String[]> data = new ArrayList<>(){
+            {
+                add(new String[]{"1985-01-02", "0.1"});
+                add(new String[]{"2000-01-03", "0.1"});
+                add(new String[]{"2012-01-03", "0.1"});
+                add(new String[]{"2024-01-03", "0.1"});
+                add(new String[]{"2024-04-03", "0.1"});
+            }
+        };
+
+        // when
+        DividendCadence result = tradingOffice.dividendCadence(DividendSeries.fromRows(data));
+
+        // then the gaps are 5479, 4383, 4383 and 91 days, 180, 144, 144 and 3 months
+        assertThat(result.medianGapDays).isEqualTo(4383.0);
+        assertThat(result.modalGapDays).isEqualTo(4383);
+        assertThat(result.medianGapMonths).isEqualTo(144.0);
+        assertThat(result.modalGapMonths).isEqualTo(144);
+    }
+
+    @Test
+    void itShouldDetectAChangeFromQuarterlyToMonthly() {
+        // given
+        DividendSeries.Builder builder = new DividendSeries.Builder(16);
+        LocalDate date = LocalDate.of(2018, 1, 15);
+        for (int i = 0; i < 4; i++, date = date.plusMonths(3)) builder.add((int) date.toEpochDay(), 100_000L);
+        LocalDate monthly = date;
+        for (int i = 0; i < 6; i++, date = date.plusMonths(1)) builder.add((int) date.toEpochDay(), 40_000L);
+
+        // when
+        DividendCadence result = DividendCadence.of(builder.build());
+
+        // then
+        assertThat(result.cadence).isEqualTo(DividendCadence.Cadence.MONTHLY);
+        assertThat(result.changes).hasSize(1);
+        assertThat(result.changes.get(0).from).isEqualTo(DividendCadence.Cadence.QUARTERLY);
+        assertThat(result.changes.get(0).to).isEqualTo(DividendCadence.Cadence.MONTHLY);
+        assertThat(result.changes.get(0).epochDay).isEqualTo((int) monthly.toEpochDay());
+    }
+
+    @Test
+    void itShouldKeepTheFrequencyOfTheNestedLoopOnTheWholeFile() throws IOException {
+        // given
+        ArrayList<String[]> rows = tradingOffice.getDataFromCSV(new File("AAPL-Dividends.csv"));
+
+        int months = 0;
+        int counter = 0;
+        for (int i = 0; i < rows.size(); i++) {
+            LocalDate first = LocalDate.parse(rows.get(i)[0]);
+            for (int j = i + 1; j < rows.size(); j++) {
+                if (first.getYear() == LocalDate.parse(rows.get(j)[0]).getYear()) {
+                    months += Math.abs(LocalDate.parse(rows.get(i + 1)[0]).getMonthValue() - first.getMonthValue());
+                    counter++;
+                }
+            }
+        }
+
+        // when
+        int result = tradingOffice.frequencyOfDividendsDistribution(rows);
+
+        // then
+        assertThat(result).isEqualTo(months / counter);
+    }
+
+    @Test
+    void itShouldFindTheSameMonthAndYearAsLocalDate() {
+        for (int day = EpochDays.of(1600, 1, 1); day < EpochDays.of(2400, 1, 1); day += 7) {
+            LocalDate date = LocalDate.ofEpochDay(day);
+            assertThat(EpochDays.year(day)).isEqualTo(date.getYear());
+            assertThat(EpochDays.month(day)).isEqualTo(date.getMonthValue());
+        }
+    }
+}
@@ -0,0 +1,82 @@
+import org.junit.jupiter.api.Test;
+import java.io.File;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FixedPointTest {
+
+    TradingOffice fixedPoint = new TradingOffice(TradingOffice.Arithmetic.FIXED_POINT);
+    TradingOffice bigDecimal = new TradingOffice(TradingOffice.Arithmetic.BIG_DECIMAL);
+
+    @Test
+    void itShouldRoundTheSmoothingFactorLikeBigDecimal() {
+        for (int days = 1; days <= 2_000; days++) {
+            BigDecimal expected = new BigDecimal("2.00").divide(BigDecimal.valueOf(days + 1), RoundingMode.HALF_UP);
+            assertThat(FixedPoint.smoothingFactorHundredths(days)).isEqualTo(expected.unscaledValue().longValue());
+        }
+    }
+
+    @Test
+    void itShouldGiveTheSameEmaAsBigDecimalOnTheWholeFile() throws IOException {
+        // given
+        PriceSeries prices = fixedPoint.getPriceSeriesFromCSV(new File("AAPL.csv"));
+
+        for (int days : new int[]{1, 2, 5, 10, 20, 50, 200}) {
+            for (int i = 0; i + days <= prices.size(); i += 7) {
+                LocalDate date = LocalDate.ofEpochDay(prices.epochDays[i]);
+
+                // when
+                BigDecimal result = fixedPoint.ExponentialMovingAverage(prices,
+                        date.getYear(), date.getMonthValue(), date.getDayOfMonth(), days);
+
+                // then
+                assertThat(result).isEqualTo(bigDecimal.ExponentialMovingAverage(prices,
+                        date.getYear(), date.getMonthValue(), date.getDayOfMonth(), days));
+            }
+        }
+    }
+
+    @Test
+    void itShouldGiveTheSameAveragesAsBigDecimal() throws IOException {
+        // given
+        PriceSeries prices = fixedPoint.getPriceSeriesFromCSV(new File("AAPL.csv"));
+        DividendSeries dividends = fixedPoint.getDividendSeriesFromCSV(new File("AAPL-Dividends.csv"));
+
+        // then
+        assertThat(fixedPoint.SMA(prices)).isEqualTo(bigDecimal.SMA(prices));
+        for (int year = 1980; year <= 2022; year++) {
+            assertThat(fixedPoint.SMAYear(prices, String.valueOf(year)))
+                    .isEqualTo(bigDecimal.SMAYear(prices, String.valueOf(year)));
+            assertThat(fixedPoint.SMAOfSpecificPeriod(prices, year, year + 3))
+                    .isEqualTo(bigDecimal.SMAOfSpecificPeriod(prices, year, year + 3));
+            assertThat(fixedPoint.averageDividends(dividends, year, year + 3))
+                    .isEqualTo(bigDecimal.averageDividends(dividends, year, year + 3));
+        }
+    }
+
+    @Test
+    void itShouldFallBackToBigDecimalWhenTheMicrosOverflow() {
+        // given
+        PriceSeries.Builder builder = new PriceSeries.Builder(4);
+        long huge = Long.MAX_VALUE / 3;
+        for (int i = 0; i < 4; i++) {
+            builder.add(EpochDays.of(2020, 1, 2 + i), huge, huge, huge, huge - i, huge, 1);
+        }
+        PriceSeries prices = builder.closeScale(FixedPoint.SCALE).build();
+
+        // when
+        BigDecimal sma = fixedPoint.SMA(prices);
+        BigDecimal year = fixedPoint.SMAYear(prices, "2020");
+        BigDecimal ema = fixedPoint.ExponentialMovingAverage(prices, 2020, 1, 2, 3);
+
+        // then
+        assertThat(prices.closeSums().isExact()).isFalse();
+        assertThat(FixedPoint.emaHalfUp(prices.close, 0, 3)).isEqualTo(FixedPoint.INEXACT);
+        assertThat(sma).isEqualTo(bigDecimal.SMA(prices));
+        assertThat(year).isEqualTo(sma);
+        assertThat(ema).isEqualTo(bigDecimal.ExponentialMovingAverage(prices, 2020, 1, 2, 3));
+    }
+}
@@ -0,0 +1,140 @@
+import org.junit.jupiter.api.Test;
+import java.io.File;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class FusedIndicatorsTest {
+
+    TradingOffice tradingOffice = new TradingOffice();
+
+    @Test
+    void itShouldGiveTheValuesOfANaiveReference() throws IOException {
+        // given
+        PriceSeries series = tradingOffice.getPriceSeriesFromCSV(new File("AAPL.csv"));
+        int window = 14;
+        int from = 100;
+        int to = series.size();
+        FusedIndicators.Output out = new FusedIndicators.Output(to - from);
+
+        // when
+        FusedIndicators.compute(series, window, 2.0, from, to, out);
+
+        // then
+        double[] atr = naiveAtr(series, window, to);
+        double[] rsi = naiveRsi(series, window, to);
+        for (int i = from; i < to; i++) {
+            double mean = 0;
+            double priceVolume = 0;
+            long volume = 0;
+            for (int j = i - window + 1; j <= i; j++) {
+                mean += close(series, j) / window;
+                priceVolume += (high(series, j) + low(series, j) + close(series, j)) / 3 * series.volume[j];
+                volume += series.volume[j];
+            }
+            double squares = 0;
+            for (int j = i - window + 1; j <= i; j++) {
+                squares += (close(series, j) - mean) * (close(series, j) - mean);
+            }
+            double deviation = Math.sqrt(squares / window);
+            double tolerance = 1e-9 * Math.max(1, mean);
+
+            int row = i - from;
+            assertThat(out.middleBand[row]).isCloseTo(mean, within(tolerance));
+            assertThat(out.standardDeviation[row]).isCloseTo(deviation, within(tolerance));
+            assertThat(out.upperBand[row]).isCloseTo(mean + 2 * deviation, within(tolerance));
+            assertThat(out.lowerBand[row]).isCloseTo(mean - 2 * deviation, within(tolerance));
+            assertThat(out.vwap[row]).isCloseTo(priceVolume / volume, within(tolerance));
+            assertThat(out.atr[row]).isCloseTo(atr[i], within(tolerance));
+            assertThat(out.rsi[row]).isCloseTo(rsi[i], within(1e-9));
+        }
+    }
+
+    @Test
+    void itShouldWriteNaNBeforeTheFirstWindow() {
+        // given
+        ArrayList<String[]> rows = new ArrayList<>();
+        String[] closes = {"10", "11", "10", "12"};
+        for (int i = 0; i < closes.length; i++) {
+            rows.add(new String[]{"2020-01-0" + (i + 1), closes[i], "13", "9", closes[i], closes[i], "100"});
+        }
+
+        // when
+        FusedIndicators.Output out = tradingOffice.fusedIndicators(PriceSeries.fromRows(rows), 3, 2.0,
+                LocalDate.of(2020, 1, 1), LocalDate.of(2020, 1, 4));
+
+        // then
+        assertThat(out.middleBand[1]).isNaN();
+        assertThat(out.middleBand[2]).isCloseTo(31.0 / 3, within(1e-12));
+        assertThat(out.middleBand[3]).isCloseTo(11.0, within(1e-12));
+        assertThat(out.standardDeviation[1]).isNaN();
+        assertThat(out.atr[1]).isNaN();
+        assertThat(out.atr[2]).isCloseTo(4.0, within(1e-12));
+        assertThat(out.atr[3]).isCloseTo(4.0, within(1e-12));
+        // the changes are +1, -1, +2: gains 3/3 and losses 1/3 on the 4th
+        assertThat(out.rsi[2]).isNaN();
+        assertThat(out.rsi[3]).isCloseTo(75.0, within(1e-12));
+        // the typical prices of the last three days are 33/3, 32/3 and 34/3 with the same volume
+        assertThat(out.vwap[3]).isCloseTo(11.0, within(1e-12));
+    }
+
+    private static double[] naiveAtr(PriceSeries series, int window, int to) {
+        double[] atr = new double[to];
+        double value = Double.NaN;
+        for (int i = 0; i < to; i++) {
+            if (i == window - 1) {
+                double sum = 0;
+                for (int j = 0; j < window; j++) sum += trueRange(series, j);
+                value = sum / window;
+            } else if (i >= window) {
+                value = (value * (window - 1) + trueRange(series, i)) / window;
+            }
+            atr[i] = value;
+        }
+        return atr;
+    }
+
+    private static double[] naiveRsi(PriceSeries series, int window, int to) {
+        double[] rsi = new double[to];
+        double gain = Double.NaN;
+        double loss = Double.NaN;
+        for (int i = 0; i < to; i++) {
+            if (i == window) {
+                gain = 0;
+                loss = 0;
+                for (int j = 1; j <= window; j++) {
+                    double change = close(series, j) - close(series, j - 1);
+                    gain += Math.max(change, 0) / window;
+                    loss += Math.max(-change, 0) / window;
+                }
+            } else if (i > window) {
+                double change = close(series, i) - close(series, i - 1);
+                gain = (gain * (window - 1) + Math.max(change, 0)) / window;
+                loss = (loss * (window - 1) + Math.max(-change, 0)) / window;
+            }
+            rsi[i] = loss == 0 ? (gain == 0 ? 50 : 100) : 100 - 100 / (1 + gain / loss);
+        }
+        return rsi;
+    }
+
+    private static double trueRange(PriceSeries series, int i) {
+        if (i == 0) return high(series, 0) - low(series, 0);
+        double previous = close(series, i - 1);
+        return Math.max(high(series, i) - low(series, i),
+                Math.max(Math.abs(high(series, i) - previous), Math.abs(low(series, i) - previous)));
+    }
+
+    private static double close(PriceSeries series, int i) {
+        return series.close[i] / 1e6;
+    }
+
+    private static double high(PriceSeries series, int i) {
+        return series.high[i] / 1e6;
+    }
+
+    private static double low(PriceSeries series, int i) {
+        return series.low[i] / 1e6;
+    }
+}
@@ -0,0 +1,69 @@
+import org.junit.jupiter.api.Test;
+import java.io.File;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+class LiveIndicatorsTest {
+
+    TradingOffice tradingOffice = new TradingOffice();
+
+    @Test
+    void itShouldKeepTheSameMovingAveragesAsTheRollingSeries() throws IOException {
+        // given
+        PriceSeries series = tradingOffice.getPriceSeriesFromCSV(new File("AAPL.csv"));
+        LocalDate from = LocalDate.ofEpochDay(series.epochDays[0]);
+        LocalDate to = LocalDate.ofEpochDay(series.epochDays[series.size() - 1]);
+        double[] sma = tradingOffice.rollingSMA(series, 20, from, to);
+        double[] ema = tradingOffice.rollingEMA(series, 20, from, to);
+
+        LiveIndicators.Sma liveSma = new LiveIndicators.Sma(20);
+        LiveIndicators.Ema liveEma = new LiveIndicators.Ema(20);
+
+        for (int i = 0; i < series.size(); i++) {
+            // when
+            liveSma.onBar(series.epochDays[i], series.close[i]);
+            liveEma.onBar(series.epochDays[i], series.close[i]);
+
+            // then
+            assertThat(Double.valueOf(liveSma.value())).isEqualTo(Double.valueOf(sma[i]));
+            assertThat(Double.valueOf(liveEma.value())).isEqualTo(Double.valueOf(ema[i]));
+        }
+    }
+
+    @Test
+    void itShouldKeepTheSameDividendStatisticsAsTheBatchMethods() throws IOException {
+        // given
+        ArrayList<String[]> rows = tradingOffice.getDataFromCSV(new File("AAPL-Dividends.csv"));
+        LiveIndicators.AverageDividends average = new LiveIndicators.AverageDividends();
+        LiveIndicators.DividendFrequency frequency = new LiveIndicators.DividendFrequency();
+
+        ArrayList<String[]> seen = new ArrayList<>();
+        for (String[] row : rows) {
+            // when
+            average.onDividend(row);
+            frequency.onDividend(row);
+            seen.add(row);
+
+            // then
+            assertThat(frequency.value()).isEqualTo(tradingOffice.frequencyOfDividendsDistribution(seen));
+        }
+        for (int from = 1985; from <= 2022; from += 2) {
+            assertThat(average.average(from, from + 4))
+                    .isEqualTo(tradingOffice.averageDividends(rows, from, from + 4));
+        }
+    }
+
+    @Test
+    void itShouldRejectABarThatIsNotAfterTheLastOne() {
+        // given
+        LiveIndicators.Sma sma = new LiveIndicators.Sma(3);
+        sma.onBar(EpochDays.of(2020, 7, 22), 10_000000L);
+
+        // then
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> sma.onBar(EpochDays.of(2020, 7, 22), 11_000000L));
+    }
+}
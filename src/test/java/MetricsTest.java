@@ -0,0 +1,117 @@
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import javax.management.JMException;
+import javax.management.ObjectName;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class MetricsTest {
+
+    TradingOffice tradingOffice = new TradingOffice();
+
+    @AfterEach
+    void turnTheMetricsOff() {
+        Metrics.disable();
+        Metrics.reset();
+    }
+
+    @Test
+    void itShouldNotCountWhenTheMetricsAreOff() throws IOException {
+        // given
+        PriceSeries prices = tradingOffice.getPriceSeriesFromCSV(new File("AAPL.csv"));
+
+        // when
+        tradingOffice.SMAYear(prices, "2020");
+
+        // then
+        assertThat(Metrics.start()).isZero();
+        assertThat(Metrics.operation("SMAYear").getCalls()).isZero();
+    }
+
+    @Test
+    void itShouldCountTheCallsRowsAndBytes() throws IOException {
+        // given
+        Metrics.enable();
+        File file = new File("AAPL.csv");
+
+        // when
+        int rows = tradingOffice.getDataFromCSV(file).size();
+        PriceSeries prices = tradingOffice.getPriceSeriesFromCSV(file);
+        tradingOffice.SMAYear(prices, "2020");
+        tradingOffice.SMAYear(prices, "2021");
+        tradingOffice.ExponentialMovingAverage(prices, 2020, 3, 2, 20);
+
+        // then
+        Metrics.Operation read = Metrics.operation("getDataFromCSV");
+        assertThat(read.getCalls()).isEqualTo(1);
+        assertThat(read.getRowsScanned()).isEqualTo(rows);
+        assertThat(read.getBytesRead()).isEqualTo(file.length());
+
+        Metrics.Operation smaYear = Metrics.operation("SMAYear");
+        assertThat(smaYear.getCalls()).isEqualTo(2);
+        assertThat(smaYear.getRowsScanned()).isZero();     // answered from the running totals
+        assertThat(smaYear.getP99Micros()).isGreaterThan(0).isGreaterThanOrEqualTo(smaYear.getP50Micros());
+        assertThat(Metrics.operation("ExponentialMovingAverage").getRowsScanned()).isEqualTo(20);
+
+        assertThat(Metrics.dump()).contains("SMAYear").contains("getDataFromCSV").doesNotContain("rollingEMA");
+    }
+
+    @Test
+    void itShouldCountTheRowsOfTheBigDecimalFallback() {
+        // given
+        Metrics.enable();
+        PriceSeries.Builder builder = new PriceSeries.Builder(4);
+        long huge = Long.MAX_VALUE / 3;
+        for (int i = 0; i < 4; i++) {
+            builder.add(EpochDays.of(2020, 1, 2 + i), huge, huge, huge, huge - i, huge, 1);
+        }
+        PriceSeries prices = builder.closeScale(FixedPoint.SCALE).build();
+
+        // when
+        tradingOffice.SMA(prices);
+        tradingOffice.SMAYear(prices, "2020");
+
+        // then
+        assertThat(prices.closeSums().isExact()).isFalse();
+        assertThat(Metrics.operation("SMA").getRowsScanned()).isEqualTo(4);
+        assertThat(Metrics.operation("SMAYear").getRowsScanned()).isEqualTo(4);
+    }
+
+    @Test
+    void itShouldPublishTheOperationsThroughJmx() throws JMException {
+        // given
+        Metrics.enable();
+        Metrics.operation("SMA").stop(System.nanoTime() - 1_000, 0, 0);
+
+        // when
+        Object calls = ManagementFactory.getPlatformMBeanServer().getAttribute(
+                new ObjectName(Metrics.DOMAIN + ":type=Metrics,name=\"SMA\""), "Calls");
+
+        // then
+        assertThat(calls).isEqualTo(1L);
+    }
+
+    @Test
+    void itShouldKeepThePercentilesWithinThreePercent() {
+        // given
+        Metrics.Histogram histogram = new Metrics.Histogram();
+
+        // when
+        for (long value = 1; value <= 100_000; value++) {
+            histogram.record(value * 1_000);
+        }
+
+        // then
+        assertThat((double) histogram.percentile(0.50)).isCloseTo(50_000_000, within(1_500_000.0));
+        assertThat((double) histogram.percentile(0.99)).isCloseTo(99_000_000, within(3_000_000.0));
+        assertThat((double) histogram.percentile(0.999)).isCloseTo(99_900_000, within(3_000_000.0));
+        for (long value : new long[]{0, 1, 31, 32, 63, 64, 65, 1_000_003, Long.MAX_VALUE}) {
+            int bucket = Metrics.Histogram.bucketOf(value);
+            assertThat(Metrics.Histogram.highestValueOf(bucket)).isGreaterThanOrEqualTo(value);
+            if (bucket > 0) assertThat(Metrics.Histogram.highestValueOf(bucket - 1)).isLessThan(value);
+        }
+    }
+}
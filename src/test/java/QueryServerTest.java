@@ -0,0 +1,83 @@
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class QueryServerTest {
+
+    TradingOffice tradingOffice = new TradingOffice();
+    HttpClient client = HttpClient.newHttpClient();
+    PriceSeries prices;
+    DividendSeries dividends;
+    QueryServer server;
+
+    @BeforeEach
+    void start() throws IOException {
+        prices = tradingOffice.getPriceSeriesFromCSV(new File("AAPL.csv"));
+        dividends = tradingOffice.getDividendSeriesFromCSV(new File("AAPL-Dividends.csv"));
+        server = new QueryServer(prices, dividends, 0, 4);
+    }
+
+    @AfterEach
+    void stop() {
+        server.stop();
+    }
+
+    @Test
+    void itShouldAnswerAQueryAsJson() throws Exception {
+        // when
+        HttpResponse<String> response = get("/query?q=SMAYear:2020");
+
+        // then
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(response.headers().firstValue("Content-Type")).hasValue("application/json");
+        assertThat(response.body()).isEqualTo("{\"query\":\"SMAYear:2020\",\"result\":" +
+                tradingOffice.SMAYear(prices, "2020") + "}");
+    }
+
+    @Test
+    void itShouldAnswerSeveralQueriesAsAnArray() throws Exception {
+        // when
+        HttpResponse<String> response = get("/query?q=averageDividends:2019:2020&q=EMA%3A2020%3A7%3A16%3A10");
+
+        // then
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(response.body()).isEqualTo("[{\"query\":\"averageDividends:2019:2020\",\"result\":" +
+                tradingOffice.averageDividends(dividends, 2019, 2020) + "}," +
+                "{\"query\":\"EMA:2020:7:16:10\",\"result\":" +
+                tradingOffice.ExponentialMovingAverage(prices, 2020, 7, 16, 10) + "}]");
+    }
+
+    @Test
+    void itShouldRejectWrongQueries() throws Exception {
+        // then
+        assertThat(get("/query?q=median:2020").statusCode()).isEqualTo(400);
+        assertThat(get("/query").statusCode()).isEqualTo(400);
+        assertThat(get("/health").body()).isEqualTo("{\"rows\":" + prices.size() +
+                ",\"dividends\":" + dividends.size() + "}");
+    }
+
+    @Test
+    void itShouldServeConcurrentClients() throws InterruptedException {
+        // when
+        LoadGenerator.Report report = new LoadGenerator().run(URI.create("http://localhost:" + server.port()),
+                LoadGenerator.DEFAULT_QUERIES, 4, 50);
+
+        // then
+        assertThat(report.ok).isEqualTo(200);
+        assertThat(report.failed).isZero();
+        assertThat(report.requestsPerSecond()).isPositive();
+    }
+
+    private HttpResponse<String> get(String path) throws IOException, InterruptedException {
+        return client.send(HttpRequest.newBuilder(URI.create("http://localhost:" + server.port() + path)).build(),
+                HttpResponse.BodyHandlers.ofString());
+    }
+}
@@ -0,0 +1,96 @@
+import org.junit.jupiter.api.Test;
+import java.io.File;
+import java.io.IOException;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.TreeSet;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ResamplerTest {
+
+    TradingOffice tradingOffice = new TradingOffice();
+
+    @Test
+    void itShouldMakeWeeklyBars() {
+        // given
+        ArrayList<String[]> data = new ArrayList<>(){
+            {
+                add(new String[]{"2020-07-16", "10", "12", "9", "11", "11", "100"});    // Thursday
+                add(new String[]{"2020-07-17", "11", "15", "10", "14", "14", "200"});   // Friday
+                add(new String[]{"2020-07-20", "14", "14", "8", "9", "9", "300"});      // Monday
+                add(new String[]{"2020-07-22", "9", "10", "7", "7.5", "7.5", "400"});   // Wednesday
+            }
+        };
+
+        // when
+        PriceSeries result = tradingOffice.resample(PriceSeries.fromRows(data), Resampler.Timeframe.WEEKLY);
+
+        // then
+        assertThat(result.size()).isEqualTo(2);
+        assertThat(result.epochDays[0]).isEqualTo(EpochDays.of(2020, 7, 13));
+        assertThat(result.epochDays[1]).isEqualTo(EpochDays.of(2020, 7, 20));
+        assertThat(new long[]{result.open[0], result.high[0], result.low[0], result.close[0], result.volume[0]})
+                .containsExactly(10_000000L, 15_000000L, 9_000000L, 14_000000L, 300L);
+        assertThat(new long[]{result.open[1], result.high[1], result.low[1], result.close[1], result.volume[1]})
+                .containsExactly(14_000000L, 14_000000L, 7_000000L, 7_500000L, 700L);
+        assertThat(result.closeScale).isEqualTo(1);
+    }
+
+    @Test
+    void itShouldMakeABarForEveryPeriodOfTheFile() throws IOException {
+        // given
+        PriceSeries daily = tradingOffice.getPriceSeriesFromCSV(new File("AAPL.csv"));
+        TreeSet<LocalDate> weeks = new TreeSet<>();
+        TreeSet<LocalDate> months = new TreeSet<>();
+        TreeSet<LocalDate> quarters = new TreeSet<>();
+        for (int i = 0; i < daily.size(); i++) {
+            LocalDate date = LocalDate.ofEpochDay(daily.epochDays[i]);
+            weeks.add(date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY)));
+            months.add(date.withDayOfMonth(1));
+            quarters.add(LocalDate.of(date.getYear(), (date.getMonthValue() - 1) / 3 * 3 + 1, 1));
+        }
+
+        // then
+        assertThat(datesOf(tradingOffice.resample(daily, Resampler.Timeframe.WEEKLY))).containsExactlyElementsOf(weeks);
+        assertThat(datesOf(tradingOffice.resample(daily, Resampler.Timeframe.MONTHLY))).containsExactlyElementsOf(months);
+        assertThat(datesOf(tradingOffice.resample(daily, Resampler.Timeframe.QUARTERLY))).containsExactlyElementsOf(quarters);
+    }
+
+    @Test
+    void itShouldMakeTheYearlyBarOf2020() throws IOException {
+        // given
+        PriceSeries daily = tradingOffice.getPriceSeriesFromCSV(new File("AAPL.csv"));
+        int first = daily.dateIndex().firstOnOrAfter(EpochDays.of(2020, 1, 1));
+        int end = daily.dateIndex().firstOnOrAfter(EpochDays.of(2021, 1, 1));
+        long high = Long.MIN_VALUE;
+        long low = Long.MAX_VALUE;
+        long volume = 0;
+        for (int i = first; i < end; i++) {
+            high = Math.max(high, daily.high[i]);
+            low = Math.min(low, daily.low[i]);
+            volume += daily.volume[i];
+        }
+
+        // when
+        PriceSeries yearly = tradingOffice.resample(daily, Resampler.Timeframe.YEARLY);
+        int row = yearly.indexOf(EpochDays.of(2020, 1, 1));
+
+        // then
+        assertThat(yearly.open[row]).isEqualTo(daily.open[first]);
+        assertThat(yearly.high[row]).isEqualTo(high);
+        assertThat(yearly.low[row]).isEqualTo(low);
+        assertThat(yearly.close[row]).isEqualTo(daily.close[end - 1]);
+        assertThat(yearly.volume[row]).isEqualTo(volume);
+        assertThat(tradingOffice.SMAYear(yearly, "2020")).isEqualTo(FixedPoint.toBigDecimal(daily.close[end - 1]));
+    }
+
+    private static ArrayList<LocalDate> datesOf(PriceSeries series) {
+        ArrayList<LocalDate> dates = new ArrayList<>();
+        for (int i = 0; i < series.size(); i++) {
+            dates.add(LocalDate.ofEpochDay(series.epochDays[i]));
+        }
+        return dates;
+    }
+}
@@ -0,0 +1,114 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.File;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ResultCacheTest {
+
+    @Test
+    void itShouldCalculateAQueryOnlyOnce() {
+        // given
+        ResultCache cache = new ResultCache(10, 1 << 20);
+        Object series = new Object();
+        AtomicInteger calculations = new AtomicInteger();
+
+        // when
+        for (int i = 0; i < 3; i++) {
+            cache.get(series, "SMAYear", () -> BigDecimal.valueOf(calculations.incrementAndGet()), "2020");
+        }
+        BigDecimal other = cache.get(series, "SMAYear", () -> BigDecimal.TEN, "2021");
+
+        // then
+        assertThat(calculations.get()).isEqualTo(1);
+        assertThat(other).isEqualTo(BigDecimal.TEN);
+        ResultCache.Stats stats = cache.stats();
+        assertThat(stats.hits).isEqualTo(2);
+        assertThat(stats.misses).isEqualTo(2);
+        assertThat(stats.entries).isEqualTo(2);
+    }
+
+    @Test
+    void itShouldEvictTheLeastRecentlyUsedEntry() {
+        // given
+        ResultCache cache = new ResultCache(2, 1 << 20);
+        Object series = new Object();
+        cache.get(series, "SMA", () -> 1, 1);
+        cache.get(series, "SMA", () -> 2, 2);
+        cache.get(series, "SMA", () -> -1, 1);     // 1 is now the most recently used
+
+        // when
+        cache.get(series, "SMA", () -> 3, 3);
+
+        // then
+        assertThat(cache.stats().evictions).isEqualTo(1);
+        assertThat((int) cache.get(series, "SMA", () -> -1, 1)).isEqualTo(1);
+        assertThat((int) cache.get(series, "SMA", () -> -2, 2)).isEqualTo(-2);
+    }
+
+    @Test
+    void itShouldKeepTheEstimatedBytesUnderTheBudget() {
+        // given
+        ResultCache cache = new ResultCache(1000, 10_000);
+        Object series = new Object();
+
+        // when
+        for (int i = 0; i < 10; i++) {
+            cache.get(series, "rollingSMA", () -> new double[250], i);
+        }
+        cache.get(series, "rollingSMA", () -> new double[100_000], -1);
+
+        // then
+        ResultCache.Stats stats = cache.stats();
+        assertThat(stats.bytes).isLessThanOrEqualTo(10_000);
+        assertThat(stats.entries).isGreaterThan(0).isLessThan(10);
+        assertThat(stats.evictions).isEqualTo(10 - stats.entries);
+    }
+
+    @Test
+    void itShouldDropTheResultsOfASeriesReadAgain(@TempDir Path directory) throws IOException {
+        // given
+        File csv = directory.resolve("AAPL-Dividends.csv").toFile();
+        Files.writeString(csv.toPath(), "Date,Dividends\n2020-02-07,0.100000\n2020-05-08,0.200000\n");
+        CachedTradingOffice tradingOffice = new CachedTradingOffice();
+        DividendSeries first = tradingOffice.getDividendSeriesFromCSV(csv);
+        BigDecimal before = tradingOffice.averageDividends(first, 2020, 2020);
+
+        // when
+        Files.writeString(csv.toPath(), "Date,Dividends\n2020-02-07,0.100000\n2020-05-08,0.400000\n");
+        DividendSeries second = tradingOffice.getDividendSeriesFromCSV(csv);
+        BigDecimal after = tradingOffice.averageDividends(second, 2020, 2020);
+
+        // then
+        assertThat(before).isEqualTo(new BigDecimal("0.150000"));
+        assertThat(after).isEqualTo(new BigDecimal("0.250000"));
+        assertThat(tradingOffice.cacheStats().invalidations).isEqualTo(1);
+        assertThat(tradingOffice.cacheStats().entries).isEqualTo(1);
+    }
+
+    @Test
+    void itShouldGiveTheSameResultsAsTradingOffice() throws IOException {
+        // given
+        TradingOffice tradingOffice = new TradingOffice();
+        CachedTradingOffice cached = new CachedTradingOffice(tradingOffice, new ResultCache());
+        PriceSeries prices = cached.getPriceSeriesFromCSV(new File("AAPL.csv"));
+        DividendSeries dividends = cached.getDividendSeriesFromCSV(new File("AAPL-Dividends.csv"));
+
+        // then
+        for (int i = 0; i < 2; i++) {
+            assertThat(cached.SMAYear(prices, "2020")).isEqualTo(tradingOffice.SMAYear(prices, "2020"));
+            assertThat(cached.ExponentialMovingAverage(prices, 2020, 3, 2, 20))
+                    .isEqualTo(tradingOffice.ExponentialMovingAverage(prices, 2020, 3, 2, 20));
+            assertThat(cached.averageDividends(dividends, 2015, 2020))
+                    .isEqualTo(tradingOffice.averageDividends(dividends, 2015, 2020));
+            assertThat(cached.frequencyOfDividendsDistribution(dividends))
+                    .isEqualTo(tradingOffice.frequencyOfDividendsDistribution(dividends));
+        }
+        assertThat(cached.cacheStats().hits).isEqualTo(4);
+        assertThat(cached.cacheStats().misses).isEqualTo(4);
+    }
+}
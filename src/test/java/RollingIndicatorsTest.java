@@ -0,0 +1,75 @@
+import org.junit.jupiter.api.Test;
+import java.io.File;
+import java.io.IOException;
+import java.time.LocalDate;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class RollingIndicatorsTest {
+
+    TradingOffice tradingOffice = new TradingOffice();
+
+    @Test
+    void itShouldCalculateTheSimpleMovingAverageOfEveryDay() {
+        // given
+        long[] close = {10_000000L, 11_000000L, 12_000000L, 13_000000L, 14_000000L};
+        double[] out = new double[3];
+
+        // when
+        RollingIndicators.sma(close, 3, 1, 4, out, 0);
+
+        // then
+        assertThat(out[0]).isNaN();
+        assertThat(out[1]).isEqualTo(11.0);
+        assertThat(out[2]).isEqualTo(12.0);
+    }
+
+    @Test
+    void itShouldSeedTheExponentialMovingAverageWithTheFirstWindow() {
+        // given
+        long[] close = {10_000000L, 11_000000L, 12_000000L, 13_000000L};
+        double[] out = new double[4];
+
+        // when
+        RollingIndicators.ema(close, 3, 0, 4, out, 0);
+
+        // then
+        assertThat(out[1]).isNaN();
+        assertThat(out[2]).isEqualTo(11.0);
+        assertThat(out[3]).isEqualTo(12.0);
+    }
+
+    @Test
+    void itShouldMatchANaiveCalculationOnTheWholeFile() throws IOException {
+        // given
+        PriceSeries series = tradingOffice.getPriceSeriesFromCSV(new File("AAPL.csv"));
+        LocalDate from = LocalDate.of(2015, 1, 1);
+        LocalDate to = LocalDate.of(2016, 12, 31);
+        int first = series.dateIndex().firstOnOrAfter((int) from.toEpochDay());
+        int window = 50;
+
+        // when
+        double[] sma = tradingOffice.rollingSMA(series, window, from, to);
+        double[] ema = tradingOffice.rollingEMA(series, window, from, to);
+
+        // then
+        assertThat(sma).hasSize(tradingOffice.rowsBetween(series, from, to));
+
+        double expectedEma = 0;
+        for (int i = 0; i < window; i++) expectedEma += series.close[i] / 1e6;
+        expectedEma /= window;
+        for (int i = window; i < first; i++) {
+            expectedEma = expectedEma + 2.0 / (window + 1) * (series.close[i] / 1e6 - expectedEma);
+        }
+
+        for (int k = 0; k < sma.length; k++) {
+            int row = first + k;
+            double sum = 0;
+            for (int i = row - window + 1; i <= row; i++) sum += series.close[i] / 1e6;
+            assertThat(sma[k]).isCloseTo(sum / window, within(1e-9));
+
+            expectedEma = expectedEma + 2.0 / (window + 1) * (series.close[row] / 1e6 - expectedEma);
+            assertThat(ema[k]).isCloseTo(expectedEma, within(1e-9));
+        }
+    }
+}
@@ -0,0 +1,79 @@
+import org.junit.jupiter.api.Test;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import org.junit.jupiter.api.io.TempDir;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+class ScriptRunnerTest {
+
+    TradingOffice tradingOffice = new TradingOffice();
+
+    @Test
+    void itShouldWriteACsvLinePerOperation() throws IOException {
+        // given
+        ScriptRunner.Script script = ScriptRunner.Script.parse(new String[]{
+                "SMAYear:2020", "SMAOfSpecificPeriod:2019:2020", "EMA:2020:7:16:10",
+                "averageDividends:2019:2020", "frequencyOfDividendsDistribution", "SMA"});
+        StringWriter out = new StringWriter();
+        PriceSeries prices = tradingOffice.getPriceSeriesFromCSV(new File("AAPL.csv"));
+        DividendSeries dividends = tradingOffice.getDividendSeriesFromCSV(new File("AAPL-Dividends.csv"));
+
+        // when
+        int errors = new ScriptRunner().run(script, out);
+
+        // then
+        assertThat(errors).isZero();
+        assertThat(out.toString().split("\n")).containsExactly(
+                ScriptRunner.CSV_HEADER,
+                "SMAYear:2020," + tradingOffice.SMAYear(prices, "2020") + ",",
+                "SMAOfSpecificPeriod:2019:2020," + tradingOffice.SMAOfSpecificPeriod(prices, 2019, 2020) + ",",
+                "EMA:2020:7:16:10," + tradingOffice.ExponentialMovingAverage(prices, 2020, 7, 16, 10) + ",",
+                "averageDividends:2019:2020," + tradingOffice.averageDividends(dividends, 2019, 2020) + ",",
+                "frequencyOfDividendsDistribution," + tradingOffice.frequencyOfDividendsDistribution(dividends) + ",",
+                "SMA," + tradingOffice.SMA(prices) + ",");
+    }
+
+    @Test
+    void itShouldReadAQueryFileAndWriteJsonLines(@TempDir Path directory) throws IOException {
+        // given
+        Path queries = directory.resolve("queries.txt");
+        Path output = directory.resolve("answers.jsonl");
+        Files.write(queries, List.of("# the year of 2020", "SMAYear:2020", "", "EMA:2100:1:1:10"));
+        PriceSeries prices = tradingOffice.getPriceSeriesFromCSV(new File("AAPL.csv"));
+
+        // when
+        int exitCode = ScriptRunner.run(new String[]{"--queries", queries.toString(), "--format", "json",
+                "--output", output.toString(), "EMA:2020:7:16:100000"}, System.err);
+
+        // then
+        List<String> lines = Files.readAllLines(output);
+        assertThat(exitCode).isEqualTo(1);
+        assertThat(lines).hasSize(3);
+        assertThat(lines.get(0)).isEqualTo("{\"query\":\"SMAYear:2020\",\"result\":" +
+                tradingOffice.SMAYear(prices, "2020") + "}");
+        assertThat(lines.get(1)).isEqualTo("{\"query\":\"EMA:2100:1:1:10\",\"result\":0}");
+        assertThat(lines.get(2)).startsWith("{\"query\":\"EMA:2020:7:16:100000\",\"error\":\"IndexOutOfBoundsException");
+    }
+
+    @Test
+    void itShouldRejectWrongArguments() {
+        // given
+        ByteArrayOutputStream err = new ByteArrayOutputStream();
+
+        // when
+        int exitCode = ScriptRunner.run(new String[]{"SMAYear:twenty"}, new PrintStream(err));
+
+        // then
+        assertThat(exitCode).isEqualTo(2);
+        assertThat(err.toString()).contains("SMAYear:twenty").contains(ScriptRunner.USAGE);
+        assertThatIllegalArgumentException().isThrownBy(() -> ScriptRunner.Operation.parse("SMAYear"));
+        assertThatIllegalArgumentException().isThrownBy(() -> ScriptRunner.Operation.parse("median:2020"));
+    }
+}
@@ -0,0 +1,83 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.File;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SeriesArchiveTest {
+
+    TradingOffice tradingOffice = new TradingOffice();
+
+    @TempDir
+    Path root;
+
+    @Test
+    void itShouldWriteAPartitionPerYear() throws IOException {
+        // given
+        PriceSeries series = tradingOffice.getPriceSeriesFromCSV(new File("AAPL.csv"));
+        SeriesArchive archive = new SeriesArchive(root);
+
+        // when
+        archive.write("AAPL", series);
+
+        // then
+        int[] years = archive.years("AAPL");
+        assertThat(years[0]).isEqualTo(EpochDays.year(series.epochDays[0]));
+        assertThat(years[years.length - 1]).isEqualTo(EpochDays.year(series.epochDays[series.size() - 1]));
+        assertThat(years).hasSize(years[years.length - 1] - years[0] + 1);
+        assertThat(archive.years("MSFT")).isEmpty();
+
+        PriceSeries read = archive.read("AAPL", years[0], years[years.length - 1]);
+        assertThat(read.epochDays).containsExactly(Arrays.copyOf(series.epochDays, series.size()));
+        assertThat(read.close).containsExactly(Arrays.copyOf(series.close, series.size()));
+        assertThat(read.volume).containsExactly(Arrays.copyOf(series.volume, series.size()));
+        assertThat(read.closeScale).isEqualTo(series.closeScale);
+    }
+
+    @Test
+    void itShouldGiveTheAveragesOfTheWholeSeriesOpeningOnlyTheirYears() throws IOException {
+        // given
+        PriceSeries series = tradingOffice.getPriceSeriesFromCSV(new File("AAPL.csv"));
+        SeriesArchive archive = new SeriesArchive(root);
+        archive.write("AAPL", series);
+
+        // when
+        BigDecimal result = tradingOffice.SMAYear(archive, "AAPL", "2020");
+
+        // then
+        assertThat(result).isEqualTo(tradingOffice.SMAYear(series, "2020"));
+        assertThat(archive.partitionsOpened()).isEqualTo(1);
+        assertThat(tradingOffice.SMAOfSpecificPeriod(archive, "AAPL", 2015, 2019))
+                .isEqualTo(tradingOffice.SMAOfSpecificPeriod(series, 2015, 2019));
+        assertThat(archive.partitionsOpened()).isEqualTo(6);
+        assertThat(tradingOffice.SMAOfSpecificPeriod(archive, "AAPL", 1950, 1960)).isZero();
+        assertThat(tradingOffice.SMAOfSpecificPeriod(archive, "AAPL", 1975, 1981))
+                .isEqualTo(tradingOffice.SMAOfSpecificPeriod(series, 1975, 1981));
+    }
+
+    @Test
+    void itShouldReplaceThePartitionsOfATickerWrittenAgain() throws IOException {
+        // given
+        ArrayList<String[]> rows = new ArrayList<>(){
+            {
+                add(new String[]{"2019-12-31", "1", "1", "1", "1", "1", "1"});
+                add(new String[]{"2020-01-02", "2", "2", "2", "2.5", "2", "1"});
+            }
+        };
+        SeriesArchive archive = new SeriesArchive(root);
+        archive.write("TEST", tradingOffice.getPriceSeriesFromCSV(new File("AAPL.csv")));
+        tradingOffice.SMAYear(archive, "TEST", "2020");
+
+        // when
+        archive.write("TEST", PriceSeries.fromRows(rows));
+
+        // then
+        assertThat(archive.years("TEST")).containsExactly(2019, 2020);
+        assertThat(tradingOffice.SMAYear(archive, "TEST", "2020")).isEqualByComparingTo("2.5");
+        assertThat(tradingOffice.SMAOfSpecificPeriod(archive, "TEST", 2019, 2020)).isEqualByComparingTo("1.8");
+    }
+}
@@ -0,0 +1,62 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIOException;
+
+class SeriesSnapshotTest {
+
+    @Test
+    void itShouldReadBackTheSameColumns(@TempDir Path directory) throws IOException {
+        // given
+        Path csv = Path.of("AAPL.csv");
+        Path snapshot = directory.resolve("AAPL.csv.snap");
+        PriceSeries series = CsvSeriesReader.readPrices(csv);
+
+        // when
+        SeriesSnapshot.write(series, snapshot, csv);
+        PriceSeries result = SeriesSnapshot.readPrices(snapshot);
+
+        // then
+        assertThat(result.size()).isEqualTo(series.size());
+        assertThat(result.closeScale).isEqualTo(series.closeScale);
+        assertThat(result.epochDays).isEqualTo(Arrays.copyOf(series.epochDays, series.size()));
+        assertThat(result.open).isEqualTo(Arrays.copyOf(series.open, series.size()));
+        assertThat(result.close).isEqualTo(Arrays.copyOf(series.close, series.size()));
+        assertThat(result.volume).isEqualTo(Arrays.copyOf(series.volume, series.size()));
+    }
+
+    @Test
+    void itShouldReadTheCsvFileAgainWhenTheSnapshotIsStale(@TempDir Path directory) throws IOException {
+        // given
+        Path csv = directory.resolve("AAPL-Dividends.csv");
+        Path snapshot = directory.resolve("AAPL-Dividends.csv.snap");
+        Files.writeString(csv, "Date,Dividends\n2020-02-07,0.192500\n");
+        DividendSeries first = SeriesSnapshot.loadDividends(csv, snapshot);
+
+        // when
+        Files.writeString(csv, "Date,Dividends\n2020-02-07,0.192500\n2020-05-08,0.205000\n");
+        Files.setLastModifiedTime(csv, FileTime.fromMillis(Files.getLastModifiedTime(csv).toMillis() + 2000));
+        DividendSeries second = SeriesSnapshot.loadDividends(csv, snapshot);
+        DividendSeries third = SeriesSnapshot.readDividends(snapshot);
+
+        // then
+        assertThat(first.size()).isEqualTo(1);
+        assertThat(second.size()).isEqualTo(2);
+        assertThat(third.amounts).containsExactly(192_500L, 205_000L);
+    }
+
+    @Test
+    void itShouldRejectAFileThatIsNotASnapshot(@TempDir Path directory) throws IOException {
+        // given
+        Path file = directory.resolve("AAPL.csv.snap");
+        Files.writeString(file, "Date,Open,High,Low,Close,Adj Close,Volume\n");
+
+        // then
+        assertThatIOException().isThrownBy(() -> SeriesSnapshot.readPrices(file));
+    }
+}
@@ -0,0 +1,128 @@
+import org.junit.jupiter.api.Test;
+import java.io.File;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+class SeriesStoreTest {
+
+    TradingOffice tradingOffice = new TradingOffice();
+
+    @Test
+    void itShouldAnswerLikeTheWholeFileAfterAppendingTheRows() throws IOException {
+        // given
+        ArrayList<String[]> rows = tradingOffice.getDataFromCSV(new File("AAPL.csv"));
+        PriceSeries whole = PriceSeries.fromRows(rows);
+        SeriesStore store = SeriesStore.of(PriceSeries.fromRows(rows.subList(0, 100)));
+
+        // when
+        for (String[] row : rows.subList(100, rows.size())) {
+            store.append(row);
+        }
+        PriceSeries result = store.snapshot();
+
+        // then
+        assertThat(store.sequence()).isEqualTo(rows.size());
+        assertThat(tradingOffice.SMA(result)).isEqualTo(tradingOffice.SMA(whole));
+        assertThat(tradingOffice.SMAYear(result, "2015")).isEqualTo(tradingOffice.SMAYear(whole, "2015"));
+        assertThat(tradingOffice.SMAOfSpecificPeriod(result, 2001, 2010))
+                .isEqualTo(tradingOffice.SMAOfSpecificPeriod(whole, 2001, 2010));
+        assertThat(tradingOffice.ExponentialMovingAverage(result, 2020, 3, 2, 20))
+                .isEqualTo(tradingOffice.ExponentialMovingAverage(whole, 2020, 3, 2, 20));
+        assertThat(result.indexOf(EpochDays.of(2020, 3, 2))).isEqualTo(whole.indexOf(EpochDays.of(2020, 3, 2)));
+    }
+
+    @Test
+    void itShouldKeepAnOlderSnapshotUnchanged() {
+        // given
+        SeriesStore store = SeriesStore.empty();
+        store.append(EpochDays.of(2020, 1, 2), 0, 0, 0, 10_500000L, 0, 1);
+        PriceSeries before = store.snapshot();
+
+        // when
+        for (int day = 3; day < 31; day++) {
+            store.append(EpochDays.of(2020, 1, day), 0, 0, 0, 20_000000L, 0, 1);
+        }
+
+        // then
+        assertThat(before.size()).isEqualTo(1);
+        assertThat(tradingOffice.SMA(before)).isEqualTo(new BigDecimal("10.5"));
+        assertThat(store.snapshot().size()).isEqualTo(29);
+    }
+
+    @Test
+    void itShouldRoundTheBarsOfMicrosLikeTheSameRowsOfAFile() {
+        // given
+        SeriesStore store = SeriesStore.empty();
+        PriceSeries file = PriceSeries.fromRows(List.of(
+                new String[]{"2020-01-02", "0", "0", "0", "10.5", "0", "1"},
+                new String[]{"2020-01-03", "0", "0", "0", "10.6", "0", "1"}));
+
+        // when
+        store.append(EpochDays.of(2020, 1, 2), 0, 0, 0, 10_500000L, 0, 1);
+        PriceSeries result = store.append(EpochDays.of(2020, 1, 3), 0, 0, 0, 10_600000L, 0, 1);
+
+        // then
+        assertThat(tradingOffice.SMA(result)).isEqualTo(new BigDecimal("10.6"));
+        assertThat(tradingOffice.SMA(result)).isEqualTo(tradingOffice.SMA(file));
+        assertThat(new PriceSeries.Builder(2).add(EpochDays.of(2020, 1, 2), 0, 0, 0, 10_500000L, 0, 1)
+                .build().closeScale).isEqualTo(1);
+    }
+
+    @Test
+    void itShouldRejectABarThatIsNotAfterTheLastOne() {
+        // given
+        SeriesStore store = SeriesStore.empty();
+        store.append(EpochDays.of(2020, 1, 2), 0, 0, 0, 1, 0, 1);
+
+        // then
+        assertThatIllegalArgumentException().isThrownBy(
+                () -> store.append(EpochDays.of(2020, 1, 2), 0, 0, 0, 1, 0, 1));
+        assertThat(store.sequence()).isEqualTo(1);
+    }
+
+    @Test
+    void itShouldGiveTheReadersConsistentSnapshotsWhileAppending() throws InterruptedException {
+        // given
+        SeriesStore store = SeriesStore.empty();
+        int bars = 50_000;
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        List<Thread> readers = new ArrayList<>();
+        for (int r = 0; r < 3; r++) {
+            readers.add(new Thread(() -> {
+                try {
+                    long last = 0;
+                    while (last < bars) {
+                        PriceSeries series = store.snapshot();
+                        int size = series.size();
+                        assertThat((long) size).isGreaterThanOrEqualTo(last);
+                        if (size > 0) {
+                            // every close is its row number plus one, so the sum is known
+                            assertThat(series.closeSums().sum(0, size)).isEqualTo((long) size * (size + 1) / 2);
+                            assertThat(series.close[size - 1]).isEqualTo(size);
+                        }
+                        last = size;
+                    }
+                } catch (Throwable e) {
+                    failure.compareAndSet(null, e);
+                }
+            }));
+        }
+
+        // when
+        readers.forEach(Thread::start);
+        int firstDay = EpochDays.of(1900, 1, 1);
+        for (int i = 0; i < bars; i++) {
+            store.append(firstDay + i, 0, 0, 0, i + 1, 0, 1);
+        }
+        for (Thread reader : readers) reader.join(30_000);
+
+        // then
+        assertThat(failure.get()).isNull();
+        assertThat(store.sequence()).isEqualTo(bars);
+    }
+}
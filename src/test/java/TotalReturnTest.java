@@ -0,0 +1,94 @@
+import org.junit.jupiter.api.Test;
+import java.io.File;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.assertj.core.api.Assertions.within;
+
+class TotalReturnTest {
+
+    TradingOffice tradingOffice = new TradingOffice();
+
+    @Test
+    void itShouldReinvestTheDividendsOnTheirDay() {
+        // given
+        ArrayList<String[]> data = new ArrayList<>(){
+            {
+                add(new String[]{"2020-01-02", "100", "100", "100", "100", "100", "10"});
+                add(new String[]{"2020-01-03", "100", "100", "100", "100", "100", "10"});   // Friday
+                add(new String[]{"2020-01-06", "99", "99", "99", "99", "99", "10"});        // Monday
+                add(new String[]{"2021-01-05", "110", "110", "110", "110", "110", "10"});
+            }
+        };
+        ArrayList<String[]> dividends = new ArrayList<>(){
+            {
+                add(new String[]{"2019-12-01", "0.5"});     // before the first day
+                add(new String[]{"2020-01-04", "2"});       // a Saturday
+            }
+        };
+
+        // when
+        TotalReturn result = tradingOffice.totalReturn(data, dividends);
+
+        // then
+        assertThat(result.index).containsExactly(new double[]{1.0, 1.0, 1.01, 1.01 * 110 / 99}, within(1e-12));
+        assertThat(result.trailingDividends).containsExactly(500_000L, 500_000L, 2_500_000L, 0L);
+        assertThat(result.trailingYield[2]).isCloseTo(2.5 / 99, within(1e-12));
+        assertThat(result.totalReturn(LocalDate.of(2020, 1, 1), LocalDate.of(2021, 12, 31)))
+                .isCloseTo(1.01 * 110 / 99 - 1, within(1e-12));
+    }
+
+    @Test
+    void itShouldGiveTheTrailingDividendsOfAReferenceScan() throws IOException {
+        // given
+        PriceSeries prices = tradingOffice.getPriceSeriesFromCSV(new File("AAPL.csv"));
+        DividendSeries dividends = tradingOffice.getDividendSeriesFromCSV(new File("AAPL-Dividends.csv"));
+
+        // when
+        TotalReturn result = tradingOffice.totalReturn(prices, dividends);
+
+        // then
+        for (int i = 0; i < prices.size(); i++) {
+            long trailing = 0;
+            for (int j = 0; j < dividends.size(); j++) {
+                int age = prices.epochDays[i] - dividends.epochDays[j];
+                if (age >= 0 && age < TotalReturn.TRAILING_DAYS) trailing += dividends.amounts[j];
+            }
+            assertThat(result.trailingDividends[i]).isEqualTo(trailing);
+        }
+        assertThat(result.index[prices.size() - 1])
+                .isGreaterThan((double) prices.close[prices.size() - 1] / prices.close[0]);
+    }
+
+    @Test
+    void itShouldBeCachedUntilAFileIsReadAgain() throws IOException {
+        // given
+        CachedTradingOffice cached = new CachedTradingOffice();
+        PriceSeries prices = cached.getPriceSeriesFromCSV(new File("AAPL.csv"));
+        DividendSeries dividends = cached.getDividendSeriesFromCSV(new File("AAPL-Dividends.csv"));
+
+        // when
+        TotalReturn first = cached.totalReturn(prices, dividends);
+        TotalReturn second = cached.totalReturn(prices, dividends);
+        DividendSeries reread = cached.getDividendSeriesFromCSV(new File("AAPL-Dividends.csv"));
+
+        // then
+        assertThat(second).isSameAs(first);
+        assertThat(cached.cacheStats().invalidations).isEqualTo(1);
+        assertThat(cached.totalReturn(prices, reread)).isNotSameAs(first);
+    }
+
+    @Test
+    void itShouldRejectFilesThatAreNotSorted() throws IOException {
+        // given
+        ArrayList<String[]> data = tradingOffice.getDataFromCSV(new File("AAPL.csv"));
+        ArrayList<String[]> dividends = tradingOffice.getDataFromCSV(new File("AAPL-Dividends.csv"));
+        Collections.reverse(dividends);
+
+        // then
+        assertThatIllegalArgumentException().isThrownBy(() -> tradingOffice.totalReturn(data, dividends));
+    }
+}
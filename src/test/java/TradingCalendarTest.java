@@ -0,0 +1,113 @@
+import org.junit.jupiter.api.Test;
+import java.io.File;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TradingCalendarTest {
+
+    TradingOffice tradingOffice = new TradingOffice();
+
+    @Test
+    void itShouldResolveWeekendsAndHolidaysToTheSessionsAroundThem() {
+        // given                  Thu 2 July,          Mon 6 July,          Tue 7 July
+        int[] days = {EpochDays.of(2020, 7, 2), EpochDays.of(2020, 7, 6), EpochDays.of(2020, 7, 7)};
+        TradingCalendar calendar = TradingCalendar.of(days, days.length);
+        int holiday = EpochDays.of(2020, 7, 3);
+        int sunday = EpochDays.of(2020, 7, 5);
+
+        // then
+        assertThat(calendar.isSession(holiday)).isFalse();
+        assertThat(calendar.sessionOnOrAfter(holiday)).isEqualTo(1);
+        assertThat(calendar.sessionOnOrBefore(holiday)).isEqualTo(0);
+        assertThat(calendar.nearestSession(holiday)).isEqualTo(0);
+        assertThat(calendar.nearestSession(sunday)).isEqualTo(1);
+        assertThat(calendar.sessionOnOrAfter(EpochDays.of(2020, 1, 1))).isEqualTo(0);
+        assertThat(calendar.sessionOnOrBefore(EpochDays.of(2020, 1, 1))).isEqualTo(-1);
+        assertThat(calendar.sessionOnOrAfter(EpochDays.of(2021, 1, 1))).isEqualTo(3);
+        assertThat(calendar.nearestSession(EpochDays.of(2021, 1, 1))).isEqualTo(2);
+        assertThat(calendar.tradingDaysBetween(holiday, EpochDays.of(2020, 7, 8))).isEqualTo(2);
+        assertThat(calendar.plusTradingDays(holiday, 1)).isEqualTo(days[2]);
+        assertThat(calendar.plusTradingDays(days[2], -2)).isEqualTo(days[0]);
+        assertThatThrownBy(() -> calendar.plusTradingDays(holiday, 2)).isInstanceOf(IndexOutOfBoundsException.class);
+    }
+
+    @Test
+    void itShouldStartTheEmaOfAHolidayFromTheNextSession() throws IOException {
+        // given
+        PriceSeries prices = tradingOffice.getPriceSeriesFromCSV(new File("AAPL.csv"));
+
+        // when
+        BigDecimal holiday = tradingOffice.ExponentialMovingAverage(prices, 2020, 7, 3, 10);
+        BigDecimal monday = tradingOffice.ExponentialMovingAverage(prices, 2020, 7, 6, 10);
+
+        // then
+        assertThat(holiday).isEqualTo(monday);
+        assertThat(holiday).isNotEqualTo(tradingOffice.ExponentialMovingAverage(prices, 2020, 7, 2, 10));
+        assertThatThrownBy(() -> tradingOffice.ExponentialMovingAverage(prices, 2022, 1, 20, 10))
+                .isInstanceOf(IndexOutOfBoundsException.class);
+    }
+
+    @Test
+    void itShouldGiveZeroForAnEmaThatStartsAfterTheLastSession() throws IOException {
+        // given the file ends on 2022-01-21, a Friday
+        PriceSeries prices = tradingOffice.getPriceSeriesFromCSV(new File("AAPL.csv"));
+
+        // when
+        BigDecimal result = tradingOffice.ExponentialMovingAverage(prices, 2022, 1, 22, 10);
+
+        // then
+        assertThat(result).isEqualTo(BigDecimal.ZERO);
+        assertThat(tradingOffice.ExponentialMovingAverage(prices, 2022, 12, 31, 1)).isEqualTo(BigDecimal.ZERO);
+    }
+
+    @Test
+    void itShouldKeepTheCalendarOfAStoreUpToDateWithEveryAppend() throws IOException {
+        // given
+        PriceSeries whole = tradingOffice.getPriceSeriesFromCSV(new File("AAPL.csv"));
+        SeriesStore store = SeriesStore.empty();
+        PriceSeries before = null;
+
+        // when
+        for (int i = 0; i < whole.size(); i++) {
+            store.append(whole.epochDays[i], whole.open[i], whole.high[i], whole.low[i], whole.close[i],
+                    whole.adjClose[i], whole.volume[i]);
+            if (i == 100) before = store.snapshot();
+        }
+        TradingCalendar result = store.snapshot().tradingCalendar();
+        TradingCalendar expected = whole.tradingCalendar();
+
+        // then
+        for (int day = whole.epochDays[0] - 3; day <= whole.epochDays[whole.size() - 1] + 3; day++) {
+            assertThat(result.sessionOnOrAfter(day)).isEqualTo(expected.sessionOnOrAfter(day));
+        }
+        assertThat(before.tradingCalendar().sessionOnOrAfter(whole.epochDays[101])).isEqualTo(101);
+        assertThat(before.tradingCalendar().sessionOnOrBefore(whole.epochDays[200])).isEqualTo(100);
+    }
+
+    @Test
+    void itShouldStillAnswerTheRollingQueriesOfRowsThatAreNotSorted() {
+        // given
+        PriceSeries prices = PriceSeries.fromRows(List.of(
+                new String[]{"2020-01-03", "0", "12", "10", "11", "0", "1"},
+                new String[]{"2020-01-02", "0", "11", "9", "10", "0", "1"},
+                new String[]{"2020-01-06", "0", "13", "11", "12", "0", "1"}));
+        double[] out = new double[3];
+
+        // when
+        int rows = tradingOffice.rollingSMA(prices, 2, LocalDate.of(2020, 1, 1), LocalDate.of(2020, 1, 6), out);
+        PriceRange range = tradingOffice.priceRange(prices, LocalDate.of(2020, 1, 2), LocalDate.of(2020, 1, 3));
+
+        // then
+        assertThat(prices.dateIndex().isSorted()).isFalse();
+        assertThat(rows).isEqualTo(3);
+        assertThat(out[1]).isEqualTo(10.5);
+        assertThat(out[2]).isEqualTo(11.0);
+        assertThat(range.rows).isEqualTo(2);
+        assertThat(range.highest).isEqualByComparingTo("12");
+        assertThat(tradingOffice.SMAYear(prices, "2020")).isEqualTo(new BigDecimal("11"));
+    }
+}
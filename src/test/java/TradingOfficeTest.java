@@ -2,6 +2,8 @@ import org.junit.jupiter.api.Test;
 import java.io.File;
 import java.io.IOException;
 import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.Arrays;
 import static org.assertj.core.api.Assertions.assertThat;
@@ -230,4 +232,109 @@ class TradingOfficeTest {
         assertThat(result).isEqualTo(2);
     }
 
-}
\ No newline at end of file
+    @Test
+    void itShouldMatchTheBigDecimalAverageOfAYearOnTheColumnarSeries() throws IOException {
+        // given
+        ArrayList<String[]> rows = underTest.getDataFromCSV(new File("AAPL.csv"));
+        PriceSeries series = PriceSeries.fromRows(rows);
+
+        BigDecimal sum = BigDecimal.ZERO;
+        int days = 0;
+        for (String[] row : rows) {
+            if (row[0].startsWith("2015")) {
+                sum = sum.add(new BigDecimal(row[4]));
+                days++;
+            }
+        }
+
+        // when
+        BigDecimal result = underTest.SMAYear(series, "2015");
+
+        // then
+        assertThat(result).isEqualTo(sum.divide(BigDecimal.valueOf(days), RoundingMode.HALF_UP));
+    }
+
+    @Test
+    void itShouldKeepTheScaleOfTheCloseColumnWhenAveraging() {
+        // given
+        ArrayList<String[]> data = new ArrayList<>(){
+            {
+                add(new String[]{"2020-07-22","96.692497","97.974998","96.602501","10","96.336311","89001600"});
+                add(new String[]{"2020-07-23","96.997498","97.077499","92.010002","11","91.951431","197004400"});
+            }
+        };
+
+        // when
+        BigDecimal result = underTest.SMA(data);
+
+        // then
+        assertThat(result).isEqualTo(new BigDecimal("11"));
+    }
+
+    @Test
+    void itShouldNotFindAYearInsideThePricesOrVolume() {
+        // given
+        ArrayList<String[]> data = new ArrayList<>(){
+            {
+                add(new String[]{"1980-12-12","0.128348","0.128906","0.128348","0.128348","0.100453","469020190"});
+            }
+        };
+
+        // when
+        boolean result = underTest.yearsExist(data, 2019, 2019);
+
+        // then
+        assertThat(result).isFalse();
+    }
+
+    @Test
+    void itShouldMatchTheBigDecimalAverageOfEveryPeriodOfTheFile() throws IOException {
+        // given
+        ArrayList<String[]> rows = underTest.getDataFromCSV(new File("AAPL.csv"));
+        PriceSeries series = underTest.getPriceSeriesFromCSV(new File("AAPL.csv"));
+
+        for (int from = 1980; from <= 2022; from += 3) {
+            for (int to = from; to <= 2022; to += 5) {
+                BigDecimal sum = BigDecimal.ZERO;
+                int days = 0;
+                for (String[] row : rows) {
+                    int year = Integer.parseInt(row[0].substring(0, 4));
+                    if (year >= from && year <= to) {
+                        sum = sum.add(new BigDecimal(row[4]));
+                        days++;
+                    }
+                }
+
+                // when
+                BigDecimal result = underTest.SMAOfSpecificPeriod(series, from, to);
+
+                // then
+                assertThat(result).isEqualTo(sum.divide(BigDecimal.valueOf(days), RoundingMode.HALF_UP));
+            }
+        }
+    }
+
+    @Test
+    void itShouldCalculateTheSimpleMovingAverageBetweenTwoDates() {
+        // given
+        ArrayList<String[]> data = new ArrayList<>(){
+            {
+                add(new String[]{"2020-07-22","96.692497","97.974998","96.602501","97.272499","96.336311","89001600"});
+                add(new String[]{"2020-07-23","96.997498","97.077499","92.010002","92.845001","91.951431","197004400"});
+                add(new String[]{"2020-07-24","90.987503","92.970001","89.144997","92.614998","91.723640","185438800"});
+                add(new String[]{"2021-07-27","93.709999","94.904999","93.480003","94.809998","93.897514","121214000"});
+            }
+        };
+
+        // when
+        BigDecimal result = underTest.SMAOfDateRange(PriceSeries.fromRows(data),
+                LocalDate.of(2020, 7, 23), LocalDate.of(2021, 7, 26));
+        BigDecimal empty = underTest.SMAOfDateRange(PriceSeries.fromRows(data),
+                LocalDate.of(2020, 8, 1), LocalDate.of(2021, 7, 26));
+
+        // then
+        assertThat(result).isEqualTo(new BigDecimal("92.730000"));
+        assertThat(empty).isEqualTo(BigDecimal.ZERO);
+    }
+
+}
@@ -0,0 +1,113 @@
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * The VectorKernels class runs the kernels of ColumnKernels on the widest lanes of
+ * the CPU with the incubating Vector API. It is only compiled with the vector profile,
+ * and ColumnKernels falls back to the scalar kernels when it can not be loaded
+ *
+ * @author  Hussain Aljassim, Ahmed Baabdullah, Omar Mashhrawi
+ * @version 1.0
+ */
+final class VectorKernels extends ColumnKernels {
+
+    private static final VectorSpecies<Long> SPECIES = LongVector.SPECIES_PREFERRED;
+    private static final int LANES = SPECIES.length();
+
+    @Override
+    String name() {
+        return "vector" + LANES;
+    }
+
+    @Override
+    long sum(long[] column, int from, int to) {
+        LongVector sums = LongVector.zero(SPECIES);
+        int i = from;
+        for (int bound = from + SPECIES.loopBound(to - from); i < bound; i += LANES) {
+            sums = sums.add(LongVector.fromArray(SPECIES, column, i));
+        }
+
+        long sum = sums.reduceLanes(VectorOperators.ADD);
+        for (; i < to; i++) {
+            sum += column[i];
+        }
+        return sum;
+    }
+
+    @Override
+    long min(long[] column, int from, int to) {
+        LongVector mins = LongVector.broadcast(SPECIES, Long.MAX_VALUE);
+        int i = from;
+        for (int bound = from + SPECIES.loopBound(to - from); i < bound; i += LANES) {
+            mins = mins.min(LongVector.fromArray(SPECIES, column, i));
+        }
+
+        long min = mins.reduceLanes(VectorOperators.MIN);
+        for (; i < to; i++) {
+            min = Math.min(min, column[i]);
+        }
+        return min;
+    }
+
+    @Override
+    long max(long[] column, int from, int to) {
+        LongVector maxs = LongVector.broadcast(SPECIES, Long.MIN_VALUE);
+        int i = from;
+        for (int bound = from + SPECIES.loopBound(to - from); i < bound; i += LANES) {
+            maxs = maxs.max(LongVector.fromArray(SPECIES, column, i));
+        }
+
+        long max = maxs.reduceLanes(VectorOperators.MAX);
+        for (; i < to; i++) {
+            max = Math.max(max, column[i]);
+        }
+        return max;
+    }
+
+    @Override
+    void highLow(long[] high, long[] low, int from, int to, long[] out) {
+        LongVector minLows = LongVector.broadcast(SPECIES, Long.MAX_VALUE);
+        LongVector maxLows = LongVector.broadcast(SPECIES, Long.MIN_VALUE);
+        LongVector minHighs = minLows;
+        LongVector maxHighs = maxLows;
+        LongVector sumLows = LongVector.zero(SPECIES);
+        LongVector sumHighs = sumLows;
+
+        int i = from;
+        for (int bound = from + SPECIES.loopBound(to - from); i < bound; i += LANES) {
+            LongVector l = LongVector.fromArray(SPECIES, low, i);
+            LongVector h = LongVector.fromArray(SPECIES, high, i);
+            minLows = minLows.min(l);
+            maxLows = maxLows.max(l);
+            minHighs = minHighs.min(h);
+            maxHighs = maxHighs.max(h);
+            sumLows = sumLows.add(l);
+            sumHighs = sumHighs.add(h);
+        }
+
+        long minLow = minLows.reduceLanes(VectorOperators.MIN);
+        long maxLow = maxLows.reduceLanes(VectorOperators.MAX);
+        long minHigh = minHighs.reduceLanes(VectorOperators.MIN);
+        long maxHigh = maxHighs.reduceLanes(VectorOperators.MAX);
+        long sumLow = sumLows.reduceLanes(VectorOperators.ADD);
+        long sumHigh = sumHighs.reduceLanes(VectorOperators.ADD);
+        for (; i < to; i++) {
+            long l = low[i];
+            long h = high[i];
+            minLow = Math.min(minLow, l);
+            maxLow = Math.max(maxLow, l);
+            minHigh = Math.min(minHigh, h);
+            maxHigh = Math.max(maxHigh, h);
+            sumLow += l;
+            sumHigh += h;
+        }
+
+        out[MIN_LOW] = minLow;
+        out[MAX_LOW] = maxLow;
+        out[MIN_HIGH] = minHigh;
+        out[MAX_HIGH] = maxHigh;
+        out[SUM_LOW] = sumLow;
+        out[SUM_HIGH] = sumHigh;
+    }
+}